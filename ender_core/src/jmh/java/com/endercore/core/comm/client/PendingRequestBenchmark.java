@@ -0,0 +1,161 @@
+package com.endercore.core.comm.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.endercore.core.comm.config.CoreWebSocketConfig;
+import com.endercore.core.comm.protocol.CoreResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * 客户端挂起请求簿记基准测试。
+ * impl 为 current 时通过 {@link CoreWebSocketClient#registerPending} 与 {@link CoreWebSocketClient#completePending}
+ * 调用客户端自身的簿记路径：分配请求 ID、获取窗口许可、登记挂起表与超时时间轮，收到响应后移除、取消超时、回收并记录延迟。
+ * 为 legacy 时对照 ConcurrentHashMap 加每请求调度一个 ScheduledFuture 的做法，
+ * 此时调度器启用了 removeOnCancelPolicy，以免已取消的任务在高吞吐下堆积导致内存溢出。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PendingRequestBenchmark {
+    private final ConcurrentHashMap<Long, LegacyPending> legacy = new ConcurrentHashMap<>();
+    private final AtomicLong requestIdSeq = new AtomicLong(1);
+    private ScheduledExecutorService scheduler;
+    private CoreWebSocketClient client;
+
+    @Param({"current", "legacy"})
+    private String impl;
+
+    /**
+     * 创建客户端与对照用的超时调度器。
+     */
+    @Setup
+    public void setup() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "bench-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        scheduler = executor;
+        client = new CoreWebSocketClient(CoreWebSocketConfig.builder()
+                .requestTimeout(Duration.ofSeconds(10))
+                .maxInFlightRequests(0)
+                .build(), null, Runnable::run);
+    }
+
+    /**
+     * 关闭客户端与超时调度器。
+     */
+    @TearDown
+    public void tearDown() {
+        client.close(Duration.ofSeconds(1));
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 单线程下登记并完成一个请求。
+     *
+     * @return 完成的 Future
+     */
+    @Benchmark
+    public CompletableFuture<CoreResponse> registerAndComplete() {
+        return roundTrip();
+    }
+
+    /**
+     * 多线程并发登记并完成请求。
+     *
+     * @return 完成的 Future
+     */
+    @Benchmark
+    @Threads(4)
+    public CompletableFuture<CoreResponse> registerAndCompleteContended() {
+        return roundTrip();
+    }
+
+    /**
+     * 执行一次完整的请求簿记流程。
+     *
+     * @return 完成的 Future
+     */
+    private CompletableFuture<CoreResponse> roundTrip() {
+        CompletableFuture<CoreResponse> future = new CompletableFuture<>();
+        if ("legacy".equals(impl)) {
+            long requestId = requestIdSeq.getAndIncrement();
+            LegacyPending pr = new LegacyPending(requestId, future);
+            pr.timeoutTask = scheduler.schedule(pr::expire, 10, TimeUnit.SECONDS);
+            legacy.put(requestId, pr);
+
+            LegacyPending p = legacy.remove(requestId);
+            if (p != null) {
+                p.timeoutTask.cancel(false);
+                p.future.complete(null);
+            }
+            return future;
+        }
+
+        long requestId = client.registerPending("bench:echo", future);
+        CompletableFuture<CoreResponse> f = client.completePending(requestId);
+        if (f != null) {
+            f.complete(null);
+        }
+        return future;
+    }
+
+    /**
+     * 对照组的挂起请求信息。
+     */
+    private final class LegacyPending {
+        private final long requestId;
+        private final CompletableFuture<CoreResponse> future;
+        private ScheduledFuture<?> timeoutTask;
+
+        /**
+         * 构造函数。
+         *
+         * @param requestId 请求 ID
+         * @param future 响应 Future
+         */
+        private LegacyPending(long requestId, CompletableFuture<CoreResponse> future) {
+            this.requestId = requestId;
+            this.future = future;
+        }
+
+        /**
+         * 请求超时。
+         */
+        private void expire() {
+            if (legacy.remove(requestId, this)) {
+                future.completeExceptionally(new IllegalStateException("timeout"));
+            }
+        }
+    }
+}
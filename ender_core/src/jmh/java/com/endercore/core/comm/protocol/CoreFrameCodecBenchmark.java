@@ -0,0 +1,111 @@
+package com.endercore.core.comm.protocol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * CoreFrameCodec 编解码基准测试。
+ * 覆盖不同负载大小与协议版本下的编码、池化编码、完整解码以及零拷贝视图解码。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreFrameCodecBenchmark {
+    /**
+     * 负载大小（字节）
+     */
+    @Param({"0", "64", "1024", "16384", "262144"})
+    public int payloadSize;
+
+    /**
+     * 协议版本
+     */
+    @Param({"1", "2"})
+    public int version;
+
+    private CoreFrameCodec codec;
+    private CoreFrame frame;
+    private ByteBuffer encoded;
+
+    /**
+     * 准备测试帧及其编码结果。
+     */
+    @Setup
+    public void setup() {
+        codec = new CoreFrameCodec(4 * 1024 * 1024);
+        byte[] payload = new byte[payloadSize];
+        new Random(42).nextBytes(payload);
+        frame = new CoreFrame(CoreMessageType.RESPONSE, (byte) 0, 0, 42, "c:room_state_sync", payload);
+        ByteBuffer pooled = codec.encodePooled(frame, null, version);
+        encoded = ByteBuffer.allocate(pooled.remaining());
+        encoded.put(pooled).flip();
+        codec.release(pooled);
+    }
+
+    /**
+     * 编码为新分配的字节数组（版本 1）。
+     *
+     * @return 编码结果
+     */
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(frame);
+    }
+
+    /**
+     * 编码到池化缓冲区并归还。
+     *
+     * @return 编码后的字节数
+     */
+    @Benchmark
+    public int encodePooled() {
+        ByteBuffer bytes = codec.encodePooled(frame, null, version);
+        int n = bytes.remaining();
+        codec.release(bytes);
+        return n;
+    }
+
+    /**
+     * 解码为独立的 CoreFrame（复制负载）。
+     *
+     * @return 解码结果
+     */
+    @Benchmark
+    public CoreFrame decode() {
+        return codec.decode(encoded.duplicate());
+    }
+
+    /**
+     * 解码为零拷贝视图，并访问 kind 与负载视图。
+     *
+     * @param bh 黑洞
+     */
+    @Benchmark
+    public void decodeView(Blackhole bh) {
+        CoreFrameView view = codec.decodeView(encoded.duplicate());
+        bh.consume(view.kind());
+        bh.consume(view.payloadBuffer());
+    }
+}
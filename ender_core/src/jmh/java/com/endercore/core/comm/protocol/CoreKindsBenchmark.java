@@ -0,0 +1,69 @@
+package com.endercore.core.comm.protocol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 协议类型校验与消息类型查找基准测试。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreKindsBenchmark {
+    private static final String[] KINDS = {
+            "c:ping", "c:player_profiles_list", "room:message", "mc:query_status"
+    };
+
+    private final byte[] codes = new byte[CoreMessageType.values().length];
+    private int index;
+
+    /**
+     * 构造函数。
+     */
+    public CoreKindsBenchmark() {
+        CoreMessageType[] types = CoreMessageType.values();
+        for (int i = 0; i < types.length; i++) {
+            codes[i] = types[i].code();
+        }
+    }
+
+    /**
+     * 校验合法的 kind。
+     *
+     * @return 被校验的 kind
+     */
+    @Benchmark
+    public String validate() {
+        String kind = KINDS[index++ & (KINDS.length - 1)];
+        CoreKinds.validate(kind);
+        return kind;
+    }
+
+    /**
+     * 由类型代码查找消息类型。
+     *
+     * @return 消息类型
+     */
+    @Benchmark
+    public CoreMessageType messageTypeFrom() {
+        int i = index++;
+        return CoreMessageType.from(codes[(i & Integer.MAX_VALUE) % codes.length]);
+    }
+}
@@ -0,0 +1,72 @@
+package com.endercore.core.comm.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * 房间代码生成与解析基准测试。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreRoomsBenchmark {
+    private String code;
+    private String embedded;
+
+    /**
+     * 准备一个合法的房间代码。
+     */
+    @Setup
+    public void setup() {
+        code = CoreRooms.generateRoomCode();
+        embedded = "快来加入我的房间 " + code.toLowerCase() + " 一起玩";
+    }
+
+    /**
+     * 生成随机房间代码。
+     *
+     * @return 房间代码
+     */
+    @Benchmark
+    public String generate() {
+        return CoreRooms.generateRoomCode();
+    }
+
+    /**
+     * 解析规范形式的房间代码。
+     *
+     * @return 解析结果
+     */
+    @Benchmark
+    public String parse() {
+        return CoreRooms.parseRoomCode(code);
+    }
+
+    /**
+     * 从一段文本中查找并解析房间代码。
+     *
+     * @return 解析结果
+     */
+    @Benchmark
+    public String parseEmbedded() {
+        return CoreRooms.parseRoomCode(embedded);
+    }
+}
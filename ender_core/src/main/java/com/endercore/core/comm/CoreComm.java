@@ -32,7 +32,7 @@ public final class CoreComm {
      *
      * @param config           客户端配置
      * @param exceptionHandler 异常处理器（可选）
-     * @param callbackExecutor 回调执行器（可选，默认在 Netty 线程中执行）
+     * @param callbackExecutor 回调执行器（可选，默认按 {@link CoreWebSocketConfig#executorMode()} 创建）
      * @return WebSocket 客户端实例
      */
     public static CoreWebSocketClient newClient(CoreWebSocketConfig config, CoreExceptionHandler exceptionHandler, Executor callbackExecutor) {
@@ -51,6 +51,18 @@ public final class CoreComm {
         return new CoreWebSocketServer(address, maxFrameBytes, handlerExecutor);
     }
 
+    /**
+     * 创建新的 WebSocket 服务器。
+     *
+     * @param address         绑定地址
+     * @param config          通信配置（最大帧大小、负载压缩与执行器模式等）
+     * @param handlerExecutor 处理器执行器（可选，默认按 {@link CoreWebSocketConfig#executorMode()} 创建）
+     * @return WebSocket 服务器实例
+     */
+    public static CoreWebSocketServer newServer(InetSocketAddress address, CoreWebSocketConfig config, Executor handlerExecutor) {
+        return new CoreWebSocketServer(address, config, handlerExecutor);
+    }
+
     /**
      * 命令行入口。
      * 支持 server 和 client 模式，用于测试通信功能。
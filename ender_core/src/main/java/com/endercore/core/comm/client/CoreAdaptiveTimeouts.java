@@ -0,0 +1,121 @@
+package com.endercore.core.comm.client;
+
+import com.endercore.core.comm.monitor.LatencyHistogram;
+import com.endercore.core.comm.monitor.LatencySnapshot;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * 按请求类型自适应的请求超时。
+ * 每个类型维护一个延迟直方图，每记录一批样本重新计算一次 p99 × 倍数，并限制在最小与最大超时之间；
+ * 样本不足时使用固定的默认超时。直方图累计到一定样本数后换成新的，使超时能跟随网络状况变化。
+ * 超时的请求以其超时时长作为样本记录，避免在慢路径上反复误判超时。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreAdaptiveTimeouts {
+    /**
+     * 开始自适应前需要的最少样本数
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * 每记录多少个样本重新计算一次超时
+     */
+    private static final int RECOMPUTE_EVERY = 16;
+
+    /**
+     * 单个直方图累计的样本数上限，达到后换成新的直方图
+     */
+    private static final int WINDOW_SAMPLES = 1024;
+
+    private final double multiplier;
+    private final long minNanos;
+    private final long maxNanos;
+    private final long defaultNanos;
+    private final ConcurrentHashMap<String, KindState> kinds = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数。
+     *
+     * @param multiplier p99 的倍数，不大于 0 表示不启用自适应
+     * @param minNanos 最小超时（纳秒）
+     * @param maxNanos 最大超时（纳秒）
+     * @param defaultNanos 样本不足或未启用时的超时（纳秒）
+     */
+    CoreAdaptiveTimeouts(double multiplier, long minNanos, long maxNanos, long defaultNanos) {
+        this.multiplier = multiplier;
+        this.minNanos = Math.max(0, minNanos);
+        this.maxNanos = Math.max(this.minNanos, maxNanos);
+        this.defaultNanos = defaultNanos;
+    }
+
+    /**
+     * 获取请求类型当前的超时时长。
+     *
+     * @param kind 请求类型
+     * @return 超时时长（纳秒）
+     */
+    long timeoutNanos(String kind) {
+        if (multiplier <= 0) {
+            return defaultNanos;
+        }
+        KindState st = kinds.get(kind);
+        if (st == null) {
+            return defaultNanos;
+        }
+        long t = st.timeoutNanos;
+        return t > 0 ? t : defaultNanos;
+    }
+
+    /**
+     * 记录一次请求延迟。
+     *
+     * @param kind 请求类型
+     * @param nanos 延迟（纳秒）
+     */
+    void record(String kind, long nanos) {
+        if (multiplier <= 0) {
+            return;
+        }
+        KindState st = kinds.get(kind);
+        if (st == null) {
+            st = kinds.computeIfAbsent(kind, k -> new KindState());
+        }
+        st.histogram.recordNanos(nanos);
+        if (st.samples.incrementAndGet() % RECOMPUTE_EVERY == 0) {
+            recompute(st);
+        }
+    }
+
+    /**
+     * 按当前直方图重新计算超时；样本数达到窗口上限时换成新的直方图，保留已计算的超时。
+     *
+     * @param st 类型状态
+     */
+    private void recompute(KindState st) {
+        LatencySnapshot snap = st.histogram.snapshot();
+        if (snap.count() >= MIN_SAMPLES) {
+            long p99 = TimeUnit.MICROSECONDS.toNanos(Math.max(1, snap.p99Micros()));
+            long t = (long) Math.min(Long.MAX_VALUE, p99 * multiplier);
+            st.timeoutNanos = Math.min(maxNanos, Math.max(minNanos, t));
+        }
+        if (snap.count() >= WINDOW_SAMPLES) {
+            st.histogram = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * 单个请求类型的状态。
+     */
+    private static final class KindState {
+        private final AtomicInteger samples = new AtomicInteger();
+        private volatile LatencyHistogram histogram = new LatencyHistogram();
+        private volatile long timeoutNanos;
+    }
+}
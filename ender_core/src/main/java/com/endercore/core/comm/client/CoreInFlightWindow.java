@@ -0,0 +1,276 @@
+package com.endercore.core.comm.client;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+
+/**
+ * 在途请求窗口。
+ * 以许可计数限制同时在途的请求数，并按发送缓冲的高低水位（带回差）暂停放行新请求。
+ * 快速路径只有一次 CAS；窗口已满时请求可以排队（有空位后按提交顺序放行）或阻塞等待。
+ * 发送缓冲没有回落通知，因此因水位暂停且有排队请求时，会在调度器上定期重新检查。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreInFlightWindow {
+    /**
+     * 发送缓冲字节数的最短重新计算间隔
+     */
+    private static final long BUFFER_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 因水位暂停时重新检查的间隔（毫秒）
+     */
+    private static final long RECHECK_MILLIS = 10;
+
+    private final int limit;
+    private final int maxQueued;
+    private final long highWatermark;
+    private final long lowWatermark;
+    private final LongSupplier bufferedBytes;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private final Object lock = new Object();
+
+    private volatile int queued;
+    private volatile int waiters;
+    private volatile boolean writeBlocked;
+    private volatile long lastBufferCheckNanos;
+    private volatile long lastBufferedBytes;
+    private boolean recheckScheduled;
+
+    /**
+     * 构造函数。
+     *
+     * @param limit 最大在途请求数，0 表示不限制
+     * @param maxQueued 最大排队请求数
+     * @param highWatermark 发送缓冲高水位（字节），0 表示不检查
+     * @param lowWatermark 发送缓冲低水位（字节）
+     * @param bufferedBytes 当前发送缓冲字节数的提供者
+     * @param scheduler 用于水位重新检查的调度器
+     */
+    CoreInFlightWindow(int limit, int maxQueued, long highWatermark, long lowWatermark, LongSupplier bufferedBytes, ScheduledExecutorService scheduler) {
+        this.limit = Math.max(0, limit);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.highWatermark = Math.max(0, highWatermark);
+        this.lowWatermark = Math.min(Math.max(0, lowWatermark), this.highWatermark);
+        this.bufferedBytes = bufferedBytes;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 获取当前在途请求数。
+     *
+     * @return 在途请求数
+     */
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 获取最大在途请求数。
+     *
+     * @return 最大在途请求数，0 表示不限制
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * 获取当前排队的请求数。
+     *
+     * @return 排队请求数
+     */
+    int queued() {
+        return queued;
+    }
+
+    /**
+     * 获取最近一次计算的发送缓冲字节数。
+     *
+     * @return 发送缓冲字节数
+     */
+    long bufferedBytes() {
+        return lastBufferedBytes;
+    }
+
+    /**
+     * 尝试立即获取一个许可。
+     * 有请求在排队时不插队。
+     *
+     * @return 获取成功返回 true
+     */
+    boolean tryAcquire() {
+        return queued == 0 && writable() && increment();
+    }
+
+    /**
+     * 阻塞获取一个许可。
+     *
+     * @param timeoutNanos 最长等待时间（纳秒）
+     * @return 获取成功返回 true，超时返回 false
+     * @throws InterruptedException 当等待被中断时抛出
+     */
+    boolean acquire(long timeoutNanos) throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        synchronized (lock) {
+            waiters++;
+            try {
+                for (;;) {
+                    if (writable() && increment()) {
+                        return true;
+                    }
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        return false;
+                    }
+                    long waitMillis = Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMillis(left), RECHECK_MILLIS));
+                    lock.wait(waitMillis);
+                }
+            } finally {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * 将请求加入等待队列。
+     * 任务在获得许可后执行，执行线程可能是释放许可的任意线程；任务自身负责在完成时归还许可，且不得抛出异常。
+     *
+     * @param start 获得许可后执行的任务
+     * @return 加入成功返回 true，队列已满返回 false
+     */
+    boolean enqueue(Runnable start) {
+        synchronized (lock) {
+            if (queue.size() >= maxQueued) {
+                return false;
+            }
+            queue.add(start);
+            queued = queue.size();
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * 归还一个许可，并放行排队的请求或唤醒阻塞的调用方。
+     */
+    void release() {
+        inFlight.decrementAndGet();
+        if (queued > 0) {
+            drain();
+        }
+        if (waiters > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 丢弃所有排队的请求（连接关闭时调用，对应的挂起请求由调用方另行失败）。
+     */
+    void clearQueue() {
+        synchronized (lock) {
+            queue.clear();
+            queued = 0;
+        }
+    }
+
+    /**
+     * 在许可与水位允许时依次放行排队的请求。
+     */
+    private void drain() {
+        for (;;) {
+            Runnable next;
+            synchronized (lock) {
+                if (queue.isEmpty()) {
+                    return;
+                }
+                if (!writable()) {
+                    scheduleRecheck();
+                    return;
+                }
+                if (!increment()) {
+                    return;
+                }
+                next = queue.poll();
+                queued = queue.size();
+            }
+            next.run();
+        }
+    }
+
+    /**
+     * 在未超过上限时将在途计数加一。
+     *
+     * @return 成功返回 true
+     */
+    private boolean increment() {
+        for (;;) {
+            int n = inFlight.get();
+            if (limit > 0 && n >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 按发送缓冲水位判断是否可以放行新请求。
+     * 超过高水位后暂停，回落到低水位及以下才恢复；缓冲字节数最多每毫秒计算一次。
+     *
+     * @return 可以放行返回 true
+     */
+    private boolean writable() {
+        if (highWatermark == 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - lastBufferCheckNanos < BUFFER_CHECK_NANOS) {
+            return !writeBlocked;
+        }
+        lastBufferCheckNanos = now;
+        long buffered = bufferedBytes.getAsLong();
+        lastBufferedBytes = buffered;
+        if (writeBlocked) {
+            if (buffered <= lowWatermark) {
+                writeBlocked = false;
+            }
+        } else if (buffered > highWatermark) {
+            writeBlocked = true;
+        }
+        return !writeBlocked;
+    }
+
+    /**
+     * 因水位暂停时安排一次延迟的重新检查（调用方需持有锁）。
+     */
+    private void scheduleRecheck() {
+        if (recheckScheduled) {
+            return;
+        }
+        recheckScheduled = true;
+        try {
+            scheduler.schedule(() -> {
+                synchronized (lock) {
+                    recheckScheduled = false;
+                }
+                drain();
+            }, RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            recheckScheduled = false;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.endercore.core.comm.client;
+
+import com.endercore.core.comm.exception.CoreTimeoutException;
+import com.endercore.core.comm.protocol.CoreResponse;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+
+/**
+ * 离线发送队列。
+ * 连接断开等待重连期间暂存请求与事件，重连成功后按提交顺序取出重放。
+ * 队列按条目数量限长，每个条目在超时时间轮上登记最长等待时间：到期的请求以超时异常失败，事件直接丢弃。
+ * 所有条目的最长等待时间相同，因此到期的条目几乎总在队首，移除是 O(1) 的。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreOfflineQueue {
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int EXPIRED = 2;
+
+    private static final AtomicIntegerFieldUpdater<Entry> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+    private final CoreTimeoutWheel timeouts;
+    private final int capacity;
+    private final Duration maxAge;
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+
+    /**
+     * 构造函数。
+     *
+     * @param timeouts 用于登记最长等待时间的超时时间轮
+     * @param capacity 最多暂存的条目数
+     * @param maxAge 条目最长等待时间
+     */
+    CoreOfflineQueue(CoreTimeoutWheel timeouts, int capacity, Duration maxAge) {
+        this.timeouts = timeouts;
+        this.capacity = Math.max(0, capacity);
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * 获取当前暂存的条目数。
+     *
+     * @return 条目数
+     */
+    int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * 暂存一个请求或事件。
+     *
+     * @param kind 请求或事件类型
+     * @param payload 负载
+     * @param future 请求的响应 Future；为 null 表示事件
+     * @return 暂存成功返回 true，队列已满返回 false
+     */
+    boolean offer(String kind, byte[] payload, CompletableFuture<CoreResponse> future) {
+        Entry e = new Entry(kind, payload, future);
+        synchronized (queue) {
+            if (queue.size() >= capacity) {
+                return false;
+            }
+            queue.add(e);
+            timeouts.schedule(e, maxAge.toNanos());
+        }
+        return true;
+    }
+
+    /**
+     * 取出队首的条目。
+     *
+     * @return 条目，队列为空时返回 null
+     */
+    Entry poll() {
+        for (;;) {
+            Entry e;
+            synchronized (queue) {
+                e = queue.poll();
+            }
+            if (e == null) {
+                return null;
+            }
+            if (STATE.compareAndSet(e, QUEUED, TAKEN)) {
+                timeouts.cancel(e);
+                return e;
+            }
+        }
+    }
+
+    /**
+     * 清空队列，并使其中的请求以指定异常失败。
+     *
+     * @param error 异常对象
+     */
+    void failAll(RuntimeException error) {
+        Entry e;
+        while ((e = poll()) != null) {
+            if (e.future != null) {
+                e.future.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * 暂存的条目。
+     */
+    final class Entry extends CoreTimeoutWheel.Entry {
+        private final String kind;
+        private final byte[] payload;
+        private final CompletableFuture<CoreResponse> future;
+        private volatile int state;
+
+        /**
+         * 构造函数。
+         *
+         * @param kind 请求或事件类型
+         * @param payload 负载
+         * @param future 请求的响应 Future；为 null 表示事件
+         */
+        private Entry(String kind, byte[] payload, CompletableFuture<CoreResponse> future) {
+            this.kind = kind;
+            this.payload = payload;
+            this.future = future;
+        }
+
+        /**
+         * 获取请求或事件类型。
+         *
+         * @return 类型
+         */
+        String kind() {
+            return kind;
+        }
+
+        /**
+         * 获取负载。
+         *
+         * @return 负载
+         */
+        byte[] payload() {
+            return payload;
+        }
+
+        /**
+         * 获取请求的响应 Future。
+         *
+         * @return 响应 Future；事件返回 null
+         */
+        CompletableFuture<CoreResponse> future() {
+            return future;
+        }
+
+        @Override
+        /**
+         * 等待超过最长时间：移出队列，请求以超时异常失败。
+         */
+        protected void onExpire() {
+            if (!STATE.compareAndSet(this, QUEUED, EXPIRED)) {
+                return;
+            }
+            synchronized (queue) {
+                queue.remove(this);
+            }
+            if (future != null) {
+                future.completeExceptionally(new CoreTimeoutException(kind, 0, maxAge));
+            }
+        }
+    }
+}
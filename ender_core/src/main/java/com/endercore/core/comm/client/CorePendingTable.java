@@ -0,0 +1,205 @@
+package com.endercore.core.comm.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+
+/**
+ * 以 long 为键的挂起请求表。
+ * 请求 ID 单调递增，因此按 {@code id & mask} 直接映射到环形槽位数组，槽位被更早的慢请求占用时向后探测少量位置，
+ * 仍找不到空位才退回溢出表；查找、插入与移除都是 O(1)，移除通过 CAS 完成，不加锁也不装箱。
+ * 每个槽位另有一个备用位：完成的请求对象可按原 ID 停放在对应槽位，容量个请求之后映射到同一槽位的新请求直接取回复用。
+ * 值对象在表中期间键不得改变；复用只能由成功移除且确认没有其他移除方的线程发起。
+ *
+ * @param <T> 值类型
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CorePendingTable<T extends CorePendingTable.Keyed> {
+    /**
+     * 每次查找最多探测的槽位数
+     */
+    private static final int PROBES = 4;
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicReferenceArray<T> spares;
+    private final ConcurrentHashMap<Long, T> overflow = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * 构造函数。
+     *
+     * @param capacity 槽位数量，会向上取整为 2 的幂
+     */
+    CorePendingTable(int capacity) {
+        int n = Integer.highestOneBit(Math.max(16, Math.min(capacity, 1 << 20)) - 1) << 1;
+        this.mask = n - 1;
+        this.slots = new AtomicReferenceArray<>(n);
+        this.spares = new AtomicReferenceArray<>(n);
+    }
+
+    /**
+     * 获取表中的条目数量。
+     *
+     * @return 条目数量
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * 加入条目。
+     *
+     * @param value 值对象，以其 {@link Keyed#key()} 为键
+     */
+    void put(T value) {
+        long key = value.key();
+        for (int i = 0; i < PROBES; i++) {
+            if (slots.compareAndSet(index(key, i), null, value)) {
+                size.incrementAndGet();
+                return;
+            }
+        }
+        overflow.put(key, value);
+        size.incrementAndGet();
+    }
+
+    /**
+     * 查找条目。
+     *
+     * @param key 键
+     * @return 值对象，不存在时返回 null
+     */
+    T get(long key) {
+        for (int i = 0; i < PROBES; i++) {
+            T v = slots.get(index(key, i));
+            if (v != null && v.key() == key) {
+                return v;
+            }
+        }
+        return overflow.isEmpty() ? null : overflow.get(key);
+    }
+
+    /**
+     * 移除条目。
+     *
+     * @param key 键
+     * @return 被移除的值对象，不存在或已被其他线程移除时返回 null
+     */
+    T remove(long key) {
+        for (int i = 0; i < PROBES; i++) {
+            int idx = index(key, i);
+            T v = slots.get(idx);
+            if (v != null && v.key() == key) {
+                if (slots.compareAndSet(idx, v, null)) {
+                    size.decrementAndGet();
+                    return v;
+                }
+                return null;
+            }
+        }
+        if (overflow.isEmpty()) {
+            return null;
+        }
+        T v = overflow.remove(key);
+        if (v != null) {
+            size.decrementAndGet();
+        }
+        return v;
+    }
+
+    /**
+     * 仅当键当前映射到指定值对象时移除。
+     *
+     * @param key 键
+     * @param value 期望的值对象
+     * @return 成功移除返回 true，否则返回 false
+     */
+    boolean remove(long key, T value) {
+        for (int i = 0; i < PROBES; i++) {
+            int idx = index(key, i);
+            if (slots.get(idx) == value && value.key() == key) {
+                if (slots.compareAndSet(idx, value, null)) {
+                    size.decrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        }
+        if (!overflow.isEmpty() && overflow.remove(key, value)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 移除全部条目，并对每个被移除的值对象执行回调。
+     *
+     * @param action 回调
+     */
+    void drain(Consumer<T> action) {
+        for (int i = 0; i <= mask; i++) {
+            T v = slots.get(i);
+            if (v != null && slots.compareAndSet(i, v, null)) {
+                size.decrementAndGet();
+                action.accept(v);
+            }
+        }
+        for (Long key : overflow.keySet()) {
+            T v = overflow.remove(key);
+            if (v != null) {
+                size.decrementAndGet();
+                action.accept(v);
+            }
+        }
+    }
+
+    /**
+     * 停放一个已移除、不再被任何线程引用的值对象，供之后映射到同一槽位的键复用。
+     * 备用位已被占用时直接丢弃。
+     *
+     * @param value 值对象，以其当前键决定停放的槽位
+     */
+    void recycle(T value) {
+        spares.compareAndSet((int) (value.key() & mask), null, value);
+    }
+
+    /**
+     * 取回停放在键所映射槽位上的值对象。
+     *
+     * @param key 即将加入的键
+     * @return 可复用的值对象，没有时返回 null
+     */
+    T reuse(long key) {
+        int idx = (int) (key & mask);
+        return spares.get(idx) == null ? null : spares.getAndSet(idx, null);
+    }
+
+    /**
+     * 计算第 probe 次探测的槽位下标。
+     *
+     * @param key 键
+     * @param probe 探测序号
+     * @return 槽位下标
+     */
+    private int index(long key, int probe) {
+        return (int) ((key + probe) & mask);
+    }
+
+    /**
+     * 以 long 为键的值对象。
+     */
+    interface Keyed {
+        /**
+         * 获取键。
+         *
+         * @return 键
+         */
+        long key();
+    }
+}
@@ -0,0 +1,67 @@
+package com.endercore.core.comm.client;
+
+import java.util.Arrays;
+
+
+/**
+ * 请求键：请求类型加负载内容，散列值预先计算。
+ * 用于合并相同的在途请求与缓存响应；比较时逐字节比较负载，散列冲突不会把不同的请求当作相同。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreRequestKey {
+    private final String kind;
+    private final byte[] payload;
+    private final int hash;
+
+    /**
+     * 构造函数。
+     *
+     * @param kind 请求类型
+     * @param payload 请求负载，为 null 时按空负载处理
+     */
+    CoreRequestKey(String kind, byte[] payload) {
+        this.kind = kind;
+        this.payload = payload == null ? new byte[0] : payload;
+        this.hash = 31 * kind.hashCode() + Arrays.hashCode(this.payload);
+    }
+
+    /**
+     * 获取请求类型。
+     *
+     * @return 请求类型
+     */
+    String kind() {
+        return kind;
+    }
+
+    @Override
+    /**
+     * 获取散列值。
+     *
+     * @return 散列值
+     */
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    /**
+     * 比较类型与负载内容是否相同。
+     *
+     * @param o 另一个对象
+     * @return 相同返回 true
+     */
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CoreRequestKey)) {
+            return false;
+        }
+        CoreRequestKey k = (CoreRequestKey) o;
+        return hash == k.hash && kind.equals(k.kind) && Arrays.equals(payload, k.payload);
+    }
+}
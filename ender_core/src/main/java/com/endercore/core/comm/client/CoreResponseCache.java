@@ -0,0 +1,185 @@
+package com.endercore.core.comm.client;
+
+import com.endercore.core.comm.monitor.ConnectionMetrics;
+import com.endercore.core.comm.protocol.CoreResponse;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+
+/**
+ * 客户端响应缓存。
+ * 按请求类型与负载内容缓存成功的响应，每种类型有各自的有效期；有效期过后的一段时间内仍返回旧响应，
+ * 同时在后台重新请求（stale-while-revalidate），同一条目同一时刻只有一个刷新请求。
+ * 条目数超过上限时淘汰最久未使用的条目。收到配置的事件时丢弃对应请求类型的缓存；
+ * 每次失效都会推进代数，失效前发出、失效后才返回的响应不会写入缓存。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreResponseCache {
+    private final Map<String, Long> ttlNanos = new HashMap<>();
+    private final Map<String, Long> staleNanos = new HashMap<>();
+    private final Map<String, Set<String>> invalidations;
+    private final ConnectionMetrics metrics;
+    private final LinkedHashMap<CoreRequestKey, Entry> entries;
+    private long generation;
+
+    /**
+     * 构造函数。
+     *
+     * @param maxEntries 最大条目数
+     * @param ttls 各请求类型的有效期
+     * @param staleWindows 各请求类型过期后仍可返回旧响应的时长
+     * @param invalidations 事件类型到其使之失效的请求类型的映射
+     * @param metrics 连接指标，用于记录命中与未命中
+     */
+    CoreResponseCache(int maxEntries, Map<String, Duration> ttls, Map<String, Duration> staleWindows,
+                      Map<String, Set<String>> invalidations, ConnectionMetrics metrics) {
+        ttls.forEach((kind, ttl) -> ttlNanos.put(kind, ttl.toNanos()));
+        staleWindows.forEach((kind, stale) -> staleNanos.put(kind, stale == null ? 0L : stale.toNanos()));
+        this.invalidations = invalidations;
+        this.metrics = metrics;
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            /**
+             * 超过条目数上限时淘汰最久未使用的条目。
+             *
+             * @param eldest 最久未使用的条目
+             * @return 需要淘汰返回 true
+             */
+            protected boolean removeEldestEntry(Map.Entry<CoreRequestKey, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 检查请求类型是否可缓存。
+     *
+     * @param kind 请求类型
+     * @return 可缓存返回 true
+     */
+    boolean caches(String kind) {
+        return ttlNanos.containsKey(kind);
+    }
+
+    /**
+     * 获取响应：有效的缓存直接返回，过期但仍在容忍期内的返回旧响应并后台刷新，否则通过 loader 请求。
+     *
+     * @param kind 请求类型
+     * @param payload 请求负载
+     * @param loader 发送请求的函数
+     * @return 响应 Future
+     */
+    CompletableFuture<CoreResponse> get(String kind, byte[] payload, Supplier<CompletableFuture<CoreResponse>> loader) {
+        CoreRequestKey key = new CoreRequestKey(kind, payload);
+        long now = System.nanoTime();
+        Entry e;
+        boolean revalidate = false;
+        long gen;
+        synchronized (entries) {
+            gen = generation;
+            e = entries.get(key);
+            if (e != null && now - e.staleUntil > 0) {
+                entries.remove(key);
+                e = null;
+            } else if (e != null && now - e.freshUntil > 0 && !e.refreshing) {
+                e.refreshing = true;
+                revalidate = true;
+            }
+        }
+        if (e == null) {
+            metrics.onCacheMiss();
+            return load(key, loader, gen);
+        }
+        metrics.onCacheHit();
+        if (revalidate) {
+            load(key, loader, gen);
+        }
+        return CompletableFuture.completedFuture(e.response);
+    }
+
+    /**
+     * 发送请求，成功后写入缓存；失败时保留旧条目并允许下一次命中再次刷新。
+     *
+     * @param key 请求键
+     * @param loader 发送请求的函数
+     * @param gen 发送时的缓存代数
+     * @return 响应 Future
+     */
+    private CompletableFuture<CoreResponse> load(CoreRequestKey key, Supplier<CompletableFuture<CoreResponse>> loader, long gen) {
+        CompletableFuture<CoreResponse> f = loader.get();
+        f.whenComplete((r, err) -> {
+            synchronized (entries) {
+                if (err == null && r != null && r.isOk() && !r.isStreamed() && gen == generation) {
+                    long now = System.nanoTime();
+                    long ttl = ttlNanos.get(key.kind());
+                    entries.put(key, new Entry(r, now + ttl, now + ttl + staleNanos.getOrDefault(key.kind(), 0L)));
+                    return;
+                }
+                Entry old = entries.get(key);
+                if (old != null) {
+                    old.refreshing = false;
+                }
+            }
+        });
+        return f;
+    }
+
+    /**
+     * 处理事件：丢弃该事件使之失效的请求类型的全部缓存响应。
+     *
+     * @param eventKind 事件类型
+     */
+    void invalidate(String eventKind) {
+        Set<String> kinds = invalidations.get(eventKind);
+        if (kinds == null) {
+            return;
+        }
+        synchronized (entries) {
+            generation++;
+            entries.keySet().removeIf(k -> kinds.contains(k.kind()));
+        }
+    }
+
+    /**
+     * 清空缓存。
+     */
+    void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * 缓存条目。
+     */
+    private static final class Entry {
+        private final CoreResponse response;
+        private final long freshUntil;
+        private final long staleUntil;
+        private boolean refreshing;
+
+        /**
+         * 构造函数。
+         *
+         * @param response 响应
+         * @param freshUntil 有效期截止时刻（纳秒时钟）
+         * @param staleUntil 可返回旧响应的截止时刻（纳秒时钟）
+         */
+        private Entry(CoreResponse response, long freshUntil, long staleUntil) {
+            this.response = response;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
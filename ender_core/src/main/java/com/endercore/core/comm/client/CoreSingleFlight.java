@@ -0,0 +1,51 @@
+package com.endercore.core.comm.client;
+
+import com.endercore.core.comm.protocol.CoreResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+
+/**
+ * 相同请求的合并发送。
+ * 以请求类型与负载内容为键登记在途请求；键相同的并发请求只发送一次，所有调用方共享同一个响应。
+ * 在途请求完成（无论成功或失败）后立即移除登记，之后的请求重新发送，因此不会返回过期的响应。
+ * 每个调用方拿到的是共享 Future 的副本，取消或完成副本不影响其他调用方。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreSingleFlight {
+    private final ConcurrentHashMap<CoreRequestKey, CompletableFuture<CoreResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 发送请求，已有相同请求在途时共享其响应。
+     *
+     * @param kind 请求类型
+     * @param payload 请求负载
+     * @param sender 真正发送请求的函数，参数为接收响应的 Future
+     * @return 响应 Future
+     */
+    CompletableFuture<CoreResponse> execute(String kind, byte[] payload, Consumer<CompletableFuture<CoreResponse>> sender) {
+        CoreRequestKey key = new CoreRequestKey(kind, payload);
+        CompletableFuture<CoreResponse> f = new CompletableFuture<>();
+        CompletableFuture<CoreResponse> existing = inFlight.putIfAbsent(key, f);
+        if (existing != null) {
+            return existing.copy();
+        }
+        f.whenComplete((r, e) -> inFlight.remove(key, f));
+        sender.accept(f);
+        return f.copy();
+    }
+
+    /**
+     * 获取当前登记的在途请求数。
+     *
+     * @return 在途请求数
+     */
+    int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,240 @@
+package com.endercore.core.comm.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * 哈希时间轮超时管理器。
+ * 所有挂起请求共享同一个时间轮：按到期刻度散列到固定数量的槽位，每个槽位是一条带锁的双向链表，
+ * 插入与取消都是 O(1)，且超时项本身就是链表节点，不为每个请求额外分配任务对象。
+ * 时间轮由调度器上的一个周期任务推进，精度为一个刻度；没有待处理项时周期任务自动停止。
+ * 到期回调在调度器线程上、槽位锁之外执行。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreTimeoutWheel {
+    private final ScheduledExecutorService scheduler;
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * 已推进到的刻度，大于该刻度的槽位尚未处理
+     */
+    private volatile long processedTick;
+    private volatile ScheduledFuture<?> ticker;
+
+    /**
+     * 构造函数。
+     *
+     * @param scheduler 推进时间轮的调度器
+     * @param tickNanos 刻度长度（纳秒）
+     * @param wheelSize 槽位数量，会向上取整为 2 的幂
+     */
+    CoreTimeoutWheel(ScheduledExecutorService scheduler, long tickNanos, int wheelSize) {
+        this.scheduler = scheduler;
+        this.tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), tickNanos);
+        int n = Integer.highestOneBit(Math.max(16, Math.min(wheelSize, 1 << 16)) - 1) << 1;
+        this.mask = n - 1;
+        this.buckets = new Bucket[n];
+        for (int i = 0; i < n; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 获取尚未到期且未取消的超时项数量。
+     *
+     * @return 超时项数量
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * 加入一个超时项。
+     * 到期时间向上取整到刻度，因此不会早于 delayNanos 触发，最多晚一个刻度。
+     *
+     * @param entry 超时项，不能已在时间轮中
+     * @param delayNanos 超时时长（纳秒）
+     * @throws IllegalStateException 当超时项已在时间轮中时抛出
+     */
+    void schedule(Entry entry, long delayNanos) {
+        if (entry.bucket != null) {
+            throw new IllegalStateException("entry already scheduled");
+        }
+        long elapsed = System.nanoTime() - startNanos + Math.max(0, delayNanos);
+        long deadline = (elapsed + tickNanos - 1) / tickNanos;
+        for (;;) {
+            Bucket b = buckets[(int) (deadline & mask)];
+            synchronized (b) {
+                if (deadline > processedTick) {
+                    entry.deadlineTick = deadline;
+                    b.link(entry);
+                    break;
+                }
+            }
+            deadline = processedTick + 1;
+        }
+        size.incrementAndGet();
+        if (ticker == null) {
+            startTicking();
+        }
+    }
+
+    /**
+     * 取消一个超时项。
+     *
+     * @param entry 超时项
+     * @return 成功取消返回 true；已到期、已取消或从未加入时返回 false
+     */
+    boolean cancel(Entry entry) {
+        Bucket b = entry.bucket;
+        if (b == null) {
+            return false;
+        }
+        synchronized (b) {
+            if (entry.bucket != b) {
+                return false;
+            }
+            b.unlink(entry);
+        }
+        size.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * 启动周期推进任务（如果尚未启动）。
+     */
+    private synchronized void startTicking() {
+        if (ticker == null) {
+            ticker = scheduler.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 推进时间轮到当前刻度，处理期间经过的每个槽位。
+     * 落后超过一圈时每个槽位只处理一次。
+     */
+    private void tick() {
+        long now = (System.nanoTime() - startNanos) / tickNanos;
+        long from = Math.max(processedTick + 1, now - mask);
+        List<Entry> expired = null;
+        for (long t = from; t <= now; t++) {
+            processedTick = t;
+            Bucket b = buckets[(int) (t & mask)];
+            synchronized (b) {
+                Entry e = b.head;
+                while (e != null) {
+                    Entry next = e.next;
+                    if (e.deadlineTick <= t) {
+                        b.unlink(e);
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(e);
+                    }
+                    e = next;
+                }
+            }
+        }
+        if (expired != null) {
+            size.addAndGet(-expired.size());
+            for (Entry e : expired) {
+                try {
+                    e.onExpire();
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+        if (size.get() == 0) {
+            stopTickingIfIdle();
+        }
+    }
+
+    /**
+     * 时间轮为空时停止周期推进任务。
+     * 停止后再次检查，避免与并发的 {@link #schedule} 竞争导致超时项无人推进。
+     */
+    private synchronized void stopTickingIfIdle() {
+        if (ticker == null || size.get() != 0) {
+            return;
+        }
+        ticker.cancel(false);
+        ticker = null;
+        if (size.get() != 0) {
+            startTicking();
+        }
+    }
+
+    /**
+     * 超时项。
+     * 由需要超时控制的对象继承，自身即为时间轮槽位链表的节点；到期或取消后可再次加入。
+     */
+    abstract static class Entry {
+        private volatile Bucket bucket;
+        private Entry prev;
+        private Entry next;
+        private long deadlineTick;
+
+        /**
+         * 到期回调，在调度器线程上执行。
+         */
+        protected abstract void onExpire();
+    }
+
+    /**
+     * 时间轮槽位（双向链表，以自身为锁）。
+     */
+    private static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        /**
+         * 将超时项追加到链表尾部。
+         *
+         * @param e 超时项
+         */
+        private void link(Entry e) {
+            e.prev = tail;
+            e.next = null;
+            if (tail == null) {
+                head = e;
+            } else {
+                tail.next = e;
+            }
+            tail = e;
+            e.bucket = this;
+        }
+
+        /**
+         * 从链表中移除超时项。
+         *
+         * @param e 超时项
+         */
+        private void unlink(Entry e) {
+            if (e.prev == null) {
+                head = e.next;
+            } else {
+                e.prev.next = e.next;
+            }
+            if (e.next == null) {
+                tail = e.prev;
+            } else {
+                e.next.prev = e.prev;
+            }
+            e.prev = null;
+            e.next = null;
+            e.bucket = null;
+        }
+    }
+}
@@ -5,7 +5,9 @@ import com.endercore.core.comm.api.CoreExceptionHandler;
 import com.endercore.core.comm.api.CoreEventListener;
 import com.endercore.core.comm.api.CoreMessageClient;
 import com.endercore.core.comm.api.CoreStateMonitor;
+import com.endercore.core.comm.config.CoreBackpressurePolicy;
 import com.endercore.core.comm.config.CoreWebSocketConfig;
+import com.endercore.core.comm.exception.CoreBackpressureException;
 import com.endercore.core.comm.exception.CoreClosedException;
 import com.endercore.core.comm.exception.CoreConnectException;
 import com.endercore.core.comm.exception.CoreProtocolException;
@@ -14,18 +16,35 @@ import com.endercore.core.comm.exception.CoreTimeoutException;
 import com.endercore.core.comm.monitor.ConnectionMetrics;
 import com.endercore.core.comm.monitor.ConnectionMetricsSnapshot;
 import com.endercore.core.comm.monitor.ConnectionState;
+import com.endercore.core.comm.protocol.CoreEventDispatcher;
 import com.endercore.core.comm.protocol.CoreFrame;
+import com.endercore.core.comm.protocol.CoreFrameBatcher;
 import com.endercore.core.comm.protocol.CoreFrameCodec;
+import com.endercore.core.comm.protocol.CoreFrameView;
+import com.endercore.core.comm.protocol.CoreHandshake;
+import com.endercore.core.comm.protocol.CoreInboundStream;
+import com.endercore.core.comm.protocol.CoreKindIds;
 import com.endercore.core.comm.protocol.CoreKinds;
 import com.endercore.core.comm.protocol.CoreMessageType;
+import com.endercore.core.comm.protocol.CoreProtocol;
 import com.endercore.core.comm.protocol.CoreResponse;
+import com.endercore.core.comm.protocol.CoreStreamRegistry;
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.framing.CloseFrame;
 import org.java_websocket.handshake.ServerHandshake;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,9 +52,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
@@ -50,12 +69,28 @@ import java.util.function.BiConsumer;
  * @since 1.0
  */
 public final class CoreWebSocketClient implements CoreConnectionManager, CoreMessageClient, CoreStateMonitor {
+    /**
+     * 挂起请求表的槽位数量
+     */
+    private static final int PENDING_SLOTS = 1024;
+
+    /**
+     * 心跳时间戳的基准，心跳帧的 requestId 携带相对该基准的纳秒数加一，对端原样回显
+     */
+    private static final long HEARTBEAT_EPOCH_NANOS = System.nanoTime();
+
+    /**
+     * 挂起请求的窗口许可状态：0 未持有，1 持有，2 已归还
+     */
+    private static final AtomicIntegerFieldUpdater<PendingRequest> PERMIT =
+            AtomicIntegerFieldUpdater.newUpdater(PendingRequest.class, "permit");
+
     private final Object lifecycleLock = new Object();
     private final AtomicReference<ConnectionState> state = new AtomicReference<>(ConnectionState.CLOSED);
     private final CopyOnWriteArrayList<BiConsumer<ConnectionState, ConnectionState>> stateListeners = new CopyOnWriteArrayList<>();
     private final ConcurrentHashMap<String, CopyOnWriteArrayList<CoreEventListener>> eventListeners = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<CoreEventListener> anyEventListeners = new CopyOnWriteArrayList<>();
-    private final ConcurrentHashMap<Long, PendingRequest> pending = new ConcurrentHashMap<>();
+    private final CorePendingTable<PendingRequest> pending = new CorePendingTable<>(PENDING_SLOTS);
     private final AtomicLong requestIdSeq = new AtomicLong(1);
 
     /**
@@ -78,6 +113,41 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
      */
     private final ScheduledExecutorService scheduler;
     
+    /**
+     * 请求超时时间轮
+     */
+    private final CoreTimeoutWheel timeouts;
+
+    /**
+     * 按请求类型自适应的请求超时
+     */
+    private final CoreAdaptiveTimeouts adaptiveTimeouts;
+
+    /**
+     * 在途请求窗口
+     */
+    private final CoreInFlightWindow window;
+
+    /**
+     * 离线发送队列，未启用时为 null
+     */
+    private final CoreOfflineQueue offline;
+
+    /**
+     * 相同请求的合并发送，未配置合并类型时为 null
+     */
+    private final CoreSingleFlight singleFlight;
+
+    /**
+     * 响应缓存，未启用时为 null
+     */
+    private final CoreResponseCache cache;
+
+    /**
+     * 事件分发器
+     */
+    private final CoreEventDispatcher events;
+
     /**
      * 帧编解码器
      */
@@ -93,30 +163,56 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
     private volatile CompletableFuture<Void> connectFuture;
     private volatile boolean closing;
     private volatile Duration dynamicBackoff;
+    private volatile CoreKindIds kindIds;
+    private volatile List<String> negotiatedKinds;
+    private volatile int wireVersion = CoreProtocol.VERSION;
+    private volatile CoreFrameBatcher batcher;
+    private volatile CoreStreamRegistry streams;
+    private volatile Thread schedulerThread;
+    private volatile Thread readThread;
 
     /**
      * 构造函数。
      *
      * @param config 客户端配置
      * @param exceptionHandler 异常处理器，如果为 null 则使用 NoopExceptionHandler
-     * @param callbackExecutor 回调执行器，如果为 null 则使用 CachedThreadPool
+     * @param callbackExecutor 回调执行器，如果为 null 则按配置的执行器模式创建
      */
     public CoreWebSocketClient(CoreWebSocketConfig config, CoreExceptionHandler exceptionHandler, Executor callbackExecutor) {
         this.config = Objects.requireNonNull(config, "config");
         this.exceptionHandler = exceptionHandler == null ? new NoopExceptionHandler() : exceptionHandler;
-        this.callbackExecutor = callbackExecutor == null ? Executors.newCachedThreadPool() : callbackExecutor;
+        this.callbackExecutor = callbackExecutor == null ? config.executorMode().newExecutor("endercore-core-comm-callback") : callbackExecutor;
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "endercore-core-comm-scheduler");
             t.setDaemon(true);
+            schedulerThread = t;
             return t;
         });
-        this.codec = new CoreFrameCodec(config.maxFrameBytes());
+        this.timeouts = new CoreTimeoutWheel(scheduler, config.timeoutTick().toNanos(), config.timeoutWheelSize());
+        Duration maxTimeout = config.adaptiveTimeoutMax() == null ? config.requestTimeout() : config.adaptiveTimeoutMax();
+        this.adaptiveTimeouts = new CoreAdaptiveTimeouts(config.adaptiveTimeoutMultiplier(), config.adaptiveTimeoutMin().toNanos(),
+                maxTimeout.toNanos(), config.requestTimeout().toNanos());
+        this.window = new CoreInFlightWindow(config.maxInFlightRequests(), config.maxQueuedRequests(),
+                config.sendBufferHighWatermark(), config.sendBufferLowWatermark(), this::bufferedBytes, scheduler);
+        this.offline = config.offlineQueueSize() > 0
+                ? new CoreOfflineQueue(timeouts, config.offlineQueueSize(), config.offlineQueueMaxAge())
+                : null;
+        this.singleFlight = config.singleFlightKinds().isEmpty() ? null : new CoreSingleFlight();
+        this.cache = config.responseCacheSize() > 0
+                ? new CoreResponseCache(config.responseCacheSize(), config.cacheTtls(), config.cacheStaleWindows(),
+                        config.cacheInvalidations(), metrics)
+                : null;
+        this.events = new CoreEventDispatcher(this.callbackExecutor, config.eventLanes(), config.eventQueueCapacity(),
+                config.eventOverflowPolicy(), metrics);
+        this.codec = new CoreFrameCodec(config.maxFrameBytes(), config.compression(), config.compressionThreshold());
         this.dynamicBackoff = config.reconnectBackoffMin();
     }
 
     @Override
     /**
      * 连接到指定端点。
+     * 连接在底层库的连接线程中异步建立，本方法立即返回；返回的 Future 在 onOpen 时完成，
+     * 在连接失败、超过连接超时或调用 {@link #close(Duration)} 时以异常完成。连接超时由调度器计时。
      *
      * @param endpoint 连接端点 URI
      * @return 连接 Future
@@ -133,35 +229,33 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
             this.endpoint = endpoint;
             this.closing = false;
             setState(ConnectionState.CONNECTING);
-            this.connectFuture = new CompletableFuture<>();
-            this.client = newClient(endpoint);
+            CompletableFuture<Void> attempt = new CompletableFuture<>();
+            WebSocketClient c = newClient(endpoint, attempt);
+            this.connectFuture = attempt;
+            this.client = c;
             try {
-                boolean started = this.client.connectBlocking(config.connectTimeout().toMillis(), TimeUnit.MILLISECONDS);
-                if (!started) {
-                    CoreConnectException e = new CoreConnectException("连接超时: " + endpoint, null);
-                    exceptionHandler.onConnectionError(e);
-                    setState(ConnectionState.FAILED);
-                    connectFuture.completeExceptionally(e);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                CoreConnectException ce = new CoreConnectException("连接被中断: " + endpoint, e);
-                exceptionHandler.onConnectionError(ce);
-                setState(ConnectionState.FAILED);
-                connectFuture.completeExceptionally(ce);
+                c.connect();
             } catch (Exception e) {
                 CoreConnectException ce = new CoreConnectException("连接失败: " + endpoint, e);
                 exceptionHandler.onConnectionError(ce);
                 setState(ConnectionState.FAILED);
-                connectFuture.completeExceptionally(ce);
+                attempt.completeExceptionally(ce);
+                return attempt;
             }
-            return connectFuture;
+            scheduler.schedule(() -> {
+                if (attempt.completeExceptionally(new CoreConnectException("连接超时: " + endpoint, null))) {
+                    exceptionHandler.onConnectionError(new CoreConnectException("连接超时: " + endpoint, null));
+                    c.closeConnection(CloseFrame.NEVER_CONNECTED, "连接超时");
+                }
+            }, config.connectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return attempt;
         }
     }
 
     @Override
     /**
      * 关闭连接。
+     * 正在进行的连接会被取消，其 Future 以 {@link CoreClosedException} 完成；关闭在回调执行器中进行，不占用调度器线程。
      *
      * @param timeout 超时时间
      * @return 关闭 Future
@@ -172,14 +266,23 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
             closing = true;
             setState(ConnectionState.CLOSING);
             WebSocketClient c = this.client;
+            CompletableFuture<Void> attempt = connectFuture;
+            if (attempt != null) {
+                attempt.completeExceptionally(new CoreClosedException("连接已关闭"));
+            }
+            failOffline(new CoreClosedException("连接已关闭"));
             if (c == null) {
                 setState(ConnectionState.CLOSED);
                 return CompletableFuture.completedFuture(null);
             }
             CompletableFuture<Void> f = new CompletableFuture<>();
-            scheduler.execute(() -> {
+            callbackExecutor.execute(() -> {
                 try {
-                    c.closeBlocking();
+                    if (c.isOpen()) {
+                        c.closeBlocking();
+                    } else {
+                        c.closeConnection(CloseFrame.NORMAL, "连接已关闭");
+                    }
                     failPending(new CoreClosedException("连接已关闭"));
                     setState(ConnectionState.CLOSED);
                     f.complete(null);
@@ -221,47 +324,347 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
     @Override
     /**
      * 异步发送请求。
+     * 请求需先获得在途窗口许可；窗口已满或发送缓冲超过高水位时按 {@link CoreBackpressurePolicy} 处理。
+     * 排队与阻塞等待的时间计入请求超时。未连接时，启用了离线队列的幂等请求会暂存到重连后发送。
+     * 配置为合并发送的类型，在相同负载的请求在途时共享其响应而不再单独发送；
+     * 启用响应缓存时，可缓存类型的请求先查缓存。
      *
      * @param kind 请求类型
      * @param payload 请求负载
-     * @return 响应 Future
+     * @return 响应 Future；被背压拒绝时以 {@link CoreBackpressureException} 失败
      */
     public CompletableFuture<CoreResponse> sendAsync(String kind, byte[] payload) {
         CoreKinds.validate(kind);
+        if (cache != null && cache.caches(kind)) {
+            return cache.get(kind, payload, () -> sendShared(kind, payload));
+        }
+        return sendShared(kind, payload);
+    }
+
+    /**
+     * 发送请求；配置为合并发送的类型与在途的相同请求共享响应。
+     *
+     * @param kind 请求类型
+     * @param payload 请求负载
+     * @return 响应 Future
+     */
+    private CompletableFuture<CoreResponse> sendShared(String kind, byte[] payload) {
+        if (singleFlight != null && config.singleFlightKinds().contains(kind)) {
+            return singleFlight.execute(kind, payload, f -> send(kind, payload, f));
+        }
+        return send(kind, payload, new CompletableFuture<>());
+    }
+
+    /**
+     * 发送请求并以指定 Future 接收响应。
+     * 未连接时，若离线队列可用且请求类型为幂等类型，则暂存到重连后重放，否则立即失败。
+     *
+     * @param kind 请求类型
+     * @param payload 请求负载
+     * @param future 响应 Future
+     * @return future
+     */
+    private CompletableFuture<CoreResponse> send(String kind, byte[] payload, CompletableFuture<CoreResponse> future) {
         if (!isConnected()) {
-            CompletableFuture<CoreResponse> f = new CompletableFuture<>();
-            f.completeExceptionally(new CoreClosedException("连接不可用: state=" + state.get()));
-            return f;
+            if (!offerOffline(kind, payload, future)) {
+                future.completeExceptionally(new CoreClosedException("连接不可用: state=" + state.get()));
+            }
+            return future;
         }
 
         long requestId = requestIdSeq.getAndIncrement();
-        CoreFrame requestFrame = new CoreFrame(CoreMessageType.REQUEST, (byte) 0, 0, requestId, kind, payload);
-        byte[] bytes = codec.encode(requestFrame);
+        PendingRequest pr = newPending(kind, requestId, future);
+        if (tryRegister(pr)) {
+            writeRequest(pr, kind, requestId, payload);
+        } else {
+            admit(pr, kind, () -> writeRequest(pr, kind, requestId, payload), true);
+        }
+        return future;
+    }
 
-        CompletableFuture<CoreResponse> future = new CompletableFuture<>();
-        Duration timeout = config.requestTimeout();
-        ScheduledFuture<?> timeoutTask = scheduler.schedule(() -> {
-            PendingRequest removed = pending.remove(requestId);
-            if (removed != null && removed.future.completeExceptionally(new CoreTimeoutException(kind, requestId, timeout))) {
-                metrics.onRequestTimeout();
-                exceptionHandler.onTimeout(new CoreTimeoutException(kind, requestId, timeout));
-            }
-        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    /**
+     * 尝试立即获得窗口许可，获得后登记挂起请求并开始计算超时。
+     *
+     * @param pr 挂起请求
+     * @return 已登记返回 true；窗口已满返回 false
+     */
+    private boolean tryRegister(PendingRequest pr) {
+        if (!window.tryAcquire()) {
+            return false;
+        }
+        pr.permit = 1;
+        register(pr, true);
+        return true;
+    }
 
-        pending.put(requestId, new PendingRequest(kind, System.nanoTime(), future, timeoutTask));
+    /**
+     * 登记一个挂起请求，不发送请求帧。
+     * 执行与 {@link #send} 相同的簿记（分配请求 ID、获取窗口许可、登记挂起表与超时），供基准测试测量客户端的真实簿记路径。
+     *
+     * @param kind 请求类型
+     * @param future 响应 Future
+     * @return 请求 ID，窗口已满时返回 -1
+     */
+    long registerPending(String kind, CompletableFuture<CoreResponse> future) {
+        long requestId = requestIdSeq.getAndIncrement();
+        return tryRegister(newPending(kind, requestId, future)) ? requestId : -1;
+    }
+
+    /**
+     * 按响应到达的方式结束一个挂起请求，不完成其 Future。
+     * 执行与 onResponseFrame 相同的簿记，供基准测试使用。
+     *
+     * @param requestId 请求 ID
+     * @return 挂起请求的 Future，不存在时返回 null
+     */
+    CompletableFuture<CoreResponse> completePending(long requestId) {
+        PendingRequest pr = pending.remove(requestId);
+        return pr == null ? null : settle(pr);
+    }
 
+    /**
+     * 编码并发送请求帧；发送失败时移除挂起项并使 Future 失败。
+     * 在获得窗口许可时才编码，因此使用的是发送时刻的协商结果。
+     *
+     * @param pr 挂起请求
+     * @param kind 请求类型
+     * @param requestId 请求 ID
+     * @param payload 请求负载
+     */
+    private void writeRequest(PendingRequest pr, String kind, long requestId, byte[] payload) {
+        ByteBuffer bytes;
+        try {
+            bytes = codec.encodePooled(new CoreFrame(CoreMessageType.REQUEST, (byte) 0, 0, requestId, kind, payload), kindIds, wireVersion);
+        } catch (RuntimeException e) {
+            failRequest(pr, requestId, e);
+            return;
+        }
         try {
             metrics.onRequestSent();
-            metrics.onFrameSent(bytes.length);
-            client.send(bytes);
+            metrics.onFrameSent(bytes.remaining());
+            write(bytes);
         } catch (Exception e) {
-            PendingRequest removed = pending.remove(requestId);
-            if (removed != null) {
-                removed.timeoutTask.cancel(false);
+            failRequest(pr, requestId, new CoreConnectException("发送失败: " + kind, e));
+        } finally {
+            codec.release(bytes);
+        }
+    }
+
+    /**
+     * 按背压策略处理未能立即获得窗口许可的请求。
+     *
+     * @param pr 尚未登记的挂起请求
+     * @param kind 请求类型
+     * @param start 获得许可后发送请求的任务
+     * @param timed 登记时是否立即开始计算请求超时
+     */
+    private void admit(PendingRequest pr, String kind, Runnable start, boolean timed) {
+        CoreBackpressurePolicy policy = config.backpressurePolicy();
+        if (policy == CoreBackpressurePolicy.FAIL_FAST) {
+            rejectRequest(pr, kind, "在途请求窗口已满");
+            return;
+        }
+        if (policy == CoreBackpressurePolicy.BLOCK && !onIoThread()) {
+            boolean acquired;
+            try {
+                acquired = window.acquire(config.requestTimeout().toNanos());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejectRequest(pr, kind, "等待在途请求窗口超时");
+                return;
+            }
+            pr.permit = 1;
+            register(pr, timed);
+            start.run();
+            return;
+        }
+        register(pr, timed);
+        long requestId = pr.requestId;
+        boolean queued = window.enqueue(() -> {
+            PERMIT.set(pr, 1);
+            if (pending.get(requestId) != pr) {
+                releasePermit(pr);
+                return;
             }
-            future.completeExceptionally(new CoreConnectException("发送失败: " + kind, e));
+            start.run();
+        });
+        if (!queued) {
+            metrics.onBackpressureRejected();
+            failRequest(pr, requestId, backpressure(kind, "等待队列已满"));
+        }
+    }
+
+    /**
+     * 登记挂起请求。
+     *
+     * @param pr 挂起请求
+     * @param timed 是否立即开始计算请求超时
+     */
+    private void register(PendingRequest pr, boolean timed) {
+        pending.put(pr);
+        if (timed) {
+            armTimeout(pr, adaptiveTimeouts.timeoutNanos(pr.kind));
+        }
+    }
+
+    /**
+     * 为挂起请求登记超时。
+     *
+     * @param pr 挂起请求
+     * @param timeoutNanos 超时时长（纳秒）
+     */
+    private void armTimeout(PendingRequest pr, long timeoutNanos) {
+        pr.timeoutNanos = timeoutNanos;
+        timeouts.schedule(pr, timeoutNanos);
+    }
+
+    /**
+     * 获取请求类型当前使用的请求超时。
+     * 未启用自适应超时或该类型样本不足时返回配置的固定请求超时。
+     *
+     * @param kind 请求类型
+     * @return 请求超时
+     */
+    public Duration currentTimeout(String kind) {
+        return Duration.ofNanos(adaptiveTimeouts.timeoutNanos(kind));
+    }
+
+    /**
+     * 以背压异常拒绝尚未登记的请求。
+     *
+     * @param pr 挂起请求
+     * @param kind 请求类型
+     * @param reason 拒绝原因
+     */
+    private void rejectRequest(PendingRequest pr, String kind, String reason) {
+        metrics.onBackpressureRejected();
+        pr.future.completeExceptionally(backpressure(kind, reason));
+    }
+
+    /**
+     * 创建背压异常。
+     *
+     * @param kind 请求类型
+     * @param reason 拒绝原因
+     * @return 背压异常
+     */
+    private CoreBackpressureException backpressure(String kind, String reason) {
+        return new CoreBackpressureException(kind, window.inFlight(), window.limit(), reason);
+    }
+
+    /**
+     * 移除挂起请求并使其 Future 失败；已被其他路径移除时不做任何事。
+     *
+     * @param pr 挂起请求
+     * @param requestId 请求 ID
+     * @param error 异常对象
+     */
+    private void failRequest(PendingRequest pr, long requestId, Throwable error) {
+        CompletableFuture<CoreResponse> future = pr.future;
+        if (pending.remove(requestId, pr)) {
+            timeouts.cancel(pr);
+            releasePermit(pr);
+            future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * 归还挂起请求持有的窗口许可（至多一次）。
+     *
+     * @param pr 挂起请求
+     */
+    private void releasePermit(PendingRequest pr) {
+        if (PERMIT.compareAndSet(pr, 1, 2)) {
+            window.release();
         }
+    }
 
+    /**
+     * 判断当前线程是否为网络读线程或调度线程，这两类线程上不能阻塞等待窗口许可。
+     *
+     * @return 是返回 true
+     */
+    private boolean onIoThread() {
+        Thread t = Thread.currentThread();
+        return t == readThread || t == schedulerThread;
+    }
+
+    /**
+     * 计算底层连接发送队列中尚未写出的字节数。
+     * Java-WebSocket 没有提供缓冲字节数接口，这里累加其发送队列中各缓冲区的剩余字节。
+     *
+     * @return 发送缓冲字节数
+     */
+    private long bufferedBytes() {
+        WebSocketClient c = client;
+        if (c == null || !c.hasBufferedData()) {
+            return 0;
+        }
+        WebSocket conn = c.getConnection();
+        if (!(conn instanceof WebSocketImpl)) {
+            return 0;
+        }
+        long total = 0;
+        for (ByteBuffer b : ((WebSocketImpl) conn).outQueue) {
+            total += b.remaining();
+        }
+        return total;
+    }
+
+    /**
+     * 以分片流异步发送请求。
+     * 请求负载从 body 中逐段读取并发送，不需要一次性载入内存；发送在回调执行器中进行，完成后关闭 body。
+     * 请求超时从最后一个分片发出后开始计算；发送过程中等待对端信用超过请求超时时间视为失败。
+     * 与 {@link #sendAsync(String, byte[])} 一样先经过在途窗口准入。仅在协商为紧凑协议后可用。
+     *
+     * @param kind 请求类型
+     * @param body 请求负载
+     * @return 响应 Future；响应本身也可能是流式的，见 {@link CoreResponse#body()}
+     */
+    public CompletableFuture<CoreResponse> sendStream(String kind, InputStream body) {
+        CoreKinds.validate(kind);
+        Objects.requireNonNull(body, "body");
+        CompletableFuture<CoreResponse> future = new CompletableFuture<>();
+        CoreStreamRegistry registry = streams;
+        if (!isConnected() || registry == null) {
+            future.completeExceptionally(new CoreClosedException("连接不可用: state=" + state.get()));
+            return future;
+        }
+        if (wireVersion != CoreProtocol.VERSION_COMPACT) {
+            future.completeExceptionally(new CoreProtocolException("对端未协商紧凑协议，不支持流式传输"));
+            return future;
+        }
+
+        long requestId = requestIdSeq.getAndIncrement();
+        PendingRequest pr = newPending(kind, requestId, future);
+        CoreFrame head = new CoreFrame(CoreMessageType.REQUEST, (byte) 0, 0, requestId, kind, new byte[0]);
+        Runnable start = () -> {
+            metrics.onRequestSent();
+            try {
+                callbackExecutor.execute(() -> {
+                    try (InputStream in = body) {
+                        registry.send(head, in, config.effectiveStreamChunkBytes(), config.requestTimeout().toNanos());
+                        if (pending.get(requestId) == pr) {
+                            armTimeout(pr, config.requestTimeout().toNanos());
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failRequest(pr, requestId, new CoreConnectException("流发送失败: " + kind, e));
+                    }
+                });
+            } catch (RuntimeException e) {
+                failRequest(pr, requestId, new CoreConnectException("流发送失败: " + kind, e));
+            }
+        };
+        if (window.tryAcquire()) {
+            pr.permit = 1;
+            register(pr, false);
+            start.run();
+        } else {
+            admit(pr, kind, start, false);
+        }
         return future;
     }
 
@@ -298,12 +701,118 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
     public void sendEvent(String kind, byte[] payload) {
         CoreKinds.validate(kind);
         if (!isConnected()) {
+            if (offerOffline(kind, payload, null)) {
+                return;
+            }
             throw new CoreClosedException("连接不可用: state=" + state.get());
         }
-        CoreFrame frame = new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload);
-        byte[] bytes = codec.encode(frame);
-        metrics.onFrameSent(bytes.length);
-        client.send(bytes);
+        writeFrame(new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
+    }
+
+    /**
+     * 判断当前是否处于等待重连、且未连接时的发送会进入离线队列的状态。
+     *
+     * @return 离线队列已启用且连接正在建立或等待自动重连时返回 true
+     */
+    public boolean isOfflineQueueing() {
+        if (offline == null || closing) {
+            return false;
+        }
+        ConnectionState s = state.get();
+        return s == ConnectionState.CONNECTING || (s == ConnectionState.FAILED && config.autoReconnect());
+    }
+
+    /**
+     * 尝试将请求或事件暂存到离线队列。
+     * 暂存后如果连接恰好已恢复，立即重放，避免错过 onOpen 中的重放。
+     *
+     * @param kind 请求或事件类型
+     * @param payload 负载
+     * @param future 请求的响应 Future；为 null 表示事件
+     * @return 已暂存返回 true；离线队列不可用、请求类型非幂等或队列已满时返回 false
+     */
+    private boolean offerOffline(String kind, byte[] payload, CompletableFuture<CoreResponse> future) {
+        if (!isOfflineQueueing()) {
+            return false;
+        }
+        if (future != null && !config.idempotentKinds().contains(kind)) {
+            return false;
+        }
+        if (!offline.offer(kind, payload, future)) {
+            return false;
+        }
+        if (isConnected()) {
+            flushOffline();
+        }
+        return true;
+    }
+
+    /**
+     * 按提交顺序重放离线队列中的请求与事件。
+     * 连接再次断开时停止，剩余条目继续等待下一次重连。
+     */
+    private void flushOffline() {
+        if (offline == null) {
+            return;
+        }
+        CoreOfflineQueue.Entry e;
+        while (isConnected() && (e = offline.poll()) != null) {
+            CompletableFuture<CoreResponse> future = e.future();
+            if (future == null) {
+                try {
+                    writeFrame(new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, e.kind(), e.payload()));
+                } catch (RuntimeException ex) {
+                    exceptionHandler.onConnectionError(new CoreConnectException("离线事件重放失败: " + e.kind(), ex));
+                }
+            } else if (!future.isDone()) {
+                send(e.kind(), e.payload(), future);
+            }
+        }
+    }
+
+    /**
+     * 清空离线队列，并使其中的请求失败。
+     *
+     * @param error 异常对象
+     */
+    private void failOffline(RuntimeException error) {
+        if (offline != null) {
+            offline.failAll(error);
+        }
+    }
+
+    /**
+     * 按当前协商结果编码并发送帧。
+     *
+     * @param frame 协议帧
+     */
+    private void writeFrame(CoreFrame frame) {
+        ByteBuffer bytes = codec.encodePooled(frame, kindIds, wireVersion);
+        try {
+            metrics.onFrameSent(bytes.remaining());
+            write(bytes);
+        } finally {
+            codec.release(bytes);
+        }
+    }
+
+    /**
+     * 与服务端协商协议版本与 kind 数字 ID。
+     * 协商成功后，本连接上的帧改用紧凑协议头，涉及这些 kind 的帧以 VarInt ID 代替字符串传输；
+     * 对端不支持时返回 false，通信照常以版本 1 与字符串 kind 进行。断线重连后会自动重新协商。
+     *
+     * @param kinds 本端将使用的请求与事件类型
+     * @return 协商结果 Future，成功时为 true
+     */
+    public CompletableFuture<Boolean> negotiateProtocol(Collection<String> kinds) {
+        Objects.requireNonNull(kinds, "kinds");
+        for (String kind : kinds) {
+            CoreKinds.validate(kind);
+        }
+        List<String> list = List.copyOf(kinds);
+        negotiatedKinds = list;
+        byte[] payload = CoreHandshake.encodeRequest(CoreProtocol.MAX_VERSION, list);
+        return sendAsync(CoreProtocol.KIND_HANDSHAKE, payload).handle((resp, err) -> err == null && kindIds != null);
     }
 
     @Override
@@ -313,7 +822,7 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
      * @return 连接指标快照
      */
     public ConnectionMetricsSnapshot metrics() {
-        return metrics.snapshot(pending.size());
+        return metrics.snapshot(pending.size(), window.inFlight(), window.limit(), window.queued(), window.bufferedBytes());
     }
 
     @Override
@@ -349,25 +858,39 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
 
     /**
      * 创建内部 WebSocket 客户端。
+     * 每次连接尝试使用一个新的实例；已被新尝试取代的实例的回调只用于结束自身的连接 Future，不影响当前连接状态。
      *
      * @param endpoint 连接端点
+     * @param attempt 本次连接尝试的 Future
      * @return WebSocketClient 实例
      */
-    private WebSocketClient newClient(URI endpoint) {
-        return new WebSocketClient(endpoint) {
+    private WebSocketClient newClient(URI endpoint, CompletableFuture<Void> attempt) {
+        int tcpTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, config.connectTimeout().toMillis());
+        return new WebSocketClient(endpoint, new Draft_6455(), null, tcpTimeoutMillis) {
             @Override
             /**
              * 当连接打开时调用。
+             * 连接尝试已超时或已取消时直接关闭这条迟到的连接。
              *
              * @param handshakedata 握手数据
              */
             public void onOpen(ServerHandshake handshakedata) {
+                if (CoreWebSocketClient.this.client != this || attempt.isDone()) {
+                    close();
+                    return;
+                }
+                readThread = Thread.currentThread();
                 dynamicBackoff = config.reconnectBackoffMin();
+                resetNegotiation();
+                streams = new CoreStreamRegistry(config.maxInboundStreams(), CoreWebSocketClient.this::writeFrame);
                 setState(ConnectionState.CONNECTED);
-                if (connectFuture != null && !connectFuture.isDone()) {
-                    connectFuture.complete(null);
-                }
+                attempt.complete(null);
                 scheduleHeartbeat();
+                List<String> kinds = negotiatedKinds;
+                if (kinds != null) {
+                    negotiateProtocol(kinds);
+                }
+                flushOffline();
             }
 
             @Override
@@ -392,9 +915,9 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
              */
             public void onMessage(ByteBuffer bytes) {
                 metrics.onFrameReceived(bytes.remaining());
-                CoreFrame frame;
+                CoreFrameView frame;
                 try {
-                    frame = codec.decode(bytes);
+                    frame = codec.decodeView(bytes, kindIds);
                 } catch (CoreProtocolException e) {
                     metrics.onProtocolError();
                     exceptionHandler.onProtocolError(e);
@@ -407,12 +930,16 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
                     return;
                 }
 
-                if (frame.type() == CoreMessageType.RESPONSE) {
-                    onResponseFrame(frame);
-                } else if (frame.type() == CoreMessageType.EVENT) {
-                    onEventFrame(frame);
-                } else if (frame.type() == CoreMessageType.HEARTBEAT) {
-                    onHeartbeatFrame(frame);
+                try {
+                    if (frame.type() == CoreMessageType.BATCH) {
+                        codec.forEachBatched(frame, kindIds, CoreWebSocketClient.this::dispatch);
+                    } else {
+                        dispatch(frame);
+                    }
+                } catch (CoreProtocolException e) {
+                    metrics.onProtocolError();
+                    exceptionHandler.onProtocolError(e);
+                    close(1002, e.getMessage());
                 }
             }
 
@@ -425,12 +952,28 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
              * @param remote 是否由远程关闭
              */
             public void onClose(int code, String reason, boolean remote) {
+                attempt.completeExceptionally(new CoreConnectException("连接失败: code=" + code + ", reason=" + reason, null));
+                if (CoreWebSocketClient.this.client != this) {
+                    return;
+                }
+                resetNegotiation();
+                if (cache != null) {
+                    cache.clear();
+                }
+                CoreStreamRegistry registry = streams;
+                if (registry != null) {
+                    registry.closeAll();
+                }
                 if (closing) {
                     setState(ConnectionState.CLOSED);
                 } else {
                     setState(ConnectionState.FAILED);
                 }
-                failPending(new CoreClosedException("连接已关闭: code=" + code + ", reason=" + reason));
+                CoreClosedException closed = new CoreClosedException("连接已关闭: code=" + code + ", reason=" + reason);
+                failPending(closed);
+                if (closing || !config.autoReconnect()) {
+                    failOffline(closed);
+                }
                 if (!closing) {
                     exceptionHandler.onConnectionError(new CoreConnectException("连接断开: " + reason, null));
                     if (config.autoReconnect()) {
@@ -446,6 +989,10 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
              * @param ex 异常对象
              */
             public void onError(Exception ex) {
+                attempt.completeExceptionally(new CoreConnectException("连接失败: " + endpoint, ex));
+                if (CoreWebSocketClient.this.client != this) {
+                    return;
+                }
                 exceptionHandler.onConnectionError(new CoreConnectException("连接错误: " + endpoint, ex));
             }
         };
@@ -456,51 +1003,219 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
      *
      * @param frame 响应帧
      */
-    private void onResponseFrame(CoreFrame frame) {
+    private void onResponseFrame(CoreFrameView frame) {
         metrics.onResponseReceived();
+        CoreInboundStream stream = null;
+        if ((frame.flags() & CoreProtocol.FLAG_STREAM) != 0) {
+            CoreStreamRegistry registry = streams;
+            if (registry == null) {
+                return;
+            }
+            stream = registry.openInbound(frame);
+        }
         PendingRequest pendingRequest = pending.remove(frame.requestId());
         if (pendingRequest == null) {
+            if (stream != null) {
+                stream.close();
+            }
             return;
         }
-        pendingRequest.timeoutTask.cancel(false);
-
-        long rttMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pendingRequest.startNanos);
-        metrics.setLastRttMillis(rttMillis);
+        String requestKind = pendingRequest.kind;
+        CompletableFuture<CoreResponse> future = settle(pendingRequest);
 
         if (frame.status() == 0) {
-            pendingRequest.future.complete(new CoreResponse(frame.status(), frame.requestId(), frame.kind(), frame.payload()));
+            if (CoreProtocol.KIND_HANDSHAKE.equals(requestKind)) {
+                try {
+                    installKindIds(frame);
+                } catch (CoreProtocolException e) {
+                    metrics.onProtocolError();
+                    exceptionHandler.onProtocolError(e);
+                    future.completeExceptionally(e);
+                    return;
+                }
+            }
+            if (stream != null) {
+                future.complete(CoreResponse.streamed(frame.status(), frame.requestId(), frame.kind(), stream));
+                return;
+            }
+            future.complete(new CoreResponse(frame.status(), frame.requestId(), frame.kind(), frame.payload()));
         } else {
+            if (stream != null) {
+                stream.close();
+            }
             String msg = new String(frame.payload(), StandardCharsets.UTF_8);
             CoreRemoteException e = new CoreRemoteException(frame.status(), frame.kind(), frame.requestId(), msg);
             exceptionHandler.onRemoteError(e);
-            pendingRequest.future.completeExceptionally(e);
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 结束已从挂起表移除的请求：归还窗口许可、取消超时并回收对象，记录请求延迟。
+     *
+     * @param pr 已移除的挂起请求
+     * @return 挂起请求的 Future
+     */
+    private CompletableFuture<CoreResponse> settle(PendingRequest pr) {
+        String requestKind = pr.kind;
+        long startNanos = pr.startNanos;
+        CompletableFuture<CoreResponse> future = pr.future;
+        releasePermit(pr);
+        if (timeouts.cancel(pr)) {
+            pr.future = null;
+            pending.recycle(pr);
+        }
+
+        long latencyNanos = System.nanoTime() - startNanos;
+        metrics.onRequestLatency(requestKind, latencyNanos);
+        adaptiveTimeouts.record(requestKind, latencyNanos);
+        return future;
+    }
+
+    /**
+     * 安装握手响应中的协议版本与 kind ID。
+     * 在网络线程中执行，保证之后收到的数字 ID 帧都能被解析。
+     *
+     * @param frame 握手响应帧
+     * @throws CoreProtocolException 当响应格式非法时抛出
+     */
+    private void installKindIds(CoreFrameView frame) {
+        CoreHandshake.Response response = CoreHandshake.decodeResponse(frame.payloadBuffer());
+        CoreKindIds ids = new CoreKindIds();
+        for (Map.Entry<String, Integer> e : response.assigned().entrySet()) {
+            CoreKinds.validate(e.getKey());
+            try {
+                ids.put(e.getValue(), e.getKey());
+            } catch (IllegalArgumentException ex) {
+                throw new CoreProtocolException(ex.getMessage(), ex);
+            }
+        }
+        kindIds = ids;
+        wireVersion = Math.max(CoreProtocol.VERSION, Math.min(response.version(), CoreProtocol.MAX_VERSION));
+        Duration window = config.batchFlushWindow();
+        if (wireVersion == CoreProtocol.VERSION_COMPACT && batcher == null
+                && window != null && !window.isNegative() && !window.isZero()) {
+            WebSocketClient c = client;
+            batcher = new CoreFrameBatcher(scheduler, window.toNanos(),
+                    Math.min(config.maxBatchBytes(), config.maxFrameBytes()), bytes -> {
+                        if (c.isOpen()) {
+                            c.send(bytes);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * 清除本连接的协商结果，并丢弃帧合并器中尚未发送的帧。
+     */
+    private void resetNegotiation() {
+        kindIds = null;
+        wireVersion = CoreProtocol.VERSION;
+        CoreFrameBatcher b = batcher;
+        batcher = null;
+        if (b != null) {
+            b.close();
+        }
+    }
+
+    /**
+     * 发送已编码的帧；已启用帧合并时交给合并器，否则立即发送。
+     * 两种方式都会在返回前复制 bytes 的内容。
+     *
+     * @param bytes 已编码的帧
+     */
+    private void write(ByteBuffer bytes) {
+        CoreFrameBatcher b = batcher;
+        if (b != null) {
+            b.offer(bytes);
+        } else {
+            client.send(bytes);
+        }
+    }
+
+    /**
+     * 按消息类型分发单个帧。
+     *
+     * @param frame 协议帧视图
+     */
+    private void dispatch(CoreFrameView frame) {
+        if (frame.type() == CoreMessageType.RESPONSE) {
+            onResponseFrame(frame);
+        } else if (frame.type() == CoreMessageType.EVENT) {
+            onEventFrame(frame);
+        } else if (frame.type() == CoreMessageType.HEARTBEAT) {
+            onHeartbeatFrame(frame);
+        } else if (frame.type() == CoreMessageType.STREAM_DATA) {
+            CoreStreamRegistry registry = streams;
+            if (registry != null) {
+                registry.onData(frame);
+            }
+        } else if (frame.type() == CoreMessageType.STREAM_CREDIT) {
+            CoreStreamRegistry registry = streams;
+            if (registry != null) {
+                registry.onCredit(frame);
+            }
         }
     }
 
     /**
      * 处理事件帧。
+     * 同一类型的事件进入同一分发通道，按到达顺序依次交给该类型的监听器与全局监听器。
      *
      * @param frame 事件帧
      */
-    private void onEventFrame(CoreFrame frame) {
-        CopyOnWriteArrayList<CoreEventListener> specific = eventListeners.get(frame.kind());
-        if (specific != null) {
-            for (CoreEventListener listener : specific) {
-                callbackExecutor.execute(() -> listener.onEvent(frame.kind(), frame.payload()));
-            }
+    private void onEventFrame(CoreFrameView frame) {
+        String kind = frame.kind();
+        if (cache != null) {
+            cache.invalidate(kind);
         }
-        for (CoreEventListener listener : anyEventListeners) {
-            callbackExecutor.execute(() -> listener.onEvent(frame.kind(), frame.payload()));
+        CopyOnWriteArrayList<CoreEventListener> specific = eventListeners.get(kind);
+        if ((specific == null || specific.isEmpty()) && anyEventListeners.isEmpty()) {
+            return;
+        }
+        byte[] payload = frame.payload();
+        events.dispatch(kind.hashCode(), () -> {
+            if (specific != null) {
+                for (CoreEventListener listener : specific) {
+                    notifyListener(listener, kind, payload);
+                }
+            }
+            for (CoreEventListener listener : anyEventListeners) {
+                notifyListener(listener, kind, payload);
+            }
+        });
+    }
+
+    /**
+     * 调用事件监听器，单个监听器抛出的异常交给异常处理器，不影响其余监听器。
+     *
+     * @param listener 事件监听器
+     * @param kind 事件类型
+     * @param payload 事件负载
+     */
+    private void notifyListener(CoreEventListener listener, String kind, byte[] payload) {
+        try {
+            listener.onEvent(kind, payload);
+        } catch (RuntimeException e) {
+            exceptionHandler.onProtocolError(new CoreProtocolException("事件监听器异常: " + kind, e));
         }
     }
 
     /**
      * 处理心跳帧。
+     * 回显的 requestId 是发送时的时间戳，据此得到不含处理器耗时的传输 RTT；不带时间戳的心跳被忽略。
      *
      * @param frame 心跳帧
      */
-    private void onHeartbeatFrame(CoreFrame frame) {
-        metrics.setLastRttMillis(0);
+    private void onHeartbeatFrame(CoreFrameView frame) {
+        long stamp = frame.requestId();
+        if (stamp <= 0) {
+            return;
+        }
+        long rtt = System.nanoTime() - HEARTBEAT_EPOCH_NANOS - (stamp - 1);
+        if (rtt >= 0) {
+            metrics.onHeartbeatRtt(rtt);
+        }
     }
 
     /**
@@ -535,6 +1250,7 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
 
     /**
      * 调度心跳发送。
+     * 心跳帧绕过帧合并器直接写出，与服务端回显一致，合并窗口的等待不会计入 RTT。
      */
     private void scheduleHeartbeat() {
         Duration interval = config.heartbeatInterval();
@@ -542,13 +1258,19 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
             return;
         }
         scheduler.scheduleAtFixedRate(() -> {
-            if (!isConnected()) {
+            WebSocketClient c = client;
+            if (!isConnected() || c == null) {
                 return;
             }
             try {
-                byte[] bytes = codec.encode(new CoreFrame(CoreMessageType.HEARTBEAT, (byte) 0, 0, 0, "", new byte[0]));
-                metrics.onFrameSent(bytes.length);
-                client.send(bytes);
+                long stamp = System.nanoTime() - HEARTBEAT_EPOCH_NANOS + 1;
+                ByteBuffer bytes = codec.encodePooled(new CoreFrame(CoreMessageType.HEARTBEAT, (byte) 0, 0, stamp, "", new byte[0]), null, wireVersion);
+                try {
+                    metrics.onFrameSent(bytes.remaining());
+                    c.send(bytes);
+                } finally {
+                    codec.release(bytes);
+                }
             } catch (Exception e) {
                 exceptionHandler.onConnectionError(new CoreConnectException("心跳发送失败", e));
             }
@@ -576,35 +1298,75 @@ public final class CoreWebSocketClient implements CoreConnectionManager, CoreMes
      * @param error 异常对象
      */
     private void failPending(RuntimeException error) {
-        for (PendingRequest pr : pending.values()) {
-            pr.timeoutTask.cancel(false);
+        window.clearQueue();
+        pending.drain(pr -> {
+            timeouts.cancel(pr);
+            releasePermit(pr);
             pr.future.completeExceptionally(error);
+        });
+    }
+
+    /**
+     * 获取一个挂起请求对象，优先复用挂起请求表中停放的对象。
+     *
+     * @param kind 请求类型
+     * @param requestId 请求 ID
+     * @param future 响应 Future
+     * @return 已初始化的挂起请求对象
+     */
+    private PendingRequest newPending(String kind, long requestId, CompletableFuture<CoreResponse> future) {
+        PendingRequest pr = pending.reuse(requestId);
+        if (pr == null) {
+            pr = new PendingRequest();
         }
-        pending.clear();
+        pr.kind = kind;
+        pr.requestId = requestId;
+        pr.startNanos = System.nanoTime();
+        pr.future = future;
+        pr.permit = 0;
+        return pr;
     }
 
     /**
      * 挂起的请求信息。
+     * 自身即为超时时间轮中的超时项，不再为每个请求单独分配超时任务。
+     * 响应到达且超时被成功取消后，对象会停放回挂起请求表供后续请求复用；
+     * 超时或连接关闭时不复用，因为此时可能仍有其他线程持有引用。
      */
-    private static final class PendingRequest {
-        private final String kind;
-        private final long startNanos;
-        private final CompletableFuture<CoreResponse> future;
-        private final ScheduledFuture<?> timeoutTask;
+    private final class PendingRequest extends CoreTimeoutWheel.Entry implements CorePendingTable.Keyed {
+        private volatile long requestId;
+        private String kind;
+        private long startNanos;
+        private long timeoutNanos;
+        private CompletableFuture<CoreResponse> future;
+        private volatile int permit;
 
+        @Override
         /**
-         * 构造函数。
+         * 获取请求 ID。
          *
-         * @param kind 请求类型
-         * @param startNanos 开始时间（纳秒）
-         * @param future 响应 Future
-         * @param timeoutTask 超时任务
+         * @return 请求 ID
+         */
+        public long key() {
+            return requestId;
+        }
+
+        @Override
+        /**
+         * 请求超时：移除挂起项并以超时异常完成 Future。
          */
-        private PendingRequest(String kind, long startNanos, CompletableFuture<CoreResponse> future, ScheduledFuture<?> timeoutTask) {
-            this.kind = kind;
-            this.startNanos = startNanos;
-            this.future = future;
-            this.timeoutTask = timeoutTask;
+        protected void onExpire() {
+            long id = requestId;
+            if (!pending.remove(id, this)) {
+                return;
+            }
+            releasePermit(this);
+            adaptiveTimeouts.record(kind, timeoutNanos);
+            Duration timeout = Duration.ofNanos(timeoutNanos);
+            if (future.completeExceptionally(new CoreTimeoutException(kind, id, timeout))) {
+                metrics.onRequestTimeout();
+                exceptionHandler.onTimeout(new CoreTimeoutException(kind, id, timeout));
+            }
         }
     }
 
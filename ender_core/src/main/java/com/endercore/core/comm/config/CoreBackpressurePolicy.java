@@ -0,0 +1,28 @@
+package com.endercore.core.comm.config;
+
+ 
+/**
+ * 背压策略枚举。
+ * 定义在途请求窗口已满或发送缓冲超过高水位时，新请求的处理方式。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public enum CoreBackpressurePolicy {
+    /**
+     * 排队等待，窗口有空位后按提交顺序发送；队列已满时以 CoreBackpressureException 失败
+     */
+    QUEUE,
+
+    /**
+     * 立即以 CoreBackpressureException 失败
+     */
+    FAIL_FAST,
+
+    /**
+     * 阻塞调用线程直到窗口有空位，最长等待请求超时时间；
+     * 在网络线程或调度线程上调用时退化为 QUEUE，避免阻塞响应的处理
+     */
+    BLOCK
+}
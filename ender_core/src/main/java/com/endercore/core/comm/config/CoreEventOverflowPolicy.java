@@ -0,0 +1,28 @@
+package com.endercore.core.comm.config;
+
+ 
+/**
+ * 事件溢出策略枚举。
+ * 定义事件分发通道的环形缓冲已满时，新到事件的处理方式。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public enum CoreEventOverflowPolicy {
+    /**
+     * 丢弃通道中最旧的事件，接收新事件
+     */
+    DROP_OLDEST,
+
+    /**
+     * 丢弃新到的事件
+     */
+    DROP_NEWEST,
+
+    /**
+     * 阻塞网络线程直到通道有空位，通过 TCP 流控向对端施加背压；
+     * 事件处理器中不应同步等待同一连接上的响应，否则可能在缓冲已满时互相等待
+     */
+    BLOCK
+}
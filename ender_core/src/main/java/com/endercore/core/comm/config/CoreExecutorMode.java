@@ -0,0 +1,55 @@
+package com.endercore.core.comm.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+ 
+/**
+ * 执行器模式枚举。
+ * 决定客户端回调与服务端处理器在未显式传入执行器时使用的默认执行器。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public enum CoreExecutorMode {
+    /**
+     * 平台线程缓存线程池
+     */
+    PLATFORM {
+        @Override
+        /**
+         * 创建平台线程缓存线程池。
+         *
+         * @param name 线程名前缀
+         * @return 执行器
+         */
+        public ExecutorService newExecutor(String name) {
+            return Executors.newCachedThreadPool(Thread.ofPlatform().name(name + "-", 0).factory());
+        }
+    },
+
+    /**
+     * 每个任务一个虚拟线程；处理器中的阻塞 I/O 只挂起虚拟线程，不占用操作系统线程
+     */
+    VIRTUAL {
+        @Override
+        /**
+         * 创建每任务一个虚拟线程的执行器。
+         *
+         * @param name 线程名前缀
+         * @return 执行器
+         */
+        public ExecutorService newExecutor(String name) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        }
+    };
+
+    /**
+     * 创建该模式下的执行器。
+     *
+     * @param name 线程名前缀
+     * @return 执行器
+     */
+    public abstract ExecutorService newExecutor(String name);
+}
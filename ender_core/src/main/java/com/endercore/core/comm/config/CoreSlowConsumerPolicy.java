@@ -0,0 +1,23 @@
+package com.endercore.core.comm.config;
+
+ 
+/**
+ * 慢消费事件策略枚举。
+ * 定义连接的发送队列超过高水位时，发往该连接的可舍弃事件的处理方式。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public enum CoreSlowConsumerPolicy {
+    /**
+     * 直接丢弃事件
+     */
+    DROP,
+
+    /**
+     * 每种事件只保留最新的一条，发送队列回落到低水位以下后补发；
+     * 适用于只关心最新状态的事件（如在线状态、指标），补发的事件可能排在期间发出的其他消息之后
+     */
+    COALESCE
+}
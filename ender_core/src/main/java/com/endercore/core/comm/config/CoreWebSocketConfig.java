@@ -1,11 +1,19 @@
 package com.endercore.core.comm.config;
 
+import com.endercore.core.comm.protocol.CoreCompression;
+import com.endercore.core.comm.protocol.CoreProtocol;
+
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
  
 /**
  * WebSocket 客户端配置。
- * 用于配置 CoreWebSocketClient 的各种参数。
+ * 用于配置 CoreWebSocketClient 与 CoreWebSocketServer 的各种参数。
  *
  * @author Ender Developer
  * @version 1.0
@@ -14,20 +22,96 @@ import java.time.Duration;
 public final class CoreWebSocketConfig {
     private final Duration connectTimeout;
     private final Duration requestTimeout;
+    private final Duration timeoutTick;
+    private final int timeoutWheelSize;
     private final Duration heartbeatInterval;
     private final boolean autoReconnect;
     private final Duration reconnectBackoffMin;
     private final Duration reconnectBackoffMax;
     private final int maxFrameBytes;
+    private final CoreCompression compression;
+    private final int compressionThreshold;
+    private final Duration batchFlushWindow;
+    private final int maxBatchBytes;
+    private final int streamChunkBytes;
+    private final int maxInboundStreams;
+    private final int maxInFlightRequests;
+    private final CoreBackpressurePolicy backpressurePolicy;
+    private final int maxQueuedRequests;
+    private final long sendBufferHighWatermark;
+    private final long sendBufferLowWatermark;
+    private final int offlineQueueSize;
+    private final Duration offlineQueueMaxAge;
+    private final Set<String> idempotentKinds;
+    private final int eventLanes;
+    private final int eventQueueCapacity;
+    private final CoreEventOverflowPolicy eventOverflowPolicy;
+    private final CoreExecutorMode executorMode;
+    private final double adaptiveTimeoutMultiplier;
+    private final Duration adaptiveTimeoutMin;
+    private final Duration adaptiveTimeoutMax;
+    private final Set<String> singleFlightKinds;
+    private final int responseCacheSize;
+    private final Map<String, Duration> cacheTtls;
+    private final Map<String, Duration> cacheStaleWindows;
+    private final Map<String, Set<String>> cacheInvalidations;
+    private final int handlerConcurrency;
+    private final int handlerQueueCapacity;
+    private final Map<String, Integer> namespaceConcurrency;
+    private final Map<String, Integer> namespaceQueueCapacity;
+    private final int connectionLaneCapacity;
+    private final long slowConsumerHighWatermark;
+    private final long slowConsumerLowWatermark;
+    private final Duration slowConsumerTimeout;
+    private final Map<String, CoreSlowConsumerPolicy> droppableEvents;
 
     private CoreWebSocketConfig(Builder builder) {
         this.connectTimeout = builder.connectTimeout;
         this.requestTimeout = builder.requestTimeout;
+        this.timeoutTick = builder.timeoutTick;
+        this.timeoutWheelSize = builder.timeoutWheelSize;
         this.heartbeatInterval = builder.heartbeatInterval;
         this.autoReconnect = builder.autoReconnect;
         this.reconnectBackoffMin = builder.reconnectBackoffMin;
         this.reconnectBackoffMax = builder.reconnectBackoffMax;
         this.maxFrameBytes = builder.maxFrameBytes;
+        this.compression = builder.compression;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.batchFlushWindow = builder.batchFlushWindow;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.streamChunkBytes = builder.streamChunkBytes;
+        this.maxInboundStreams = builder.maxInboundStreams;
+        this.maxInFlightRequests = builder.maxInFlightRequests;
+        this.backpressurePolicy = builder.backpressurePolicy;
+        this.maxQueuedRequests = builder.maxQueuedRequests;
+        this.sendBufferHighWatermark = builder.sendBufferHighWatermark;
+        this.sendBufferLowWatermark = builder.sendBufferLowWatermark;
+        this.offlineQueueSize = builder.offlineQueueSize;
+        this.offlineQueueMaxAge = builder.offlineQueueMaxAge;
+        this.idempotentKinds = Set.copyOf(builder.idempotentKinds);
+        this.eventLanes = builder.eventLanes;
+        this.eventQueueCapacity = builder.eventQueueCapacity;
+        this.eventOverflowPolicy = builder.eventOverflowPolicy;
+        this.executorMode = builder.executorMode;
+        this.adaptiveTimeoutMultiplier = builder.adaptiveTimeoutMultiplier;
+        this.adaptiveTimeoutMin = builder.adaptiveTimeoutMin;
+        this.adaptiveTimeoutMax = builder.adaptiveTimeoutMax;
+        this.singleFlightKinds = Set.copyOf(builder.singleFlightKinds);
+        this.responseCacheSize = builder.responseCacheSize;
+        this.cacheTtls = Map.copyOf(builder.cacheTtls);
+        this.cacheStaleWindows = Map.copyOf(builder.cacheStaleWindows);
+        Map<String, Set<String>> invalidations = new HashMap<>();
+        builder.cacheInvalidations.forEach((event, kinds) -> invalidations.put(event, Set.copyOf(kinds)));
+        this.cacheInvalidations = Map.copyOf(invalidations);
+        this.handlerConcurrency = builder.handlerConcurrency;
+        this.handlerQueueCapacity = builder.handlerQueueCapacity;
+        this.namespaceConcurrency = Map.copyOf(builder.namespaceConcurrency);
+        this.namespaceQueueCapacity = Map.copyOf(builder.namespaceQueueCapacity);
+        this.connectionLaneCapacity = builder.connectionLaneCapacity;
+        this.slowConsumerHighWatermark = builder.slowConsumerHighWatermark;
+        this.slowConsumerLowWatermark = builder.slowConsumerLowWatermark;
+        this.slowConsumerTimeout = builder.slowConsumerTimeout;
+        this.droppableEvents = Map.copyOf(builder.droppableEvents);
     }
 
     /**
@@ -48,6 +132,24 @@ public final class CoreWebSocketConfig {
         return requestTimeout;
     }
 
+    /**
+     * 获取请求超时时间轮的刻度长度。
+     *
+     * @return 刻度长度
+     */
+    public Duration timeoutTick() {
+        return timeoutTick;
+    }
+
+    /**
+     * 获取请求超时时间轮的槽位数量。
+     *
+     * @return 槽位数量
+     */
+    public int timeoutWheelSize() {
+        return timeoutWheelSize;
+    }
+
     /**
      * 获取心跳间隔。
      *
@@ -93,6 +195,333 @@ public final class CoreWebSocketConfig {
         return maxFrameBytes;
     }
 
+    /**
+     * 获取负载压缩算法。
+     *
+     * @return 压缩算法，为 null 时不压缩
+     */
+    public CoreCompression compression() {
+        return compression;
+    }
+
+    /**
+     * 获取触发压缩的最小负载长度（字节）。
+     *
+     * @return 压缩阈值
+     */
+    public int compressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * 获取帧合并的刷新窗口。
+     *
+     * @return 刷新窗口，为 0 时不合并
+     */
+    public Duration batchFlushWindow() {
+        return batchFlushWindow;
+    }
+
+    /**
+     * 获取单个批量帧的最大字节数。
+     *
+     * @return 批量帧最大字节数
+     */
+    public int maxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * 获取分片流每个分片的最大数据长度（字节）。
+     *
+     * @return 分片大小
+     */
+    public int streamChunkBytes() {
+        return streamChunkBytes;
+    }
+
+    /**
+     * 获取单连接同时接收的最大流数量。
+     *
+     * @return 最大接收流数量
+     */
+    public int maxInboundStreams() {
+        return maxInboundStreams;
+    }
+
+    /**
+     * 获取在途请求窗口大小。
+     *
+     * @return 最大在途请求数，0 表示不限制
+     */
+    public int maxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * 获取背压策略。
+     *
+     * @return 背压策略
+     */
+    public CoreBackpressurePolicy backpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    /**
+     * 获取 QUEUE 策略下最多排队的请求数。
+     *
+     * @return 最大排队请求数
+     */
+    public int maxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    /**
+     * 获取发送缓冲高水位（字节）。
+     *
+     * @return 高水位，0 表示不检查发送缓冲
+     */
+    public long sendBufferHighWatermark() {
+        return sendBufferHighWatermark;
+    }
+
+    /**
+     * 获取发送缓冲低水位（字节）。
+     *
+     * @return 低水位
+     */
+    public long sendBufferLowWatermark() {
+        return sendBufferLowWatermark;
+    }
+
+    /**
+     * 获取离线发送队列容量。
+     *
+     * @return 最多暂存的请求与事件数，0 表示不启用离线队列
+     */
+    public int offlineQueueSize() {
+        return offlineQueueSize;
+    }
+
+    /**
+     * 获取离线发送队列中条目的最长等待时间。
+     *
+     * @return 最长等待时间
+     */
+    public Duration offlineQueueMaxAge() {
+        return offlineQueueMaxAge;
+    }
+
+    /**
+     * 获取可在重连后重放的幂等请求类型。
+     *
+     * @return 不可修改的请求类型集合
+     */
+    public Set<String> idempotentKinds() {
+        return idempotentKinds;
+    }
+
+    /**
+     * 获取事件分发串行通道数量。
+     *
+     * @return 通道数量
+     */
+    public int eventLanes() {
+        return eventLanes;
+    }
+
+    /**
+     * 获取每个事件分发通道的缓冲容量。
+     *
+     * @return 通道容量
+     */
+    public int eventQueueCapacity() {
+        return eventQueueCapacity;
+    }
+
+    /**
+     * 获取事件分发通道已满时的处理策略。
+     * 默认 BLOCK，不丢弃事件；DROP_OLDEST 与 DROP_NEWEST 会丢弃事件，丢弃数计入连接指标。
+     *
+     * @return 溢出策略
+     */
+    public CoreEventOverflowPolicy eventOverflowPolicy() {
+        return eventOverflowPolicy;
+    }
+
+    /**
+     * 获取执行器模式。
+     *
+     * @return 执行器模式
+     */
+    public CoreExecutorMode executorMode() {
+        return executorMode;
+    }
+
+    /**
+     * 获取自适应超时的 p99 倍数。
+     *
+     * @return 倍数，不大于 0 表示不启用自适应超时
+     */
+    public double adaptiveTimeoutMultiplier() {
+        return adaptiveTimeoutMultiplier;
+    }
+
+    /**
+     * 获取自适应超时的下限。
+     *
+     * @return 最小超时
+     */
+    public Duration adaptiveTimeoutMin() {
+        return adaptiveTimeoutMin;
+    }
+
+    /**
+     * 获取自适应超时的上限。
+     *
+     * @return 最大超时，为 null 时使用请求超时
+     */
+    public Duration adaptiveTimeoutMax() {
+        return adaptiveTimeoutMax;
+    }
+
+    /**
+     * 获取启用合并发送的请求类型。
+     *
+     * @return 不可修改的请求类型集合
+     */
+    public Set<String> singleFlightKinds() {
+        return singleFlightKinds;
+    }
+
+    /**
+     * 获取响应缓存的最大条目数。
+     *
+     * @return 最大条目数，0 表示不启用响应缓存
+     */
+    public int responseCacheSize() {
+        return responseCacheSize;
+    }
+
+    /**
+     * 获取各请求类型的缓存有效期。
+     *
+     * @return 不可修改的请求类型到有效期的映射
+     */
+    public Map<String, Duration> cacheTtls() {
+        return cacheTtls;
+    }
+
+    /**
+     * 获取各请求类型过期后仍可返回旧响应（同时后台刷新）的时长。
+     *
+     * @return 不可修改的请求类型到时长的映射
+     */
+    public Map<String, Duration> cacheStaleWindows() {
+        return cacheStaleWindows;
+    }
+
+    /**
+     * 获取事件类型到其使之失效的请求类型的映射。
+     *
+     * @return 不可修改的映射
+     */
+    public Map<String, Set<String>> cacheInvalidations() {
+        return cacheInvalidations;
+    }
+
+    /**
+     * 获取服务端每个请求命名空间默认的最大并发处理数。
+     *
+     * @return 最大并发处理数，0 表示不限制
+     */
+    public int handlerConcurrency() {
+        return handlerConcurrency;
+    }
+
+    /**
+     * 获取服务端每个请求命名空间默认的等待队列容量。
+     *
+     * @return 队列容量
+     */
+    public int handlerQueueCapacity() {
+        return handlerQueueCapacity;
+    }
+
+    /**
+     * 获取单独设置了处理隔离的命名空间的最大并发处理数。
+     *
+     * @return 不可修改的命名空间到并发数的映射
+     */
+    public Map<String, Integer> namespaceConcurrency() {
+        return namespaceConcurrency;
+    }
+
+    /**
+     * 获取单独设置了处理隔离的命名空间的等待队列容量。
+     *
+     * @return 不可修改的命名空间到队列容量的映射
+     */
+    public Map<String, Integer> namespaceQueueCapacity() {
+        return namespaceQueueCapacity;
+    }
+
+    /**
+     * 获取服务端单连接串行通道的等待队列容量。
+     *
+     * @return 队列容量，0 表示不启用单连接串行处理
+     */
+    public int connectionLaneCapacity() {
+        return connectionLaneCapacity;
+    }
+
+    /**
+     * 获取服务端单连接发送队列的慢消费高水位。
+     *
+     * @return 高水位（字节），0 表示不检测慢消费连接
+     */
+    public long slowConsumerHighWatermark() {
+        return slowConsumerHighWatermark;
+    }
+
+    /**
+     * 获取服务端单连接发送队列的慢消费低水位。
+     *
+     * @return 低水位（字节）
+     */
+    public long slowConsumerLowWatermark() {
+        return slowConsumerLowWatermark;
+    }
+
+    /**
+     * 获取连接持续处于慢消费状态多久后被断开。
+     *
+     * @return 持续时长，为 null 时不断开
+     */
+    public Duration slowConsumerTimeout() {
+        return slowConsumerTimeout;
+    }
+
+    /**
+     * 获取慢消费连接可舍弃的事件类型及其处理策略。
+     *
+     * @return 不可修改的事件类型到策略的映射
+     */
+    public Map<String, CoreSlowConsumerPolicy> droppableEvents() {
+        return droppableEvents;
+    }
+
+    /**
+     * 计算实际使用的分片大小。
+     * 为帧头预留空间，并保证不超过单流接收窗口。
+     *
+     * @return 分片大小（字节）
+     */
+    public int effectiveStreamChunkBytes() {
+        int limit = Math.min(maxFrameBytes - 64, CoreProtocol.STREAM_WINDOW_BYTES);
+        return Math.max(1, Math.min(streamChunkBytes, limit));
+    }
+
     /**
      * 获取配置构建器。
      *
@@ -108,11 +537,48 @@ public final class CoreWebSocketConfig {
     public static final class Builder {
         private Duration connectTimeout = Duration.ofSeconds(5);
         private Duration requestTimeout = Duration.ofSeconds(10);
+        private Duration timeoutTick = Duration.ofMillis(10);
+        private int timeoutWheelSize = 1024;
         private Duration heartbeatInterval = Duration.ofSeconds(15);
         private boolean autoReconnect = true;
         private Duration reconnectBackoffMin = Duration.ofMillis(200);
         private Duration reconnectBackoffMax = Duration.ofSeconds(5);
         private int maxFrameBytes = 4 * 1024 * 1024;
+        private CoreCompression compression;
+        private int compressionThreshold = 1024;
+        private Duration batchFlushWindow = Duration.ZERO;
+        private int maxBatchBytes = 64 * 1024;
+        private int streamChunkBytes = 256 * 1024;
+        private int maxInboundStreams = 8;
+        private int maxInFlightRequests = 256;
+        private CoreBackpressurePolicy backpressurePolicy = CoreBackpressurePolicy.QUEUE;
+        private int maxQueuedRequests = 1024;
+        private long sendBufferHighWatermark = 4L * 1024 * 1024;
+        private long sendBufferLowWatermark = 1024L * 1024;
+        private int offlineQueueSize;
+        private Duration offlineQueueMaxAge = Duration.ofSeconds(5);
+        private Set<String> idempotentKinds = Set.of();
+        private int eventLanes = 16;
+        private int eventQueueCapacity = 1024;
+        private CoreEventOverflowPolicy eventOverflowPolicy = CoreEventOverflowPolicy.BLOCK;
+        private CoreExecutorMode executorMode = CoreExecutorMode.PLATFORM;
+        private double adaptiveTimeoutMultiplier;
+        private Duration adaptiveTimeoutMin = Duration.ofMillis(200);
+        private Duration adaptiveTimeoutMax;
+        private Set<String> singleFlightKinds = Set.of();
+        private int responseCacheSize;
+        private final Map<String, Duration> cacheTtls = new HashMap<>();
+        private final Map<String, Duration> cacheStaleWindows = new HashMap<>();
+        private final Map<String, Set<String>> cacheInvalidations = new HashMap<>();
+        private int handlerConcurrency;
+        private int handlerQueueCapacity;
+        private final Map<String, Integer> namespaceConcurrency = new HashMap<>();
+        private final Map<String, Integer> namespaceQueueCapacity = new HashMap<>();
+        private int connectionLaneCapacity;
+        private long slowConsumerHighWatermark;
+        private long slowConsumerLowWatermark;
+        private Duration slowConsumerTimeout;
+        private final Map<String, CoreSlowConsumerPolicy> droppableEvents = new HashMap<>();
 
         /**
          * 设置连接超时时间。
@@ -136,6 +602,30 @@ public final class CoreWebSocketConfig {
             return this;
         }
 
+        /**
+         * 设置请求超时时间轮的刻度长度。
+         * 所有挂起请求共享一个时间轮，超时最多比设定值晚一个刻度触发；刻度不小于 1 毫秒。
+         *
+         * @param timeoutTick 刻度长度
+         * @return 构建器实例
+         */
+        public Builder timeoutTick(Duration timeoutTick) {
+            this.timeoutTick = timeoutTick;
+            return this;
+        }
+
+        /**
+         * 设置请求超时时间轮的槽位数量。
+         * 会向上取整为 2 的幂；槽位数乘以刻度长度接近常用超时时间时，每次推进扫描的超时项最少。
+         *
+         * @param timeoutWheelSize 槽位数量
+         * @return 构建器实例
+         */
+        public Builder timeoutWheelSize(int timeoutWheelSize) {
+            this.timeoutWheelSize = timeoutWheelSize;
+            return this;
+        }
+
         /**
          * 设置心跳间隔。
          *
@@ -191,6 +681,347 @@ public final class CoreWebSocketConfig {
             return this;
         }
 
+        /**
+         * 设置负载压缩算法。
+         * 仅在与对端协商为紧凑协议后生效；对端未协商时照常发送未压缩的帧。
+         *
+         * @param compression 压缩算法，为 null 时不压缩
+         * @return 构建器实例
+         */
+        public Builder compression(CoreCompression compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * 设置触发压缩的最小负载长度。
+         *
+         * @param compressionThreshold 压缩阈值（字节）
+         * @return 构建器实例
+         */
+        public Builder compressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        /**
+         * 设置帧合并的刷新窗口。
+         * 窗口内发往同一连接的帧合并为一条 WebSocket 消息发送；仅在与对端协商为紧凑协议后生效。
+         *
+         * @param batchFlushWindow 刷新窗口，为 0 时不合并
+         * @return 构建器实例
+         */
+        public Builder batchFlushWindow(Duration batchFlushWindow) {
+            this.batchFlushWindow = batchFlushWindow;
+            return this;
+        }
+
+        /**
+         * 设置单个批量帧的最大字节数。
+         *
+         * @param maxBatchBytes 批量帧最大字节数
+         * @return 构建器实例
+         */
+        public Builder maxBatchBytes(int maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * 设置分片流每个分片的最大数据长度。
+         * 实际分片大小不会超过最大帧大小与单流接收窗口。
+         *
+         * @param streamChunkBytes 分片大小（字节）
+         * @return 构建器实例
+         */
+        public Builder streamChunkBytes(int streamChunkBytes) {
+            this.streamChunkBytes = streamChunkBytes;
+            return this;
+        }
+
+        /**
+         * 设置单连接同时接收的最大流数量。
+         * 单连接缓冲流数据的内存上限为该值乘以单流接收窗口（1 MiB）。
+         *
+         * @param maxInboundStreams 最大接收流数量
+         * @return 构建器实例
+         */
+        public Builder maxInboundStreams(int maxInboundStreams) {
+            this.maxInboundStreams = maxInboundStreams;
+            return this;
+        }
+
+        /**
+         * 设置在途请求窗口大小。
+         * 已发出但尚未收到响应、超时或失败的请求数达到该值后，新请求按背压策略处理。
+         *
+         * @param maxInFlightRequests 最大在途请求数，0 表示不限制
+         * @return 构建器实例
+         */
+        public Builder maxInFlightRequests(int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        /**
+         * 设置背压策略。
+         *
+         * @param backpressurePolicy 背压策略
+         * @return 构建器实例
+         */
+        public Builder backpressurePolicy(CoreBackpressurePolicy backpressurePolicy) {
+            this.backpressurePolicy = backpressurePolicy;
+            return this;
+        }
+
+        /**
+         * 设置 QUEUE 策略下最多排队的请求数。
+         * 排队中的请求同样受请求超时约束，超时从提交时开始计算。
+         *
+         * @param maxQueuedRequests 最大排队请求数
+         * @return 构建器实例
+         */
+        public Builder maxQueuedRequests(int maxQueuedRequests) {
+            this.maxQueuedRequests = maxQueuedRequests;
+            return this;
+        }
+
+        /**
+         * 设置发送缓冲水位。
+         * 底层连接尚未写出的字节数超过高水位后，新请求按背压策略处理，直到回落到低水位以下。
+         *
+         * @param highWatermark 高水位（字节），0 表示不检查发送缓冲
+         * @param lowWatermark 低水位（字节）
+         * @return 构建器实例
+         */
+        public Builder sendBufferWatermarks(long highWatermark, long lowWatermark) {
+            this.sendBufferHighWatermark = highWatermark;
+            this.sendBufferLowWatermark = lowWatermark;
+            return this;
+        }
+
+        /**
+         * 启用离线发送队列。
+         * 连接处于 CONNECTING，或在开启自动重连时处于 FAILED，发送的幂等请求与事件会暂存，
+         * 重连成功后按提交顺序发出；超过容量的发送照常失败，等待超过 maxAge 的请求以超时失败，事件被丢弃。
+         * 重放后的请求从发出时开始重新计算请求超时。
+         *
+         * @param size 最多暂存的请求与事件数，0 表示不启用
+         * @param maxAge 条目最长等待时间
+         * @return 构建器实例
+         */
+        public Builder offlineQueue(int size, Duration maxAge) {
+            this.offlineQueueSize = size;
+            this.offlineQueueMaxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * 设置幂等请求类型。
+         * 只有这些类型的请求会进入离线发送队列；事件总是可以暂存。
+         *
+         * @param kinds 请求类型集合
+         * @return 构建器实例
+         */
+        public Builder idempotentKinds(Collection<String> kinds) {
+            this.idempotentKinds = Set.copyOf(kinds);
+            return this;
+        }
+
+        /**
+         * 设置事件分发串行通道数量。
+         * 同一类型（服务端为同一连接的同一类型）的事件总在同一通道内按到达顺序执行；
+         * 同时执行事件处理的线程数不超过通道数。
+         *
+         * @param eventLanes 通道数量，会向上取整为 2 的幂
+         * @return 构建器实例
+         */
+        public Builder eventLanes(int eventLanes) {
+            this.eventLanes = eventLanes;
+            return this;
+        }
+
+        /**
+         * 设置每个事件分发通道的缓冲容量。
+         *
+         * @param eventQueueCapacity 通道容量
+         * @return 构建器实例
+         */
+        public Builder eventQueueCapacity(int eventQueueCapacity) {
+            this.eventQueueCapacity = eventQueueCapacity;
+            return this;
+        }
+
+        /**
+         * 设置事件分发通道已满时的处理策略。
+         * 默认 BLOCK，不丢弃事件；DROP_OLDEST 与 DROP_NEWEST 会丢弃事件，丢弃数计入连接指标。
+         *
+         * @param eventOverflowPolicy 溢出策略
+         * @return 构建器实例
+         */
+        public Builder eventOverflowPolicy(CoreEventOverflowPolicy eventOverflowPolicy) {
+            this.eventOverflowPolicy = eventOverflowPolicy;
+            return this;
+        }
+
+        /**
+         * 设置执行器模式。
+         * 仅在创建客户端或服务端时未传入执行器时生效；VIRTUAL 模式下回调、事件与请求处理器都运行在虚拟线程上，
+         * 适合处理器中有阻塞 I/O 的场景。
+         *
+         * @param executorMode 执行器模式
+         * @return 构建器实例
+         */
+        public Builder executorMode(CoreExecutorMode executorMode) {
+            this.executorMode = executorMode;
+            return this;
+        }
+
+        /**
+         * 启用自适应请求超时。
+         * 每种请求类型的超时取观测到的延迟 p99 × multiplier，并限制在 [min, max] 之间；
+         * 样本不足时使用 {@link #requestTimeout(Duration)}。分片流请求始终使用固定的请求超时。
+         *
+         * @param multiplier p99 的倍数，不大于 0 表示不启用
+         * @param min 最小超时
+         * @param max 最大超时，为 null 时使用请求超时
+         * @return 构建器实例
+         */
+        public Builder adaptiveTimeout(double multiplier, Duration min, Duration max) {
+            this.adaptiveTimeoutMultiplier = multiplier;
+            this.adaptiveTimeoutMin = min;
+            this.adaptiveTimeoutMax = max;
+            return this;
+        }
+
+        /**
+         * 设置启用合并发送的请求类型。
+         * 这些类型的请求在已有相同类型、相同负载的请求在途时不再单独发送，而是等待并共享在途请求的响应；
+         * 只应包含幂等的查询类请求。
+         *
+         * @param kinds 请求类型集合
+         * @return 构建器实例
+         */
+        public Builder singleFlightKinds(Collection<String> kinds) {
+            this.singleFlightKinds = Set.copyOf(kinds);
+            return this;
+        }
+
+        /**
+         * 启用响应缓存。
+         * 只缓存通过 {@link #cacheKind(String, Duration, Duration)} 登记的请求类型的成功响应，
+         * 超过条目数上限时淘汰最久未使用的条目。连接断开时清空缓存。
+         *
+         * @param maxEntries 最大条目数，0 表示不启用
+         * @return 构建器实例
+         */
+        public Builder responseCache(int maxEntries) {
+            this.responseCacheSize = maxEntries;
+            return this;
+        }
+
+        /**
+         * 登记可缓存的请求类型。
+         * 缓存的响应在有效期内直接返回；过期后的 staleWhileRevalidate 时长内仍返回旧响应，同时在后台重新请求；
+         * 超过这段时间后按未命中处理。只应登记幂等的查询类请求。
+         *
+         * @param kind 请求类型
+         * @param ttl 有效期
+         * @param staleWhileRevalidate 过期后仍可返回旧响应的时长，可为 {@link Duration#ZERO}
+         * @return 构建器实例
+         */
+        public Builder cacheKind(String kind, Duration ttl, Duration staleWhileRevalidate) {
+            this.cacheTtls.put(kind, ttl);
+            this.cacheStaleWindows.put(kind, staleWhileRevalidate);
+            return this;
+        }
+
+        /**
+         * 设置使缓存失效的事件。
+         * 收到该类型的事件时，丢弃指定请求类型的全部缓存响应。
+         *
+         * @param eventKind 事件类型
+         * @param requestKinds 失效的请求类型
+         * @return 构建器实例
+         */
+        public Builder cacheInvalidatedBy(String eventKind, Collection<String> requestKinds) {
+            this.cacheInvalidations.computeIfAbsent(eventKind, k -> new HashSet<>()).addAll(requestKinds);
+            return this;
+        }
+
+        /**
+         * 设置服务端请求处理隔离的默认限制。
+         * 每个请求命名空间（kind 中冒号前的部分）各自限制同时处理的请求数，超出的请求在该命名空间的队列中等待；
+         * 队列已满时立即以 {@link CoreProtocol#STATUS_OVERLOADED} 回复。一个命名空间的请求积压不会占满其他命名空间的处理能力。
+         *
+         * @param maxConcurrency 每个命名空间的最大并发处理数，0 表示不限制
+         * @param queueCapacity 每个命名空间的等待队列容量
+         * @return 构建器实例
+         */
+        public Builder handlerBulkhead(int maxConcurrency, int queueCapacity) {
+            this.handlerConcurrency = maxConcurrency;
+            this.handlerQueueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * 为指定命名空间单独设置请求处理隔离限制，覆盖默认限制。
+         *
+         * @param namespace 命名空间，例如 "room"
+         * @param maxConcurrency 最大并发处理数，0 表示不限制
+         * @param queueCapacity 等待队列容量
+         * @return 构建器实例
+         */
+        public Builder handlerBulkhead(String namespace, int maxConcurrency, int queueCapacity) {
+            this.namespaceConcurrency.put(namespace, maxConcurrency);
+            this.namespaceQueueCapacity.put(namespace, queueCapacity);
+            return this;
+        }
+
+        /**
+         * 启用服务端单连接串行处理。
+         * 同一连接的请求与事件按到达顺序逐个处理（异步请求处理器在其 Future 完成后才处理下一个），
+         * 不同连接之间并行；处理器无需再为同一对端的并发请求加锁。
+         * 连接的等待队列已满时，请求以 {@link CoreProtocol#STATUS_OVERLOADED} 回复，事件被丢弃。
+         *
+         * @param queueCapacity 每个连接的等待队列容量，0 表示不启用
+         * @return 构建器实例
+         */
+        public Builder serialPerConnection(int queueCapacity) {
+            this.connectionLaneCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * 启用服务端慢消费连接检测。
+         * 连接的发送队列中尚未写出的字节数超过高水位后，该连接进入慢消费状态：发往它的可舍弃事件按
+         * {@link #droppableEvent(String, CoreSlowConsumerPolicy)} 设置的策略丢弃或合并，其余消息照常发送；
+         * 回落到低水位及以下后恢复。持续处于慢消费状态超过 timeout 的连接被断开，释放其积压的发送队列。
+         *
+         * @param highWatermark 高水位（字节），0 表示不检测
+         * @param lowWatermark 低水位（字节）
+         * @param timeout 持续慢消费多久后断开连接，为 null 时不断开
+         * @return 构建器实例
+         */
+        public Builder slowConsumer(long highWatermark, long lowWatermark, Duration timeout) {
+            this.slowConsumerHighWatermark = highWatermark;
+            this.slowConsumerLowWatermark = lowWatermark;
+            this.slowConsumerTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * 将事件类型登记为慢消费连接可舍弃的事件。
+         *
+         * @param kind 事件类型
+         * @param policy 连接处于慢消费状态时的处理策略
+         * @return 构建器实例
+         */
+        public Builder droppableEvent(String kind, CoreSlowConsumerPolicy policy) {
+            this.droppableEvents.put(kind, policy);
+            return this;
+        }
+
         /**
          * 构建配置对象。
          *
@@ -0,0 +1,69 @@
+package com.endercore.core.comm.exception;
+
+ 
+/**
+ * 背压异常。
+ * 当在途请求窗口已满且背压策略不允许继续等待时抛出。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreBackpressureException extends CoreCommException {
+    /**
+     * 请求类型
+     */
+    private final String kind;
+
+    /**
+     * 拒绝时的在途请求数
+     */
+    private final int inFlight;
+
+    /**
+     * 在途请求上限
+     */
+    private final int limit;
+
+    /**
+     * 构造函数。
+     *
+     * @param kind 请求类型
+     * @param inFlight 拒绝时的在途请求数
+     * @param limit 在途请求上限
+     * @param reason 拒绝原因
+     */
+    public CoreBackpressureException(String kind, int inFlight, int limit, String reason) {
+        super("请求被背压拒绝: kind=" + kind + ", inFlight=" + inFlight + ", limit=" + limit + ", reason=" + reason);
+        this.kind = kind;
+        this.inFlight = inFlight;
+        this.limit = limit;
+    }
+
+    /**
+     * 获取请求类型。
+     *
+     * @return 请求类型
+     */
+    public String kind() {
+        return kind;
+    }
+
+    /**
+     * 获取拒绝时的在途请求数。
+     *
+     * @return 在途请求数
+     */
+    public int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * 获取在途请求上限。
+     *
+     * @return 在途请求上限，0 表示不限制
+     */
+    public int limit() {
+        return limit;
+    }
+}
@@ -1,6 +1,11 @@
 package com.endercore.core.comm.monitor;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
  
@@ -22,6 +27,23 @@ public final class ConnectionMetrics {
     private final AtomicLong requestTimeouts = new AtomicLong();
     private final AtomicLong protocolErrors = new AtomicLong();
     private final AtomicLong lastRttMillis = new AtomicLong();
+    private final AtomicLong backpressureRejections = new AtomicLong();
+    private final AtomicLong eventQueueDepth = new AtomicLong();
+    private final AtomicLong eventsDispatched = new AtomicLong();
+    private final AtomicLong eventsDropped = new AtomicLong();
+    private final AtomicLong eventDispatchNanos = new AtomicLong();
+    private final AtomicLong maxEventDispatchNanos = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong handlerQueueDepth = new AtomicLong();
+    private final AtomicLong handlerRejections = new AtomicLong();
+    private final AtomicLong slowConsumers = new AtomicLong();
+    private final AtomicLong slowConsumerEventsShed = new AtomicLong();
+    private final AtomicLong slowConsumerDisconnects = new AtomicLong();
+    private final ConcurrentHashMap<String, LatencyHistogram> requestLatencies = new ConcurrentHashMap<>();
+    private final Object rttLock = new Object();
+    private long smoothedRttNanos;
+    private long rttVarianceNanos;
 
     /**
      * 记录帧发送。
@@ -71,6 +93,143 @@ public final class ConnectionMetrics {
         protocolErrors.incrementAndGet();
     }
 
+    /**
+     * 记录请求被背压拒绝。
+     */
+    public void onBackpressureRejected() {
+        backpressureRejections.incrementAndGet();
+    }
+
+    /**
+     * 记录响应缓存命中。
+     */
+    public void onCacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    /**
+     * 记录响应缓存未命中。
+     */
+    public void onCacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+
+    /**
+     * 记录请求进入处理队列等待。
+     */
+    public void onHandlerQueued() {
+        handlerQueueDepth.incrementAndGet();
+    }
+
+    /**
+     * 记录请求离开处理队列开始处理。
+     */
+    public void onHandlerDequeued() {
+        handlerQueueDepth.decrementAndGet();
+    }
+
+    /**
+     * 记录请求因处理队列已满被拒绝。
+     */
+    public void onHandlerRejected() {
+        handlerRejections.incrementAndGet();
+    }
+
+    /**
+     * 记录连接的发送队列超过高水位，进入慢消费状态。
+     */
+    public void onSlowConsumerEntered() {
+        slowConsumers.incrementAndGet();
+    }
+
+    /**
+     * 记录连接离开慢消费状态（发送队列回落到低水位以下或连接已关闭）。
+     */
+    public void onSlowConsumerLeft() {
+        slowConsumers.decrementAndGet();
+    }
+
+    /**
+     * 记录发往慢消费连接的事件被丢弃或合并。
+     */
+    public void onSlowConsumerEventShed() {
+        slowConsumerEventsShed.incrementAndGet();
+    }
+
+    /**
+     * 记录连接因持续慢消费被断开。
+     */
+    public void onSlowConsumerDisconnected() {
+        slowConsumerDisconnects.incrementAndGet();
+    }
+
+    /**
+     * 记录事件进入分发队列。
+     */
+    public void onEventQueued() {
+        eventQueueDepth.incrementAndGet();
+    }
+
+    /**
+     * 记录事件离开分发队列开始执行。
+     *
+     * @param latencyNanos 事件在队列中等待的时间（纳秒）
+     */
+    public void onEventDispatched(long latencyNanos) {
+        eventQueueDepth.decrementAndGet();
+        eventsDispatched.incrementAndGet();
+        eventDispatchNanos.addAndGet(latencyNanos);
+        if (latencyNanos > maxEventDispatchNanos.get()) {
+            maxEventDispatchNanos.accumulateAndGet(latencyNanos, Math::max);
+        }
+    }
+
+    /**
+     * 记录事件因分发队列已满被丢弃。
+     *
+     * @param queued 被丢弃的事件是否已在队列中（丢弃最旧事件时为 true）
+     */
+    public void onEventDropped(boolean queued) {
+        eventsDropped.incrementAndGet();
+        if (queued) {
+            eventQueueDepth.decrementAndGet();
+        }
+    }
+
+    /**
+     * 记录一次心跳往返时间。
+     * 按 RFC 6298 的方式更新平滑 RTT（增益 1/8）与 RTT 抖动（平均偏差，增益 1/4），并更新最近一次 RTT。
+     *
+     * @param nanos 往返时间（纳秒）
+     */
+    public void onHeartbeatRtt(long nanos) {
+        synchronized (rttLock) {
+            if (smoothedRttNanos == 0) {
+                smoothedRttNanos = nanos;
+                rttVarianceNanos = nanos / 2;
+            } else {
+                rttVarianceNanos += (Math.abs(smoothedRttNanos - nanos) - rttVarianceNanos) / 4;
+                smoothedRttNanos += (nanos - smoothedRttNanos) / 8;
+            }
+        }
+        lastRttMillis.set(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * 记录一次请求延迟。
+     * 客户端记录从发出请求到收到响应的时间，服务端记录从收到请求到发出响应的时间，两者之差即为传输耗时。
+     *
+     * @param kind 请求类型
+     * @param nanos 延迟（纳秒）
+     */
+    public void onRequestLatency(String kind, long nanos) {
+        LatencyHistogram h = requestLatencies.get(kind);
+        if (h == null) {
+            h = requestLatencies.computeIfAbsent(kind, k -> new LatencyHistogram());
+        }
+        h.recordNanos(nanos);
+    }
+
     /**
      * 设置最近一次 RTT（往返时间）。
      *
@@ -87,6 +246,45 @@ public final class ConnectionMetrics {
      * @return 指标快照对象
      */
     public ConnectionMetricsSnapshot snapshot(long pendingRequests) {
+        return snapshot(pendingRequests, 0, 0, 0, 0);
+    }
+
+    /**
+     * 获取当前指标快照（含在途请求窗口使用情况）。
+     *
+     * @param pendingRequests 当前挂起的请求数
+     * @param inFlightRequests 当前在途请求数
+     * @param inFlightLimit 在途请求上限
+     * @param queuedRequests 当前排队的请求数
+     * @param sendBufferedBytes 发送缓冲中尚未写出的字节数
+     * @return 指标快照对象
+     */
+    public ConnectionMetricsSnapshot snapshot(long pendingRequests, long inFlightRequests, long inFlightLimit, long queuedRequests, long sendBufferedBytes) {
+        return snapshot(pendingRequests, inFlightRequests, inFlightLimit, queuedRequests, sendBufferedBytes, 0);
+    }
+
+    /**
+     * 获取当前指标快照（含服务端单连接发送队列的最大深度）。
+     *
+     * @param pendingRequests 当前挂起的请求数
+     * @param inFlightRequests 当前在途请求数
+     * @param inFlightLimit 在途请求上限
+     * @param queuedRequests 当前排队的请求数
+     * @param sendBufferedBytes 发送缓冲中尚未写出的字节数（服务端为所有连接之和）
+     * @param maxConnectionBufferedBytes 单个连接发送队列中尚未写出的最大字节数
+     * @return 指标快照对象
+     */
+    public ConnectionMetricsSnapshot snapshot(long pendingRequests, long inFlightRequests, long inFlightLimit, long queuedRequests,
+                                              long sendBufferedBytes, long maxConnectionBufferedBytes) {
+        long dispatched = eventsDispatched.get();
+        long srtt;
+        long rttvar;
+        synchronized (rttLock) {
+            srtt = smoothedRttNanos;
+            rttvar = rttVarianceNanos;
+        }
+        Map<String, LatencySnapshot> latencies = new LinkedHashMap<>();
+        requestLatencies.forEach((kind, h) -> latencies.put(kind, h.snapshot()));
         return new ConnectionMetricsSnapshot(
                 Instant.now(),
                 bytesSent.get(),
@@ -98,7 +296,28 @@ public final class ConnectionMetrics {
                 requestTimeouts.get(),
                 protocolErrors.get(),
                 pendingRequests,
-                lastRttMillis.get()
+                lastRttMillis.get(),
+                inFlightRequests,
+                inFlightLimit,
+                queuedRequests,
+                sendBufferedBytes,
+                backpressureRejections.get(),
+                eventQueueDepth.get(),
+                dispatched,
+                eventsDropped.get(),
+                dispatched == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(eventDispatchNanos.get() / dispatched),
+                TimeUnit.NANOSECONDS.toMicros(maxEventDispatchNanos.get()),
+                TimeUnit.NANOSECONDS.toMicros(srtt),
+                TimeUnit.NANOSECONDS.toMicros(rttvar),
+                Collections.unmodifiableMap(latencies),
+                cacheHits.get(),
+                cacheMisses.get(),
+                handlerQueueDepth.get(),
+                handlerRejections.get(),
+                maxConnectionBufferedBytes,
+                slowConsumers.get(),
+                slowConsumerEventsShed.get(),
+                slowConsumerDisconnects.get()
         );
     }
 }
@@ -1,6 +1,7 @@
 package com.endercore.core.comm.monitor;
 
 import java.time.Instant;
+import java.util.Map;
 
  
 /**
@@ -23,6 +24,27 @@ public final class ConnectionMetricsSnapshot {
     private final long protocolErrors;
     private final long pendingRequests;
     private final long lastRttMillis;
+    private final long inFlightRequests;
+    private final long inFlightLimit;
+    private final long queuedRequests;
+    private final long sendBufferedBytes;
+    private final long backpressureRejections;
+    private final long eventQueueDepth;
+    private final long eventsDispatched;
+    private final long eventsDropped;
+    private final long avgEventDispatchMicros;
+    private final long maxEventDispatchMicros;
+    private final long smoothedRttMicros;
+    private final long rttJitterMicros;
+    private final Map<String, LatencySnapshot> requestLatencies;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final long handlerQueueDepth;
+    private final long handlerRejections;
+    private final long maxConnectionBufferedBytes;
+    private final long slowConsumers;
+    private final long slowConsumerEventsShed;
+    private final long slowConsumerDisconnects;
 
     /**
      * 构造函数。
@@ -51,6 +73,81 @@ public final class ConnectionMetricsSnapshot {
             long protocolErrors,
             long pendingRequests,
             long lastRttMillis
+    ) {
+        this(createdAt, bytesSent, bytesReceived, framesSent, framesReceived, requestsSent, responsesReceived,
+                requestTimeouts, protocolErrors, pendingRequests, lastRttMillis, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                Map.of(), 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * 构造函数（含全部指标），仅供 ConnectionMetrics 生成快照时使用。
+     *
+     * @param createdAt 创建时间
+     * @param bytesSent 发送字节数
+     * @param bytesReceived 接收字节数
+     * @param framesSent 发送帧数
+     * @param framesReceived 接收帧数
+     * @param requestsSent 发送请求数
+     * @param responsesReceived 接收响应数
+     * @param requestTimeouts 请求超时数
+     * @param protocolErrors 协议错误数
+     * @param pendingRequests 挂起的请求数
+     * @param lastRttMillis 最近一次 RTT
+     * @param inFlightRequests 在途请求数
+     * @param inFlightLimit 在途请求上限
+     * @param queuedRequests 排队等待窗口的请求数
+     * @param sendBufferedBytes 发送缓冲中尚未写出的字节数
+     * @param backpressureRejections 被背压拒绝的请求数
+     * @param eventQueueDepth 事件分发队列深度
+     * @param eventsDispatched 已分发的事件数
+     * @param eventsDropped 因队列已满被丢弃的事件数
+     * @param avgEventDispatchMicros 事件在分发队列中的平均等待时间（微秒）
+     * @param maxEventDispatchMicros 事件在分发队列中的最长等待时间（微秒）
+     * @param smoothedRttMicros 心跳平滑 RTT（微秒）
+     * @param rttJitterMicros 心跳 RTT 抖动（微秒）
+     * @param requestLatencies 按请求类型统计的延迟分布
+     * @param cacheHits 响应缓存命中数
+     * @param cacheMisses 响应缓存未命中数
+     * @param handlerQueueDepth 等待处理的请求数
+     * @param handlerRejections 因过载被拒绝的请求数
+     * @param maxConnectionBufferedBytes 单个连接发送队列中尚未写出的最大字节数
+     * @param slowConsumers 当前处于慢消费状态的连接数
+     * @param slowConsumerEventsShed 因连接慢消费被丢弃或合并的事件数
+     * @param slowConsumerDisconnects 因持续慢消费被断开的连接数
+     */
+    ConnectionMetricsSnapshot(
+            Instant createdAt,
+            long bytesSent,
+            long bytesReceived,
+            long framesSent,
+            long framesReceived,
+            long requestsSent,
+            long responsesReceived,
+            long requestTimeouts,
+            long protocolErrors,
+            long pendingRequests,
+            long lastRttMillis,
+            long inFlightRequests,
+            long inFlightLimit,
+            long queuedRequests,
+            long sendBufferedBytes,
+            long backpressureRejections,
+            long eventQueueDepth,
+            long eventsDispatched,
+            long eventsDropped,
+            long avgEventDispatchMicros,
+            long maxEventDispatchMicros,
+            long smoothedRttMicros,
+            long rttJitterMicros,
+            Map<String, LatencySnapshot> requestLatencies,
+            long cacheHits,
+            long cacheMisses,
+            long handlerQueueDepth,
+            long handlerRejections,
+            long maxConnectionBufferedBytes,
+            long slowConsumers,
+            long slowConsumerEventsShed,
+            long slowConsumerDisconnects
     ) {
         this.createdAt = createdAt;
         this.bytesSent = bytesSent;
@@ -63,6 +160,27 @@ public final class ConnectionMetricsSnapshot {
         this.protocolErrors = protocolErrors;
         this.pendingRequests = pendingRequests;
         this.lastRttMillis = lastRttMillis;
+        this.inFlightRequests = inFlightRequests;
+        this.inFlightLimit = inFlightLimit;
+        this.queuedRequests = queuedRequests;
+        this.sendBufferedBytes = sendBufferedBytes;
+        this.backpressureRejections = backpressureRejections;
+        this.eventQueueDepth = eventQueueDepth;
+        this.eventsDispatched = eventsDispatched;
+        this.eventsDropped = eventsDropped;
+        this.avgEventDispatchMicros = avgEventDispatchMicros;
+        this.maxEventDispatchMicros = maxEventDispatchMicros;
+        this.smoothedRttMicros = smoothedRttMicros;
+        this.rttJitterMicros = rttJitterMicros;
+        this.requestLatencies = requestLatencies;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.handlerQueueDepth = handlerQueueDepth;
+        this.handlerRejections = handlerRejections;
+        this.maxConnectionBufferedBytes = maxConnectionBufferedBytes;
+        this.slowConsumers = slowConsumers;
+        this.slowConsumerEventsShed = slowConsumerEventsShed;
+        this.slowConsumerDisconnects = slowConsumerDisconnects;
     }
 
     /**
@@ -163,4 +281,203 @@ public final class ConnectionMetricsSnapshot {
     public long lastRttMillis() {
         return lastRttMillis;
     }
+
+    /**
+     * 获取在途请求数（已占用窗口许可的请求）。
+     *
+     * @return 在途请求数
+     */
+    public long inFlightRequests() {
+        return inFlightRequests;
+    }
+
+    /**
+     * 获取在途请求上限。
+     *
+     * @return 在途请求上限，0 表示不限制
+     */
+    public long inFlightLimit() {
+        return inFlightLimit;
+    }
+
+    /**
+     * 获取排队等待窗口的请求数。
+     *
+     * @return 排队请求数
+     */
+    public long queuedRequests() {
+        return queuedRequests;
+    }
+
+    /**
+     * 获取发送缓冲中尚未写出的字节数（最近一次水位检查时的值）。
+     *
+     * @return 发送缓冲字节数
+     */
+    public long sendBufferedBytes() {
+        return sendBufferedBytes;
+    }
+
+    /**
+     * 获取被背压拒绝的请求数。
+     *
+     * @return 被拒绝的请求数
+     */
+    public long backpressureRejections() {
+        return backpressureRejections;
+    }
+
+    /**
+     * 获取事件分发队列深度。
+     *
+     * @return 等待执行的事件数
+     */
+    public long eventQueueDepth() {
+        return eventQueueDepth;
+    }
+
+    /**
+     * 获取已分发的事件数。
+     *
+     * @return 已分发的事件数
+     */
+    public long eventsDispatched() {
+        return eventsDispatched;
+    }
+
+    /**
+     * 获取因分发队列已满被丢弃的事件数。
+     *
+     * @return 被丢弃的事件数
+     */
+    public long eventsDropped() {
+        return eventsDropped;
+    }
+
+    /**
+     * 获取事件在分发队列中的平均等待时间。
+     *
+     * @return 平均等待时间（微秒）
+     */
+    public long avgEventDispatchMicros() {
+        return avgEventDispatchMicros;
+    }
+
+    /**
+     * 获取事件在分发队列中的最长等待时间。
+     *
+     * @return 最长等待时间（微秒）
+     */
+    public long maxEventDispatchMicros() {
+        return maxEventDispatchMicros;
+    }
+
+    /**
+     * 获取心跳平滑 RTT（指数加权移动平均）。
+     *
+     * @return 平滑 RTT（微秒），尚无心跳样本时为 0
+     */
+    public long smoothedRttMicros() {
+        return smoothedRttMicros;
+    }
+
+    /**
+     * 获取心跳 RTT 抖动（与平滑 RTT 的平均偏差）。
+     *
+     * @return RTT 抖动（微秒）
+     */
+    public long rttJitterMicros() {
+        return rttJitterMicros;
+    }
+
+    /**
+     * 获取按请求类型统计的延迟分布。
+     *
+     * @return 请求类型到延迟快照的不可修改映射
+     */
+    public Map<String, LatencySnapshot> requestLatencies() {
+        return requestLatencies;
+    }
+
+    /**
+     * 获取指定请求类型的延迟分布。
+     *
+     * @param kind 请求类型
+     * @return 延迟快照，没有样本时返回 null
+     */
+    public LatencySnapshot requestLatency(String kind) {
+        return requestLatencies.get(kind);
+    }
+
+    /**
+     * 获取响应缓存命中数（含返回过期数据并后台刷新的情况）。
+     *
+     * @return 命中数
+     */
+    public long cacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * 获取响应缓存未命中数。
+     *
+     * @return 未命中数
+     */
+    public long cacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * 获取在请求处理隔离队列中等待处理的请求数。
+     *
+     * @return 等待处理的请求数
+     */
+    public long handlerQueueDepth() {
+        return handlerQueueDepth;
+    }
+
+    /**
+     * 获取因处理队列已满被拒绝的请求数。
+     *
+     * @return 被拒绝的请求数
+     */
+    public long handlerRejections() {
+        return handlerRejections;
+    }
+
+    /**
+     * 获取单个连接发送队列中尚未写出的最大字节数（仅服务端）。
+     *
+     * @return 最大排队字节数
+     */
+    public long maxConnectionBufferedBytes() {
+        return maxConnectionBufferedBytes;
+    }
+
+    /**
+     * 获取当前处于慢消费状态（发送队列超过高水位）的连接数。
+     *
+     * @return 慢消费连接数
+     */
+    public long slowConsumers() {
+        return slowConsumers;
+    }
+
+    /**
+     * 获取因连接慢消费被丢弃或合并的事件数。
+     *
+     * @return 被丢弃或合并的事件数
+     */
+    public long slowConsumerEventsShed() {
+        return slowConsumerEventsShed;
+    }
+
+    /**
+     * 获取因持续慢消费被断开的连接数。
+     *
+     * @return 被断开的连接数
+     */
+    public long slowConsumerDisconnects() {
+        return slowConsumerDisconnects;
+    }
 }
@@ -0,0 +1,121 @@
+package com.endercore.core.comm.monitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * 延迟直方图。
+ * 以微秒为单位按对数-线性方式分桶（与 HdrHistogram 相同的思路）：小于 32 微秒的值各占一个桶，
+ * 更大的值按最高位分组，每组再等分为 16 个子桶，相对误差不超过约 6%，最大可记录约 12 天。
+ * 记录只是一次数组下标计算加一次原子自增，不加锁；读取分位数时扫描所有桶，结果是近似的最终一致快照。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LatencyHistogram {
+    /**
+     * 线性区与每组子桶数的位数
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS >> 1;
+
+    /**
+     * 可记录的最大值（微秒），更大的值按该值记录
+     */
+    private static final long MAX_MICROS = (1L << 40) - 1;
+
+    private static final int BUCKETS = index(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一次延迟。
+     *
+     * @param nanos 延迟（纳秒），负值按 0 记录
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(index(micros));
+        total.incrementAndGet();
+        if (micros > max.get()) {
+            max.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    /**
+     * 获取当前分位数快照。
+     *
+     * @return 延迟快照
+     */
+    public LatencySnapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.get(i);
+            n += c[i];
+        }
+        long maxMicros = max.get();
+        return new LatencySnapshot(n, percentile(c, n, 0.50, maxMicros), percentile(c, n, 0.99, maxMicros),
+                percentile(c, n, 0.999, maxMicros), maxMicros);
+    }
+
+    /**
+     * 计算分位数。
+     *
+     * @param c 各桶计数
+     * @param n 总计数
+     * @param q 分位（0-1）
+     * @param maxMicros 记录到的最大值，用于收紧最后一个桶的上界
+     * @return 分位数对应桶的上界（微秒）
+     */
+    private static long percentile(long[] c, long n, double q, long maxMicros) {
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < c.length; i++) {
+            seen += c[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    /**
+     * 计算值所在的桶下标。
+     *
+     * @param micros 值（微秒），不小于 0
+     * @return 桶下标
+     */
+    private static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (micros >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    /**
+     * 计算桶能表示的最大值。
+     *
+     * @param index 桶下标
+     * @return 桶上界（微秒）
+     */
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
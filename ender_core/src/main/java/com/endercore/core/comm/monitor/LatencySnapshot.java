@@ -0,0 +1,90 @@
+package com.endercore.core.comm.monitor;
+
+
+/**
+ * 延迟分位数快照对象。
+ * 分位数为直方图桶的上界，单位均为微秒。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LatencySnapshot {
+    private final long count;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+
+    /**
+     * 构造函数。
+     *
+     * @param count 样本数
+     * @param p50Micros 50 分位延迟
+     * @param p99Micros 99 分位延迟
+     * @param p999Micros 99.9 分位延迟
+     * @param maxMicros 最大延迟
+     */
+    public LatencySnapshot(long count, long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+        this.count = count;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * 获取样本数。
+     *
+     * @return 样本数
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * 获取 50 分位延迟。
+     *
+     * @return 延迟（微秒）
+     */
+    public long p50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * 获取 99 分位延迟。
+     *
+     * @return 延迟（微秒）
+     */
+    public long p99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * 获取 99.9 分位延迟。
+     *
+     * @return 延迟（微秒）
+     */
+    public long p999Micros() {
+        return p999Micros;
+    }
+
+    /**
+     * 获取最大延迟。
+     *
+     * @return 延迟（微秒）
+     */
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    /**
+     * 获取快照的字符串表示。
+     *
+     * @return 字符串表示
+     */
+    public String toString() {
+        return "count=" + count + ", p50=" + p50Micros + "us, p99=" + p99Micros + "us, p999=" + p999Micros + "us, max=" + maxMicros + "us";
+    }
+}
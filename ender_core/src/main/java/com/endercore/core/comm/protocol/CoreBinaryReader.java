@@ -0,0 +1,195 @@
+package com.endercore.core.comm.protocol;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * 二进制负载读取器。
+ * 以独立的读位置顺序读取 ByteBuffer，只使用绝对位置访问，不修改源缓冲区的 position 和 limit。
+ * 字符串解码时经由线程复用的临时数组，不为每个字段分配中间缓冲区；二进制字段可直接取只读切片。
+ * 字符串格式与 {@link CoreBinaryWriter} 一致：Length(UnsignedShort) + UTF-8 Bytes。
+ * 数据不足时抛出 {@link BufferUnderflowException}。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreBinaryReader {
+    /**
+     * 线程复用临时数组的最大长度，更长的字符串单独分配
+     */
+    private static final int MAX_SCRATCH_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * 构造函数。
+     *
+     * @param buffer 源缓冲区（读取 position 到 limit 之间的内容）
+     */
+    public CoreBinaryReader(ByteBuffer buffer) {
+        reset(buffer);
+    }
+
+    /**
+     * 重新指向新的源缓冲区，以便复用读取器。
+     *
+     * @param buffer 源缓冲区（读取 position 到 limit 之间的内容）
+     * @return 当前读取器
+     */
+    public CoreBinaryReader reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+        return this;
+    }
+
+    /**
+     * 获取剩余可读字节数。
+     *
+     * @return 剩余字节数
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * 读取无符号字节。
+     *
+     * @return 0-255
+     */
+    public int readUnsignedByte() {
+        return buffer.get(advance(1)) & 0xFF;
+    }
+
+    /**
+     * 读取布尔值（非 0 即为 true）。
+     *
+     * @return 布尔值
+     */
+    public boolean readBoolean() {
+        return readUnsignedByte() != 0;
+    }
+
+    /**
+     * 读取无符号 16 位整数（大端序）。
+     *
+     * @return 0-65535
+     */
+    public int readUnsignedShort() {
+        return buffer.getShort(advance(2)) & 0xFFFF;
+    }
+
+    /**
+     * 读取 32 位整数（大端序）。
+     *
+     * @return 整数值
+     */
+    public int readInt() {
+        return buffer.getInt(advance(4));
+    }
+
+    /**
+     * 读取 64 位整数（大端序）。
+     *
+     * @return 整数值
+     */
+    public long readLong() {
+        return buffer.getLong(advance(8));
+    }
+
+    /**
+     * 读取带长度前缀的字符串。
+     *
+     * @return 字符串，长度为 0 时返回空字符串
+     */
+    public String readString() {
+        return readUtf8(readUnsignedShort());
+    }
+
+    /**
+     * 读取指定字节数的 UTF-8 文本。
+     *
+     * @param byteLength 字节数
+     * @return 字符串
+     */
+    public String readUtf8(int byteLength) {
+        if (byteLength == 0) {
+            return "";
+        }
+        int at = advance(byteLength);
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + at, byteLength, StandardCharsets.UTF_8);
+        }
+        byte[] tmp = byteLength <= MAX_SCRATCH_BYTES ? scratch(byteLength) : new byte[byteLength];
+        buffer.get(at, tmp, 0, byteLength);
+        return new String(tmp, 0, byteLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取指定字节数并复制为数组。
+     *
+     * @param length 字节数
+     * @return 字节数组
+     */
+    public byte[] readBytes(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length < 0: " + length);
+        }
+        int at = advance(length);
+        byte[] out = new byte[length];
+        buffer.get(at, out);
+        return out;
+    }
+
+    /**
+     * 读取指定字节数的只读切片，不复制数据。
+     * 切片与源缓冲区共享内容，调用方需保证源缓冲区在切片使用期间不被复用。
+     *
+     * @param length 字节数
+     * @return 只读切片
+     */
+    public ByteBuffer readSlice(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length < 0: " + length);
+        }
+        return buffer.slice(advance(length), length).asReadOnlyBuffer();
+    }
+
+    /**
+     * 前移读位置。
+     *
+     * @param n 字节数
+     * @return 前移前的位置
+     * @throws BufferUnderflowException 当剩余字节不足时抛出
+     */
+    private int advance(int n) {
+        int at = position;
+        if (n < 0 || limit - at < n) {
+            throw new BufferUnderflowException();
+        }
+        position = at + n;
+        return at;
+    }
+
+    /**
+     * 获取当前线程的临时数组。
+     *
+     * @param length 所需长度
+     * @return 长度不小于 length 的临时数组
+     */
+    private static byte[] scratch(int length) {
+        byte[] tmp = SCRATCH.get();
+        if (tmp.length < length) {
+            tmp = new byte[Math.min(MAX_SCRATCH_BYTES, Math.max(length, tmp.length << 1))];
+            SCRATCH.set(tmp);
+        }
+        return tmp;
+    }
+}
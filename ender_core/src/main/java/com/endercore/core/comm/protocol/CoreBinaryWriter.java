@@ -0,0 +1,331 @@
+package com.endercore.core.comm.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+
+
+/**
+ * 二进制负载写入器。
+ * 基于可增长的堆 ByteBuffer 按位置顺序写入，字符串直接按 UTF-8 逐字符编码到缓冲区，不经过中间字节数组。
+ * 实例在所有线程间共享的定长池中复用：通过 {@link #acquire()} 获取、{@link #close()} 归还；
+ * 池为空时创建新实例，池已满时丢弃归还的实例。不按线程缓存，因此在每个任务使用新虚拟线程的执行器下同样有效；
+ * 嵌套使用时各自取得不同的实例。
+ * 字符串格式与房间协议一致：Length(UnsignedShort) + UTF-8 Bytes。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreBinaryWriter implements AutoCloseable {
+    /**
+     * 初始容量
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 归还到池中时保留的最大容量，超过后缩回初始容量
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    /**
+     * 池中最多保留的实例数
+     */
+    private static final int POOL_SIZE = 32;
+
+    private static final ArrayBlockingQueue<CoreBinaryWriter> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private boolean inUse;
+
+    /**
+     * 私有构造函数，通过 {@link #acquire()} 获取实例。
+     */
+    private CoreBinaryWriter() {
+    }
+
+    /**
+     * 从池中获取写入器。
+     * 返回的写入器位置为 0，使用完毕后应调用 {@link #close()}。
+     *
+     * @return 写入器
+     */
+    public static CoreBinaryWriter acquire() {
+        CoreBinaryWriter w = POOL.poll();
+        if (w == null) {
+            w = new CoreBinaryWriter();
+        }
+        w.inUse = true;
+        w.buffer.clear();
+        return w;
+    }
+
+    /**
+     * 获取已写入的字节数。
+     *
+     * @return 当前位置
+     */
+    public int position() {
+        return buffer.position();
+    }
+
+    /**
+     * 写入一个字节。
+     *
+     * @param value 字节值（取低 8 位）
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeByte(int value) {
+        ensure(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * 写入布尔值（1 或 0）。
+     *
+     * @param value 布尔值
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * 写入 16 位整数（大端序）。
+     *
+     * @param value 整数值（取低 16 位）
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeShort(int value) {
+        ensure(2);
+        buffer.putShort((short) value);
+        return this;
+    }
+
+    /**
+     * 写入 32 位整数（大端序）。
+     *
+     * @param value 整数值
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeInt(int value) {
+        ensure(4);
+        buffer.putInt(value);
+        return this;
+    }
+
+    /**
+     * 写入 64 位整数（大端序）。
+     *
+     * @param value 整数值
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * 写入字节数组。
+     *
+     * @param bytes 字节数组，为 null 时不写入
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeBytes(byte[] bytes) {
+        if (bytes != null && bytes.length > 0) {
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+        return this;
+    }
+
+    /**
+     * 写入缓冲区中 position 到 limit 之间的内容。
+     * 不修改 src 的 position 和 limit。
+     *
+     * @param src 源缓冲区，为 null 时不写入
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeBytes(ByteBuffer src) {
+        if (src != null && src.hasRemaining()) {
+            int len = src.remaining();
+            ensure(len);
+            buffer.put(buffer.position(), src, src.position(), len);
+            buffer.position(buffer.position() + len);
+        }
+        return this;
+    }
+
+    /**
+     * 写入带长度前缀的字符串。
+     * 格式：Length(UnsignedShort) + UTF-8 Bytes；null 按空字符串处理。
+     *
+     * @param s 字符串
+     * @return 当前写入器
+     * @throws IllegalArgumentException 当编码后超过 65535 字节时抛出
+     */
+    public CoreBinaryWriter writeString(String s) {
+        if (s == null || s.isEmpty()) {
+            return writeShort(0);
+        }
+        int len = utf8Length(s);
+        if (len > 65535) {
+            throw new IllegalArgumentException("string too long");
+        }
+        ensure(2 + len);
+        buffer.putShort((short) len);
+        encodeUtf8(s);
+        return this;
+    }
+
+    /**
+     * 写入字符串集合。
+     * 格式：Count(UnsignedShort) + 每个字符串的 {@link #writeString(String)} 格式。
+     *
+     * @param values 字符串集合
+     * @return 当前写入器
+     * @throws IllegalArgumentException 当元素数量超过 65535 时抛出
+     */
+    public CoreBinaryWriter writeStrings(Collection<String> values) {
+        if (values.size() > 65535) {
+            throw new IllegalArgumentException("too many strings");
+        }
+        writeShort(values.size());
+        for (String s : values) {
+            writeString(s);
+        }
+        return this;
+    }
+
+    /**
+     * 写入不带长度前缀的 UTF-8 文本。
+     *
+     * @param s 文本，为 null 时不写入
+     * @return 当前写入器
+     */
+    public CoreBinaryWriter writeUtf8(CharSequence s) {
+        if (s != null && s.length() > 0) {
+            ensure(utf8Length(s));
+            encodeUtf8(s);
+        }
+        return this;
+    }
+
+    /**
+     * 复制已写入的内容为字节数组。
+     *
+     * @return 长度恰好等于已写入字节数的数组
+     */
+    public byte[] toByteArray() {
+        int len = buffer.position();
+        if (len == 0) {
+            return EMPTY;
+        }
+        byte[] out = new byte[len];
+        buffer.get(0, out);
+        return out;
+    }
+
+    @Override
+    /**
+     * 归还写入器到池中；重复调用无效果。
+     */
+    public void close() {
+        if (!inUse) {
+            return;
+        }
+        inUse = false;
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+        POOL.offer(this);
+    }
+
+    /**
+     * 确保剩余空间不少于 n 字节，不足时按倍数扩容。
+     *
+     * @param n 所需字节数
+     */
+    private void ensure(int n) {
+        if (buffer.remaining() >= n) {
+            return;
+        }
+        int need = buffer.position() + n;
+        if (need < 0) {
+            throw new IllegalArgumentException("payload too large");
+        }
+        int cap = Math.max(buffer.capacity() << 1, need);
+        if (cap < 0) {
+            cap = need;
+        }
+        ByteBuffer next = ByteBuffer.allocate(cap);
+        buffer.flip();
+        next.put(buffer);
+        buffer = next;
+    }
+
+    /**
+     * 计算文本的 UTF-8 编码长度。
+     * 不成对的代理字符按 1 字节替换字符 '?' 计算，与 {@link String#getBytes(java.nio.charset.Charset)} 一致。
+     *
+     * @param s 文本
+     * @return 编码字节数
+     */
+    public static int utf8Length(CharSequence s) {
+        int n = s.length();
+        int len = n;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                len += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                len += 2;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                continue;
+            } else {
+                len += 2;
+            }
+        }
+        return len;
+    }
+
+    /**
+     * 将文本按 UTF-8 编码写入缓冲区。
+     * 调用方需已确保剩余空间不少于 {@link #utf8Length(CharSequence)}。
+     *
+     * @param s 文本
+     */
+    private void encodeUtf8(CharSequence s) {
+        ByteBuffer b = buffer;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b.put((byte) c);
+            } else if (c < 0x800) {
+                b.put((byte) (0xC0 | (c >> 6)));
+                b.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                b.put((byte) (0xF0 | (cp >> 18)));
+                b.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                b.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                b.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                b.put((byte) '?');
+            } else {
+                b.put((byte) (0xE0 | (c >> 12)));
+                b.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                b.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
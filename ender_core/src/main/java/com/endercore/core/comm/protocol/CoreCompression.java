@@ -0,0 +1,47 @@
+package com.endercore.core.comm.protocol;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * 负载压缩算法接口。
+ * 实现必须线程安全；算法 ID 随压缩负载一同传输，解码端据此选择算法。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CoreCompression {
+    /**
+     * 获取算法 ID。
+     *
+     * @return 算法 ID（0-255）
+     */
+    int id();
+
+    /**
+     * 获取算法名称。
+     *
+     * @return 算法名称
+     */
+    String name();
+
+    /**
+     * 压缩数据。
+     * 不修改 input 的 position 和 limit。
+     *
+     * @param input 原始数据
+     * @return 压缩后的数据，结果不小于原始数据时返回 null
+     */
+    byte[] compress(ByteBuffer input);
+
+    /**
+     * 解压数据。
+     *
+     * @param input 压缩数据
+     * @param rawLength 原始数据长度
+     * @return 解压后的数据
+     * @throws com.endercore.core.comm.exception.CoreProtocolException 当数据损坏或长度不符时抛出
+     */
+    byte[] decompress(ByteBuffer input, int rawLength);
+}
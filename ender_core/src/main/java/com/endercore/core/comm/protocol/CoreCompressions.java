@@ -0,0 +1,277 @@
+package com.endercore.core.comm.protocol;
+
+import com.endercore.core.comm.exception.CoreProtocolException;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+/**
+ * 内置负载压缩算法。
+ * DEFLATE 由 JDK 提供，始终可用；ZSTD 需要运行时存在 zstd-jni，不可用时 {@link #zstd()} 返回 null。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreCompressions {
+    /**
+     * DEFLATE 算法 ID
+     */
+    public static final int DEFLATE_ID = 1;
+
+    /**
+     * ZSTD 算法 ID
+     */
+    public static final int ZSTD_ID = 2;
+
+    private static final CoreCompression DEFLATE = new DeflateCompression();
+
+    private static final CoreCompression ZSTD = ZstdUtils.isZstdCompressionAvailable() ? new ZstdCompression() : null;
+
+    /**
+     * 私有构造函数，防止实例化。
+     */
+    private CoreCompressions() {
+    }
+
+    /**
+     * 获取 DEFLATE 算法。
+     *
+     * @return DEFLATE 算法
+     */
+    public static CoreCompression deflate() {
+        return DEFLATE;
+    }
+
+    /**
+     * 获取 ZSTD 算法。
+     *
+     * @return ZSTD 算法，运行时不可用时返回 null
+     */
+    public static CoreCompression zstd() {
+        return ZSTD;
+    }
+
+    /**
+     * 获取当前可用的首选算法（优先 ZSTD）。
+     *
+     * @return 压缩算法
+     */
+    public static CoreCompression preferred() {
+        return ZSTD != null ? ZSTD : DEFLATE;
+    }
+
+    /**
+     * 根据算法 ID 查找算法。
+     *
+     * @param id 算法 ID
+     * @return 压缩算法，不支持时返回 null
+     */
+    public static CoreCompression byId(int id) {
+        if (id == DEFLATE_ID) {
+            return DEFLATE;
+        }
+        if (id == ZSTD_ID) {
+            return ZSTD;
+        }
+        return null;
+    }
+
+    /**
+     * 将缓冲区内容包装为输入流（直接缓冲区会先复制）。
+     *
+     * @param input 输入缓冲区
+     * @return 字节数组输入流
+     */
+    private static InputStream asStream(ByteBuffer input) {
+        if (input.hasArray()) {
+            return new ByteArrayInputStream(input.array(), input.arrayOffset() + input.position(), input.remaining());
+        }
+        byte[] copy = new byte[input.remaining()];
+        input.get(input.position(), copy);
+        return new ByteArrayInputStream(copy);
+    }
+
+    /**
+     * 基于 JDK Deflater/Inflater 的实现。
+     * 压缩器实例在所有线程间共享的定长池中复用，而不是按线程缓存：处理器运行在虚拟线程上时每个任务都是新线程，
+     * 按线程缓存会为每条消息创建并丢弃一份 zlib 本地状态，且要等到 Cleaner 运行才释放。
+     * 池为空时创建新实例，池已满时立即释放归还的实例。
+     */
+    private static final class DeflateCompression implements CoreCompression {
+        /**
+         * 池中最多保留的压缩器与解压器数量
+         */
+        private static final int POOL_SIZE = 16;
+
+        private final ArrayBlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+        private final ArrayBlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        @Override
+        /**
+         * 获取算法 ID。
+         *
+         * @return 算法 ID
+         */
+        public int id() {
+            return DEFLATE_ID;
+        }
+
+        @Override
+        /**
+         * 获取算法名称。
+         *
+         * @return 算法名称
+         */
+        public String name() {
+            return "deflate";
+        }
+
+        @Override
+        /**
+         * 压缩数据。
+         *
+         * @param input 原始数据
+         * @return 压缩后的数据，结果不小于原始数据时返回 null
+         */
+        public byte[] compress(ByteBuffer input) {
+            int rawLength = input.remaining();
+            Deflater deflater = deflaters.poll();
+            if (deflater == null) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            }
+            try {
+                deflater.setInput(input.duplicate());
+                deflater.finish();
+                byte[] out = new byte[rawLength];
+                int n = 0;
+                while (!deflater.finished() && n < out.length) {
+                    n += deflater.deflate(out, n, out.length - n);
+                }
+                if (!deflater.finished() || n >= rawLength) {
+                    return null;
+                }
+                return Arrays.copyOf(out, n);
+            } finally {
+                deflater.reset();
+                if (!deflaters.offer(deflater)) {
+                    deflater.end();
+                }
+            }
+        }
+
+        @Override
+        /**
+         * 解压数据。
+         *
+         * @param input 压缩数据
+         * @param rawLength 原始数据长度
+         * @return 解压后的数据
+         */
+        public byte[] decompress(ByteBuffer input, int rawLength) {
+            Inflater inflater = inflaters.poll();
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            }
+            try {
+                inflater.setInput(input.duplicate());
+                byte[] out = new byte[rawLength];
+                int n = 0;
+                while (n < rawLength && !inflater.finished()) {
+                    int r = inflater.inflate(out, n, rawLength - n);
+                    if (r == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    n += r;
+                }
+                if (n != rawLength || !inflater.finished()) {
+                    throw new CoreProtocolException("解压长度不一致: expected=" + rawLength + ", actual=" + n);
+                }
+                return out;
+            } catch (DataFormatException e) {
+                throw new CoreProtocolException("压缩数据损坏", e);
+            } finally {
+                inflater.reset();
+                if (!inflaters.offer(inflater)) {
+                    inflater.end();
+                }
+            }
+        }
+    }
+
+    /**
+     * 基于 commons-compress（zstd-jni）的实现。
+     */
+    private static final class ZstdCompression implements CoreCompression {
+        @Override
+        /**
+         * 获取算法 ID。
+         *
+         * @return 算法 ID
+         */
+        public int id() {
+            return ZSTD_ID;
+        }
+
+        @Override
+        /**
+         * 获取算法名称。
+         *
+         * @return 算法名称
+         */
+        public String name() {
+            return "zstd";
+        }
+
+        @Override
+        /**
+         * 压缩数据。
+         *
+         * @param input 原始数据
+         * @return 压缩后的数据，结果不小于原始数据时返回 null
+         */
+        public byte[] compress(ByteBuffer input) {
+            int rawLength = input.remaining();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, rawLength / 2));
+            try (InputStream in = asStream(input); OutputStream zstd = new ZstdCompressorOutputStream(out)) {
+                in.transferTo(zstd);
+            } catch (IOException e) {
+                return null;
+            }
+            return out.size() < rawLength ? out.toByteArray() : null;
+        }
+
+        @Override
+        /**
+         * 解压数据。
+         *
+         * @param input 压缩数据
+         * @param rawLength 原始数据长度
+         * @return 解压后的数据
+         */
+        public byte[] decompress(ByteBuffer input, int rawLength) {
+            try (InputStream in = new ZstdCompressorInputStream(asStream(input))) {
+                byte[] out = in.readNBytes(rawLength);
+                if (out.length != rawLength || in.read() != -1) {
+                    throw new CoreProtocolException("解压长度不一致: expected=" + rawLength);
+                }
+                return out;
+            } catch (IOException e) {
+                throw new CoreProtocolException("压缩数据损坏", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.endercore.core.comm.protocol;
+
+import com.endercore.core.comm.config.CoreEventOverflowPolicy;
+import com.endercore.core.comm.monitor.ConnectionMetrics;
+
+import java.util.concurrent.Executor;
+
+
+/**
+ * 有序、有界的事件分发器。
+ * 事件按调用方给出的键散列到固定数量的串行通道，同一通道内的事件严格按到达顺序逐个执行，不同通道之间并行。
+ * 每个通道是一个定长环形缓冲，只在有待处理事件时向执行器提交一个排空任务，
+ * 因此同时占用的执行器线程数不超过通道数，事件突发不会造成线程暴涨。
+ * 通道已满时按 {@link CoreEventOverflowPolicy} 处理；排队深度、分发延迟与丢弃数记录到连接指标。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreEventDispatcher {
+    /**
+     * 排空任务单次最多连续执行的事件数，超过后重新提交以让出执行器线程
+     */
+    private static final int MAX_BATCH = 64;
+
+    private final Executor executor;
+    private final CoreEventOverflowPolicy overflowPolicy;
+    private final ConnectionMetrics metrics;
+    private final Lane[] lanes;
+    private final int mask;
+
+    /**
+     * 构造函数。
+     *
+     * @param executor 执行事件处理的执行器
+     * @param lanes 串行通道数量，会向上取整为 2 的幂
+     * @param laneCapacity 每个通道的环形缓冲容量
+     * @param overflowPolicy 通道已满时的处理方式
+     * @param metrics 连接指标
+     */
+    public CoreEventDispatcher(Executor executor, int lanes, int laneCapacity, CoreEventOverflowPolicy overflowPolicy, ConnectionMetrics metrics) {
+        this.executor = executor;
+        this.overflowPolicy = overflowPolicy;
+        this.metrics = metrics;
+        int n = Integer.highestOneBit(Math.max(1, Math.min(lanes, 1 << 10)) * 2 - 1);
+        this.mask = n - 1;
+        this.lanes = new Lane[n];
+        int capacity = Math.max(1, laneCapacity);
+        for (int i = 0; i < n; i++) {
+            this.lanes[i] = new Lane(capacity);
+        }
+    }
+
+    /**
+     * 提交一个事件。
+     * 键相同的事件进入同一通道，按提交顺序执行；任务抛出的异常被忽略，不影响后续事件。
+     *
+     * @param key 排序键，通常由事件类型（及连接）计算
+     * @param task 事件处理任务
+     * @return 事件被接收返回 true；因通道已满被丢弃返回 false
+     */
+    public boolean dispatch(int key, Runnable task) {
+        int h = key ^ (key >>> 16);
+        return lanes[h & mask].offer(task);
+    }
+
+    /**
+     * 串行通道。
+     * 以自身为锁保护环形缓冲；running 为 true 表示已有排空任务在执行器中，保证同一时刻至多一个线程执行本通道的事件。
+     */
+    private final class Lane implements Runnable {
+        private final Runnable[] tasks;
+        private final long[] enqueuedAt;
+        private int head;
+        private int size;
+        private boolean running;
+        private int blocked;
+
+        /**
+         * 构造函数。
+         *
+         * @param capacity 环形缓冲容量
+         */
+        private Lane(int capacity) {
+            this.tasks = new Runnable[capacity];
+            this.enqueuedAt = new long[capacity];
+        }
+
+        /**
+         * 将事件加入通道，必要时提交排空任务。
+         *
+         * @param task 事件处理任务
+         * @return 事件被接收返回 true
+         */
+        private boolean offer(Runnable task) {
+            boolean start;
+            synchronized (this) {
+                if (size == tasks.length) {
+                    if (overflowPolicy == CoreEventOverflowPolicy.DROP_NEWEST) {
+                        metrics.onEventDropped(false);
+                        return false;
+                    }
+                    if (overflowPolicy == CoreEventOverflowPolicy.DROP_OLDEST) {
+                        tasks[head] = null;
+                        head = next(head);
+                        size--;
+                        metrics.onEventDropped(true);
+                    } else {
+                        blocked++;
+                        try {
+                            while (size == tasks.length) {
+                                wait();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            metrics.onEventDropped(false);
+                            return false;
+                        } finally {
+                            blocked--;
+                        }
+                    }
+                }
+                int tail = (head + size) % tasks.length;
+                tasks[tail] = task;
+                enqueuedAt[tail] = System.nanoTime();
+                size++;
+                metrics.onEventQueued();
+                start = !running;
+                running = true;
+            }
+            if (start) {
+                submit();
+            }
+            return true;
+        }
+
+        @Override
+        /**
+         * 排空任务：依次执行通道中的事件，连续执行一批后重新提交自身以让出线程。
+         * 事件抛出 Error 时先重新提交自身再向上抛出，通道中剩余的事件仍会被执行。
+         */
+        public void run() {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                Runnable task;
+                long queuedNanos;
+                synchronized (this) {
+                    if (size == 0) {
+                        running = false;
+                        return;
+                    }
+                    task = tasks[head];
+                    queuedNanos = enqueuedAt[head];
+                    tasks[head] = null;
+                    head = next(head);
+                    size--;
+                    if (blocked > 0) {
+                        notifyAll();
+                    }
+                }
+                metrics.onEventDispatched(System.nanoTime() - queuedNanos);
+                try {
+                    task.run();
+                } catch (RuntimeException ignored) {
+                } catch (Error e) {
+                    submit();
+                    throw e;
+                }
+            }
+            submit();
+        }
+
+        /**
+         * 向执行器提交排空任务；执行器拒绝时丢弃通道中的全部事件，避免通道永久停滞。
+         */
+        private void submit() {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    for (int i = 0; i < size; i++) {
+                        tasks[(head + i) % tasks.length] = null;
+                        metrics.onEventDropped(true);
+                    }
+                    head = 0;
+                    size = 0;
+                    running = false;
+                    if (blocked > 0) {
+                        notifyAll();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 计算环形缓冲的下一个下标。
+         *
+         * @param i 当前下标
+         * @return 下一个下标
+         */
+        private int next(int i) {
+            return i + 1 == tasks.length ? 0 : i + 1;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.endercore.core.comm.protocol;
+
+import com.multiplayer.ender.logic.BufferPool;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+
+/**
+ * 单连接的帧合并发送器。
+ * 在刷新窗口内写入的帧被依次追加到同一个 {@link CoreMessageType#BATCH} 帧中，窗口到期或累计大小达到上限时作为一条 WebSocket 消息发出。
+ * 窗口内只有一帧时直接发送该帧，不附加批量头部。
+ * 发往同一连接的所有帧都必须经由同一个合并器，以保持发送顺序。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreFrameBatcher {
+    /**
+     * 批量帧头长度（紧凑协议，无状态码、请求 ID 与 kind）
+     */
+    private static final int BATCH_HEADER_BYTES = CoreProtocol.COMPACT_HEADER_MIN_BYTES;
+
+    private final ScheduledExecutorService scheduler;
+    private final long flushWindowNanos;
+    private final int maxBatchBytes;
+    private final Consumer<ByteBuffer> sink;
+
+    private ByteBuffer pending;
+    private int count;
+    private int firstStart;
+    private int firstLength;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    /**
+     * 构造函数。
+     *
+     * @param scheduler 用于调度延迟刷新的调度器
+     * @param flushWindowNanos 刷新窗口（纳秒），必须大于 0
+     * @param maxBatchBytes 单个批量帧的最大字节数
+     * @param sink 实际发送编码后消息的回调，缓冲区在回调返回后即被复用
+     */
+    public CoreFrameBatcher(ScheduledExecutorService scheduler, long flushWindowNanos, int maxBatchBytes, Consumer<ByteBuffer> sink) {
+        if (flushWindowNanos <= 0) {
+            throw new IllegalArgumentException("flushWindowNanos <= 0: " + flushWindowNanos);
+        }
+        if (maxBatchBytes <= BATCH_HEADER_BYTES) {
+            throw new IllegalArgumentException("maxBatchBytes 过小: " + maxBatchBytes);
+        }
+        this.scheduler = scheduler;
+        this.flushWindowNanos = flushWindowNanos;
+        this.maxBatchBytes = maxBatchBytes;
+        this.sink = sink;
+    }
+
+    /**
+     * 追加一帧。
+     * 帧内容在方法返回前已被复制，调用方可立即复用 frame。
+     *
+     * @param frame 已编码的完整帧
+     */
+    public synchronized void offer(ByteBuffer frame) {
+        if (closed) {
+            return;
+        }
+        int length = frame.remaining();
+        int entry = CoreVarInt.size(length) + length;
+        if (pending != null && pending.position() + entry > maxBatchBytes) {
+            flushLocked();
+        }
+        if (BATCH_HEADER_BYTES + entry > maxBatchBytes) {
+            sink.accept(frame);
+            return;
+        }
+        if (pending == null) {
+            pending = BufferPool.acquire(maxBatchBytes);
+            pending.put(CoreProtocol.MAGIC_0);
+            pending.put(CoreProtocol.MAGIC_1);
+            pending.put(CoreProtocol.VERSION_COMPACT);
+            pending.put(CoreMessageType.BATCH.code());
+            pending.put((byte) 0);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::scheduledFlush, flushWindowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        CoreVarInt.write(pending, length);
+        if (count == 0) {
+            firstStart = pending.position();
+            firstLength = length;
+        }
+        pending.put(frame.duplicate());
+        count++;
+    }
+
+    /**
+     * 立即发送已累积的帧。
+     */
+    public synchronized void flush() {
+        flushLocked();
+    }
+
+    /**
+     * 关闭合并器，丢弃尚未发送的帧。
+     */
+    public synchronized void close() {
+        closed = true;
+        ByteBuffer buf = pending;
+        pending = null;
+        count = 0;
+        BufferPool.release(buf);
+    }
+
+    /**
+     * 刷新窗口到期时执行。
+     */
+    private synchronized void scheduledFlush() {
+        flushScheduled = false;
+        flushLocked();
+    }
+
+    /**
+     * 发送已累积的帧（调用方需持有锁）。
+     */
+    private void flushLocked() {
+        ByteBuffer buf = pending;
+        if (buf == null) {
+            return;
+        }
+        pending = null;
+        int n = count;
+        count = 0;
+        try {
+            if (n == 1) {
+                sink.accept(buf.slice(firstStart, firstLength));
+            } else {
+                buf.flip();
+                sink.accept(buf);
+            }
+        } finally {
+            BufferPool.release(buf);
+        }
+    }
+}
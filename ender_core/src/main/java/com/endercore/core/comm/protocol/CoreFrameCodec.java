@@ -1,14 +1,16 @@
 package com.endercore.core.comm.protocol;
 
 import com.endercore.core.comm.exception.CoreProtocolException;
+import com.multiplayer.ender.logic.BufferPool;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
  
 /**
  * 协议帧编解码器。
- * 负责将 CoreFrame 对象编码为字节数组，以及将 ByteBuffer 解码为 CoreFrame 对象。
+ * 负责将 CoreFrame 对象编码为字节数组或池化缓冲区，以及将 ByteBuffer 解码为 CoreFrame 对象。
  *
  * @author Ender Developer
  * @version 1.0
@@ -20,16 +22,45 @@ public final class CoreFrameCodec {
      */
     private final int maxFrameBytes;
 
+    /**
+     * 负载压缩算法，为 null 时不压缩
+     */
+    private final CoreCompression compression;
+
+    /**
+     * 触发压缩的最小负载长度（字节）
+     */
+    private final int compressionThreshold;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
     /**
      * 构造函数。
      *
      * @param maxFrameBytes 最大帧大小（字节），必须大于协议头长度
      */
     public CoreFrameCodec(int maxFrameBytes) {
+        this(maxFrameBytes, null, 0);
+    }
+
+    /**
+     * 构造函数（启用负载压缩）。
+     * 压缩仅作用于紧凑协议编码的帧；解码时无论本端是否启用压缩，均会还原已压缩的负载。
+     *
+     * @param maxFrameBytes 最大帧大小（字节），必须大于协议头长度
+     * @param compression 负载压缩算法，为 null 时不压缩
+     * @param compressionThreshold 触发压缩的最小负载长度（字节）
+     */
+    public CoreFrameCodec(int maxFrameBytes, CoreCompression compression, int compressionThreshold) {
         if (maxFrameBytes < CoreProtocol.HEADER_BYTES) {
             throw new IllegalArgumentException("maxFrameBytes 过小: " + maxFrameBytes);
         }
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException("compressionThreshold < 0: " + compressionThreshold);
+        }
         this.maxFrameBytes = maxFrameBytes;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
     }
 
     /**
@@ -40,51 +71,277 @@ public final class CoreFrameCodec {
      * @throws CoreProtocolException 当帧大小超过上限或格式非法时抛出
      */
     public byte[] encode(CoreFrame frame) {
-        byte[] kindBytes = frame.kind().getBytes(StandardCharsets.UTF_8);
+        byte[] kindBytes = CoreKindInterner.encode(frame.kind());
         byte[] payload = frame.payload();
+        int total = checkedTotal(kindBytes.length, payload.length);
+
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        writeHeader(buf, frame, kindBytes, payload.length);
+        buf.put(payload);
+        return buf.array();
+    }
+
+    /**
+     * 将帧编码到池化的直接缓冲区。
+     * 返回的缓冲区已 flip，可直接发送；使用完毕后必须调用 {@link #release(ByteBuffer)} 归还。
+     *
+     * @param frame 协议帧对象
+     * @return 包含完整帧的缓冲区
+     * @throws CoreProtocolException 当帧大小超过上限或格式非法时抛出
+     */
+    public ByteBuffer encodePooled(CoreFrame frame) {
+        return encodePooled(frame, null);
+    }
+
+    /**
+     * 将帧编码到池化的直接缓冲区，并在可能时以数字 ID 代替 kind 字符串。
+     * 返回的缓冲区已 flip，可直接发送；使用完毕后必须调用 {@link #release(ByteBuffer)} 归还。
+     *
+     * @param frame 协议帧对象
+     * @param kindTable 与对端协商的 kind 编号表，为 null 时始终写入字符串
+     * @return 包含完整帧的缓冲区
+     * @throws CoreProtocolException 当帧大小超过上限或格式非法时抛出
+     */
+    public ByteBuffer encodePooled(CoreFrame frame, CoreKindTable kindTable) {
+        return encodePooled(frame, kindTable, CoreProtocol.VERSION);
+    }
 
-        if (kindBytes.length > 0xFFFF) {
-            throw new CoreProtocolException("kind 过长: " + kindBytes.length);
+    /**
+     * 按指定协议版本将帧编码到池化的直接缓冲区。
+     * 紧凑版本（{@link CoreProtocol#VERSION_COMPACT}）仅可在握手协商成功后使用。
+     * 返回的缓冲区已 flip，可直接发送；使用完毕后必须调用 {@link #release(ByteBuffer)} 归还。
+     *
+     * @param frame 协议帧对象
+     * @param kindTable 与对端协商的 kind 编号表，为 null 时始终写入字符串
+     * @param version 协议版本
+     * @return 包含完整帧的缓冲区
+     * @throws CoreProtocolException 当帧大小超过上限或格式非法时抛出
+     */
+    public ByteBuffer encodePooled(CoreFrame frame, CoreKindTable kindTable, int version) {
+        int kindId = kindTable == null || frame.kind().isEmpty() ? -1 : kindTable.idOf(frame.kind());
+        byte[] payload = frame.payload();
+        if (version == CoreProtocol.VERSION_COMPACT) {
+            return encodeCompact(frame, kindId, payload);
         }
-        if (payload.length < 0) {
-            throw new CoreProtocolException("payload 长度非法: " + payload.length);
+        ByteBuffer buf;
+        if (kindId >= 0) {
+            buf = BufferPool.acquire(checkedTotal(CoreVarInt.size(kindId), payload.length));
+            writeHeader(buf, frame, kindId, payload.length);
+        } else {
+            byte[] kindBytes = CoreKindInterner.encode(frame.kind());
+            buf = BufferPool.acquire(checkedTotal(kindBytes.length, payload.length));
+            writeHeader(buf, frame, kindBytes, payload.length);
         }
+        buf.put(payload);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * 以紧凑协议编码帧。
+     * 格式：Magic(2) + Version(1) + Type(1) + Flags(1) + [Status(1)] + [RequestId(VarLong)]
+     * + [KindId(VarInt) | KindLen(VarInt) + KindBytes] + Payload。
+     * 负载长度由 WebSocket 消息边界确定，不单独编码。
+     * 启用压缩且负载达到阈值时，若压缩后更小则写入压缩负载并设置 {@link CoreProtocol#FLAG_COMPRESSED}。
+     *
+     * @param frame 协议帧对象
+     * @param kindId kind 数字 ID，未协商时为 -1
+     * @param payload 负载
+     * @return 包含完整帧的池化缓冲区
+     */
+    private ByteBuffer encodeCompact(CoreFrame frame, int kindId, byte[] payload) {
+        int flags = frame.flags() & ~CoreProtocol.CODEC_FLAGS;
+        int status = frame.status() & 0xFF;
+        long requestId = frame.requestId();
+        byte[] kindBytes = null;
+
+        byte[] packed = null;
+        int rawLength = payload.length;
+        if (compression != null && rawLength > 0 && rawLength >= compressionThreshold) {
+            packed = compression.compress(ByteBuffer.wrap(payload));
+            if (packed != null && 1 + CoreVarInt.size(rawLength) + packed.length < rawLength) {
+                flags |= CoreProtocol.FLAG_COMPRESSED;
+            } else {
+                packed = null;
+            }
+        }
+        long payloadSection = packed == null ? rawLength : 1 + CoreVarInt.size(rawLength) + packed.length;
 
-        int total = CoreProtocol.HEADER_BYTES + kindBytes.length + payload.length;
+        long total = CoreProtocol.COMPACT_HEADER_MIN_BYTES + payloadSection;
+        if (status != 0) {
+            flags |= CoreProtocol.FLAG_HAS_STATUS;
+            total += 1;
+        }
+        if (requestId != 0) {
+            flags |= CoreProtocol.FLAG_HAS_REQUEST_ID;
+            total += CoreVarInt.sizeLong(requestId);
+        }
+        if (kindId >= 0) {
+            flags |= CoreProtocol.FLAG_KIND_ID;
+            total += CoreVarInt.size(kindId);
+        } else if (!frame.kind().isEmpty()) {
+            kindBytes = CoreKindInterner.encode(frame.kind());
+            if (kindBytes.length > 0xFFFF) {
+                throw new CoreProtocolException("kind 过长: " + kindBytes.length);
+            }
+            flags |= CoreProtocol.FLAG_HAS_KIND;
+            total += CoreVarInt.size(kindBytes.length) + kindBytes.length;
+        }
         if (total > maxFrameBytes) {
             throw new CoreProtocolException("帧大小超过上限: " + total + " > " + maxFrameBytes);
         }
 
-        ByteBuffer buf = ByteBuffer.allocate(total);
+        ByteBuffer buf = BufferPool.acquire((int) total);
+        buf.put(CoreProtocol.MAGIC_0);
+        buf.put(CoreProtocol.MAGIC_1);
+        buf.put(CoreProtocol.VERSION_COMPACT);
+        buf.put(frame.type().code());
+        buf.put((byte) flags);
+        if (status != 0) {
+            buf.put((byte) status);
+        }
+        if (requestId != 0) {
+            CoreVarInt.writeLong(buf, requestId);
+        }
+        if (kindId >= 0) {
+            CoreVarInt.write(buf, kindId);
+        } else if (kindBytes != null) {
+            CoreVarInt.write(buf, kindBytes.length);
+            buf.put(kindBytes);
+        }
+        if (packed != null) {
+            buf.put((byte) compression.id());
+            CoreVarInt.write(buf, rawLength);
+            buf.put(packed);
+        } else {
+            buf.put(payload);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * 归还由 {@link #encodePooled(CoreFrame)} 取得的缓冲区。
+     *
+     * @param buffer 缓冲区
+     */
+    public void release(ByteBuffer buffer) {
+        BufferPool.release(buffer);
+    }
+
+    /**
+     * 校验并计算帧总长度。
+     *
+     * @param kindLen kind 字节数
+     * @param payloadLen 负载字节数
+     * @return 帧总长度
+     * @throws CoreProtocolException 当帧大小超过上限或格式非法时抛出
+     */
+    private int checkedTotal(int kindLen, int payloadLen) {
+        if (kindLen > 0xFFFF) {
+            throw new CoreProtocolException("kind 过长: " + kindLen);
+        }
+        if (payloadLen < 0) {
+            throw new CoreProtocolException("payload 长度非法: " + payloadLen);
+        }
+
+        long total = (long) CoreProtocol.HEADER_BYTES + kindLen + payloadLen;
+        if (total > maxFrameBytes) {
+            throw new CoreProtocolException("帧大小超过上限: " + total + " > " + maxFrameBytes);
+        }
+        return (int) total;
+    }
+
+    /**
+     * 写入协议头与 kind。
+     *
+     * @param buf 目标缓冲区
+     * @param frame 协议帧对象
+     * @param kindBytes kind 字节
+     * @param payloadLen 负载字节数
+     */
+    private static void writeHeader(ByteBuffer buf, CoreFrame frame, byte[] kindBytes, int payloadLen) {
+        writeFixedHeader(buf, frame, (byte) (frame.flags() & ~CoreProtocol.CODEC_FLAGS), kindBytes.length, payloadLen);
+        buf.put(kindBytes);
+    }
+
+    /**
+     * 写入协议头与 kind 数字 ID。
+     *
+     * @param buf 目标缓冲区
+     * @param frame 协议帧对象
+     * @param kindId kind 数字 ID
+     * @param payloadLen 负载字节数
+     */
+    private static void writeHeader(ByteBuffer buf, CoreFrame frame, int kindId, int payloadLen) {
+        writeFixedHeader(buf, frame, (byte) ((frame.flags() & ~CoreProtocol.CODEC_FLAGS) | CoreProtocol.FLAG_KIND_ID), CoreVarInt.size(kindId), payloadLen);
+        CoreVarInt.write(buf, kindId);
+    }
+
+    /**
+     * 写入定长协议头。
+     *
+     * @param buf 目标缓冲区
+     * @param frame 协议帧对象
+     * @param flags 标志位
+     * @param kindLen kind 段字节数
+     * @param payloadLen 负载字节数
+     */
+    private static void writeFixedHeader(ByteBuffer buf, CoreFrame frame, byte flags, int kindLen, int payloadLen) {
         buf.put(CoreProtocol.MAGIC_0);
         buf.put(CoreProtocol.MAGIC_1);
         buf.put(CoreProtocol.VERSION);
         buf.put(frame.type().code());
-        buf.put(frame.flags());
+        buf.put(flags);
         buf.put((byte) (frame.status() & 0xFF));
         buf.putLong(frame.requestId());
-        buf.putShort((short) (kindBytes.length & 0xFFFF));
-        buf.putInt(payload.length);
-        buf.put(kindBytes);
-        buf.put(payload);
-        return buf.array();
+        buf.putShort((short) (kindLen & 0xFFFF));
+        buf.putInt(payloadLen);
     }
 
     /**
      * 解码帧。
+     * 负载会被复制为独立的字节数组；热路径应优先使用 {@link #decodeView(ByteBuffer)}。
      *
      * @param input 输入 ByteBuffer
      * @return 解码后的协议帧对象
      * @throws CoreProtocolException 当帧格式非法或大小超过上限时抛出
      */
     public CoreFrame decode(ByteBuffer input) {
+        return decodeView(input).toFrame();
+    }
+
+    /**
+     * 以视图模式解码帧。
+     * 返回的视图直接引用 input 的只读切片，kind 延迟解析，负载不复制。
+     * 解码完成后 input 的 position 将移动到 limit。
+     *
+     * @param input 输入 ByteBuffer
+     * @return 协议帧视图
+     * @throws CoreProtocolException 当帧格式非法或大小超过上限时抛出
+     */
+    public CoreFrameView decodeView(ByteBuffer input) {
+        return decodeView(input, null);
+    }
+
+    /**
+     * 以视图模式解码帧，并使用协商的编号表解析数字 kind ID。
+     * 返回的视图直接引用 input 的只读切片，负载不复制。
+     * 解码完成后 input 的 position 将移动到 limit。
+     *
+     * @param input 输入 ByteBuffer
+     * @param kindTable 与对端协商的 kind 编号表，可为 null
+     * @return 协议帧视图
+     * @throws CoreProtocolException 当帧格式非法、大小超过上限或 kind ID 未知时抛出
+     */
+    public CoreFrameView decodeView(ByteBuffer input, CoreKindTable kindTable) {
         if (input == null) {
             throw new CoreProtocolException("空帧");
         }
         if (input.remaining() > maxFrameBytes) {
             throw new CoreProtocolException("帧大小超过上限: " + input.remaining() + " > " + maxFrameBytes);
         }
-        if (input.remaining() < CoreProtocol.HEADER_BYTES) {
+        if (input.remaining() < CoreProtocol.COMPACT_HEADER_MIN_BYTES) {
             throw new CoreProtocolException("帧长度不足: " + input.remaining());
         }
 
@@ -95,17 +352,53 @@ public final class CoreFrameCodec {
         }
 
         byte version = input.get();
-        if (version != CoreProtocol.VERSION) {
-            throw new CoreProtocolException("版本不支持: " + (version & 0xFF));
+        if (version == CoreProtocol.VERSION) {
+            return decodeV1(input, kindTable);
         }
+        if (version == CoreProtocol.VERSION_COMPACT) {
+            return decodeCompact(input, kindTable);
+        }
+        throw new CoreProtocolException("版本不支持: " + (version & 0xFF));
+    }
 
-        CoreMessageType type;
-        try {
-            type = CoreMessageType.from(input.get());
-        } catch (IllegalArgumentException e) {
-            throw new CoreProtocolException("type 不支持", e);
+    /**
+     * 拆解批量帧，依次解码其中的每一帧并交给 consumer 处理。
+     * 子帧为接收缓冲区上的零拷贝视图；批量帧不允许嵌套。
+     *
+     * @param batch 类型为 {@link CoreMessageType#BATCH} 的帧视图
+     * @param kindTable kind 编号表，可为 null
+     * @param consumer 子帧处理器
+     * @throws CoreProtocolException 当批量帧格式非法时抛出
+     */
+    public void forEachBatched(CoreFrameView batch, CoreKindTable kindTable, Consumer<CoreFrameView> consumer) {
+        ByteBuffer in = batch.payloadBuffer();
+        while (in.hasRemaining()) {
+            int length = CoreVarInt.read(in);
+            if (length < 0 || length > in.remaining()) {
+                throw new CoreProtocolException("批量子帧长度非法: " + length);
+            }
+            CoreFrameView frame = decodeView(in.slice(in.position(), length), kindTable);
+            in.position(in.position() + length);
+            if (frame.type() == CoreMessageType.BATCH) {
+                throw new CoreProtocolException("批量帧不允许嵌套");
+            }
+            consumer.accept(frame);
+        }
+    }
+
+    /**
+     * 解码版本 1 的定长协议头及其后内容。
+     *
+     * @param input 位于 Type 字段的输入缓冲区
+     * @param kindTable kind 编号表，可为 null
+     * @return 协议帧视图
+     */
+    private CoreFrameView decodeV1(ByteBuffer input, CoreKindTable kindTable) {
+        if (input.remaining() < CoreProtocol.HEADER_BYTES - 3) {
+            throw new CoreProtocolException("帧长度不足: " + (input.remaining() + 3));
         }
 
+        CoreMessageType type = readType(input);
         byte flags = input.get();
         int status = input.get() & 0xFF;
         long requestId = input.getLong();
@@ -123,13 +416,114 @@ public final class CoreFrameCodec {
             throw new CoreProtocolException("帧长度不一致: remaining=" + input.remaining() + ", expected=" + (kindLen + payloadLen));
         }
 
-        byte[] kindBytes = new byte[kindLen];
-        input.get(kindBytes);
-        String kind = new String(kindBytes, StandardCharsets.UTF_8);
+        int kindStart = input.position();
+        ByteBuffer kindBytes = input.slice(kindStart, kindLen).asReadOnlyBuffer();
+        ByteBuffer payload = input.slice(kindStart + kindLen, payloadLen).asReadOnlyBuffer();
+        input.position(input.limit());
+        if ((flags & CoreProtocol.FLAG_COMPRESSED) != 0) {
+            payload = decompress(payload);
+            flags &= ~CoreProtocol.FLAG_COMPRESSED;
+        }
+
+        if ((flags & CoreProtocol.FLAG_KIND_ID) != 0) {
+            int kindId = CoreVarInt.read(kindBytes.duplicate());
+            return new CoreFrameView(type, flags, status, requestId, kindId, resolveKindId(kindTable, kindId), payload);
+        }
+        return new CoreFrameView(type, flags, status, requestId, kindBytes, payload);
+    }
+
+    /**
+     * 解码紧凑协议头及其后内容。
+     *
+     * @param input 位于 Type 字段的输入缓冲区
+     * @param kindTable kind 编号表，可为 null
+     * @return 协议帧视图
+     */
+    private CoreFrameView decodeCompact(ByteBuffer input, CoreKindTable kindTable) {
+        CoreMessageType type = readType(input);
+        byte flags = input.get();
+        try {
+            int status = (flags & CoreProtocol.FLAG_HAS_STATUS) != 0 ? input.get() & 0xFF : 0;
+            long requestId = (flags & CoreProtocol.FLAG_HAS_REQUEST_ID) != 0 ? CoreVarInt.readLong(input) : 0L;
+            int kindId = -1;
+            ByteBuffer kindBytes = EMPTY;
+            if ((flags & CoreProtocol.FLAG_KIND_ID) != 0) {
+                kindId = CoreVarInt.read(input);
+            } else if ((flags & CoreProtocol.FLAG_HAS_KIND) != 0) {
+                int kindLen = CoreVarInt.read(input);
+                if (kindLen < 0 || kindLen > 0xFFFF || kindLen > input.remaining()) {
+                    throw new CoreProtocolException("kindLen 非法: " + kindLen);
+                }
+                kindBytes = input.slice(input.position(), kindLen).asReadOnlyBuffer();
+                input.position(input.position() + kindLen);
+            }
+            ByteBuffer payload = input.slice().asReadOnlyBuffer();
+            input.position(input.limit());
+            if ((flags & CoreProtocol.FLAG_COMPRESSED) != 0) {
+                payload = decompress(payload);
+                flags &= ~CoreProtocol.FLAG_COMPRESSED;
+            }
 
-        byte[] payload = new byte[payloadLen];
-        input.get(payload);
+            if (kindId >= 0) {
+                return new CoreFrameView(type, flags, status, requestId, kindId, resolveKindId(kindTable, kindId), payload);
+            }
+            return new CoreFrameView(type, flags, status, requestId, kindBytes, payload);
+        } catch (BufferUnderflowException e) {
+            throw new CoreProtocolException("帧长度不足", e);
+        }
+    }
 
-        return new CoreFrame(type, flags, status, requestId, kind, payload);
+    /**
+     * 还原压缩负载。
+     *
+     * @param packed 压缩负载段
+     * @return 解压后负载的只读缓冲区
+     * @throws CoreProtocolException 当算法不支持或数据非法时抛出
+     */
+    private ByteBuffer decompress(ByteBuffer packed) {
+        try {
+            int algorithm = packed.get() & 0xFF;
+            int rawLength = CoreVarInt.read(packed);
+            if (rawLength < 0 || rawLength > maxFrameBytes) {
+                throw new CoreProtocolException("解压后大小超过上限: " + rawLength + " > " + maxFrameBytes);
+            }
+            CoreCompression c = CoreCompressions.byId(algorithm);
+            if (c == null) {
+                throw new CoreProtocolException("压缩算法不支持: " + algorithm);
+            }
+            return ByteBuffer.wrap(c.decompress(packed, rawLength)).asReadOnlyBuffer();
+        } catch (BufferUnderflowException e) {
+            throw new CoreProtocolException("压缩负载长度不足", e);
+        }
+    }
+
+    /**
+     * 读取消息类型。
+     *
+     * @param input 输入缓冲区
+     * @return 消息类型
+     */
+    private static CoreMessageType readType(ByteBuffer input) {
+        try {
+            return CoreMessageType.from(input.get());
+        } catch (IllegalArgumentException e) {
+            throw new CoreProtocolException("type 不支持", e);
+        }
+    }
+
+    /**
+     * 通过编号表解析 kind ID。
+     *
+     * @param kindTable kind 编号表，可为 null
+     * @param kindId kind 数字 ID
+     * @return 消息种类
+     * @throws CoreProtocolException 当 ID 未协商时抛出
+     */
+    private static String resolveKindId(CoreKindTable kindTable, int kindId) {
+        String kind = kindTable == null ? null : kindTable.kindOf(kindId);
+        if (kind == null) {
+            throw new CoreProtocolException("未知的 kind ID: " + kindId);
+        }
+        return kind;
     }
 }
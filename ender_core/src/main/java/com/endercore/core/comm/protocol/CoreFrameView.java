@@ -0,0 +1,173 @@
+package com.endercore.core.comm.protocol;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * 协议帧视图。
+ * 由 {@link CoreFrameCodec#decodeView(ByteBuffer)} 生成，直接引用接收缓冲区的只读切片，不复制 kind 与负载。
+ * kind 在首次访问时通过驻留表解析；负载仅在调用 {@link #payload()} 时才复制为字节数组。
+ * 只转发数据的处理逻辑应使用 {@link #payloadBuffer()}，从而完全避免负载复制。
+ * 调用方需保证底层缓冲区在视图使用期间不被复用。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreFrameView {
+    private final CoreMessageType type;
+    private final byte flags;
+    private final int status;
+    private final long requestId;
+    private final int kindId;
+    private final ByteBuffer kindBytes;
+    private final ByteBuffer payload;
+
+    private volatile String kind;
+    private volatile byte[] payloadArray;
+
+    /**
+     * 构造函数。
+     *
+     * @param type      消息类型
+     * @param flags     标志位
+     * @param status    状态码
+     * @param requestId 请求 ID
+     * @param kindBytes kind 字节的只读切片
+     * @param payload   负载的只读切片
+     */
+    CoreFrameView(CoreMessageType type, byte flags, int status, long requestId, ByteBuffer kindBytes, ByteBuffer payload) {
+        this.type = type;
+        this.flags = flags;
+        this.status = status;
+        this.requestId = requestId;
+        this.kindId = -1;
+        this.kindBytes = kindBytes;
+        this.payload = payload;
+    }
+
+    /**
+     * 构造函数（kind 以协商的数字 ID 传输）。
+     *
+     * @param type      消息类型
+     * @param flags     标志位
+     * @param status    状态码
+     * @param requestId 请求 ID
+     * @param kindId    kind 数字 ID
+     * @param kind      已解析的消息种类
+     * @param payload   负载的只读切片
+     */
+    CoreFrameView(CoreMessageType type, byte flags, int status, long requestId, int kindId, String kind, ByteBuffer payload) {
+        this.type = type;
+        this.flags = flags;
+        this.status = status;
+        this.requestId = requestId;
+        this.kindId = kindId;
+        this.kindBytes = null;
+        this.kind = kind;
+        this.payload = payload;
+    }
+
+    /**
+     * 获取消息类型。
+     *
+     * @return 消息类型
+     */
+    public CoreMessageType type() {
+        return type;
+    }
+
+    /**
+     * 获取标志位。
+     *
+     * @return 标志位
+     */
+    public byte flags() {
+        return flags;
+    }
+
+    /**
+     * 获取状态码。
+     *
+     * @return 状态码
+     */
+    public int status() {
+        return status;
+    }
+
+    /**
+     * 获取请求 ID。
+     *
+     * @return 请求 ID
+     */
+    public long requestId() {
+        return requestId;
+    }
+
+    /**
+     * 获取 kind 数字 ID。
+     *
+     * @return kind 数字 ID，以字符串传输时返回 -1
+     */
+    public int kindId() {
+        return kindId;
+    }
+
+    /**
+     * 获取消息种类（延迟解析并驻留）。
+     *
+     * @return 消息种类
+     */
+    public String kind() {
+        String k = kind;
+        if (k == null) {
+            k = CoreKindInterner.resolve(kindBytes);
+            kind = k;
+        }
+        return k;
+    }
+
+    /**
+     * 获取负载长度。
+     *
+     * @return 负载字节数
+     */
+    public int payloadLength() {
+        return payload.remaining();
+    }
+
+    /**
+     * 获取负载的只读视图。
+     * 每次调用返回独立的 position/limit，不会复制数据。
+     *
+     * @return 负载只读缓冲区
+     */
+    public ByteBuffer payloadBuffer() {
+        return payload.duplicate();
+    }
+
+    /**
+     * 获取负载字节数组。
+     * 首次调用时复制一次并缓存，后续调用返回同一数组。
+     *
+     * @return 负载字节数组
+     */
+    public byte[] payload() {
+        byte[] p = payloadArray;
+        if (p == null) {
+            p = new byte[payload.remaining()];
+            payload.get(payload.position(), p);
+            payloadArray = p;
+        }
+        return p;
+    }
+
+    /**
+     * 转换为独立的 CoreFrame 对象（会复制负载）。
+     *
+     * @return 协议帧对象
+     */
+    public CoreFrame toFrame() {
+        return new CoreFrame(type, flags, status, requestId, kind(), payload());
+    }
+}
@@ -0,0 +1,172 @@
+package com.endercore.core.comm.protocol;
+
+import com.endercore.core.comm.exception.CoreProtocolException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * 协议握手负载编解码工具类。
+ * 请求格式：Version(1) + Count(2) + Count * Kind(String)
+ * 响应格式：Version(1) + Count(2) + Count * (Id(2) + Kind(String))
+ * 其中 String 为 Length(UnsignedShort) + UTF-8 Bytes。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreHandshake {
+    /**
+     * 一次握手请求最多列出的 kind 数量
+     */
+    public static final int MAX_REQUEST_KINDS = 1024;
+
+    /**
+     * 私有构造函数，防止实例化。
+     */
+    private CoreHandshake() {
+    }
+
+    /**
+     * 编码握手请求。
+     *
+     * @param version 本端支持的最高协议版本
+     * @param kinds 本端将使用的 kind 列表
+     * @return 请求负载
+     * @throws IllegalArgumentException 当 kind 数量超过 {@link #MAX_REQUEST_KINDS} 时抛出
+     */
+    public static byte[] encodeRequest(int version, Collection<String> kinds) {
+        if (kinds.size() > MAX_REQUEST_KINDS) {
+            throw new IllegalArgumentException("握手请求的 kind 数量超过上限: " + kinds.size());
+        }
+        List<byte[]> encoded = new ArrayList<>(kinds.size());
+        int total = 1 + 2;
+        for (String kind : kinds) {
+            byte[] b = kind.getBytes(StandardCharsets.UTF_8);
+            encoded.add(b);
+            total += 2 + b.length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        buf.put((byte) version);
+        buf.putShort((short) encoded.size());
+        for (byte[] b : encoded) {
+            buf.putShort((short) b.length).put(b);
+        }
+        return buf.array();
+    }
+
+    /**
+     * 解码握手请求。
+     *
+     * @param payload 请求负载
+     * @return 握手请求
+     * @throws CoreProtocolException 当负载格式非法或 kind 数量超过 {@link #MAX_REQUEST_KINDS} 时抛出
+     */
+    public static Request decodeRequest(ByteBuffer payload) {
+        try {
+            int version = payload.get() & 0xFF;
+            int count = payload.getShort() & 0xFFFF;
+            if (count > MAX_REQUEST_KINDS) {
+                throw new CoreProtocolException("握手请求的 kind 数量超过上限: " + count);
+            }
+            List<String> kinds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                kinds.add(readString(payload));
+            }
+            return new Request(version, kinds);
+        } catch (BufferUnderflowException e) {
+            throw new CoreProtocolException("握手请求格式非法", e);
+        }
+    }
+
+    /**
+     * 编码握手响应。
+     *
+     * @param version 协商后的协议版本
+     * @param assigned 已分配的 kind 与 ID
+     * @return 响应负载
+     */
+    public static byte[] encodeResponse(int version, Map<String, Integer> assigned) {
+        List<byte[]> encoded = new ArrayList<>(assigned.size());
+        int total = 1 + 2;
+        for (String kind : assigned.keySet()) {
+            byte[] b = kind.getBytes(StandardCharsets.UTF_8);
+            encoded.add(b);
+            total += 2 + 2 + b.length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        buf.put((byte) version);
+        buf.putShort((short) encoded.size());
+        int i = 0;
+        for (int id : assigned.values()) {
+            byte[] b = encoded.get(i++);
+            buf.putShort((short) id);
+            buf.putShort((short) b.length).put(b);
+        }
+        return buf.array();
+    }
+
+    /**
+     * 解码握手响应。
+     *
+     * @param payload 响应负载
+     * @return 握手响应
+     * @throws CoreProtocolException 当负载格式非法时抛出
+     */
+    public static Response decodeResponse(ByteBuffer payload) {
+        try {
+            int version = payload.get() & 0xFF;
+            int count = payload.getShort() & 0xFFFF;
+            Map<String, Integer> assigned = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                int id = payload.getShort() & 0xFFFF;
+                assigned.put(readString(payload), id);
+            }
+            return new Response(version, Collections.unmodifiableMap(assigned));
+        } catch (BufferUnderflowException e) {
+            throw new CoreProtocolException("握手响应格式非法", e);
+        }
+    }
+
+    /**
+     * 读取字符串。
+     *
+     * @param in 输入缓冲区
+     * @return 字符串
+     */
+    private static String readString(ByteBuffer in) {
+        int len = in.getShort() & 0xFFFF;
+        if (in.remaining() < len) {
+            throw new BufferUnderflowException();
+        }
+        String s = StandardCharsets.UTF_8.decode(in.slice(in.position(), len)).toString();
+        in.position(in.position() + len);
+        return s;
+    }
+
+    /**
+     * 握手请求。
+     *
+     * @param version 对端支持的最高协议版本
+     * @param kinds 对端将使用的 kind 列表
+     */
+    public record Request(int version, List<String> kinds) {
+    }
+
+    /**
+     * 握手响应。
+     *
+     * @param version 协商后的协议版本
+     * @param assigned kind 到 ID 的映射
+     */
+    public record Response(int version, Map<String, Integer> assigned) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.endercore.core.comm.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+
+/**
+ * 接收中的分片流。
+ * 网络线程通过 {@link #offer(ByteBuffer, boolean)} 追加分片（持有接收缓冲区的只读切片，不复制），
+ * 读取方在其他线程中阻塞读取；每消费一定数据后向发送端归还信用，使缓冲的数据量不超过 {@link CoreProtocol#STREAM_WINDOW_BYTES}。
+ * 提前关闭未读完的流会通知发送端取消。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreInboundStream extends InputStream {
+    private final int streamId;
+    private final CoreStreamRegistry registry;
+    private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+
+    private int buffered;
+    private int unacked;
+    private boolean finished;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * 构造函数。
+     *
+     * @param streamId 流 ID
+     * @param registry 所属的流注册表
+     */
+    CoreInboundStream(int streamId, CoreStreamRegistry registry) {
+        this.streamId = streamId;
+        this.registry = registry;
+    }
+
+    /**
+     * 获取流 ID。
+     *
+     * @return 流 ID
+     */
+    public int streamId() {
+        return streamId;
+    }
+
+    /**
+     * 追加一个分片。
+     *
+     * @param chunk 分片数据
+     * @param last 是否为最后一个分片
+     * @return 接收成功返回 true；超出接收窗口时流被置为失败并返回 false
+     */
+    synchronized boolean offer(ByteBuffer chunk, boolean last) {
+        if (closed || failure != null) {
+            return true;
+        }
+        int length = chunk.remaining();
+        if (buffered + length > CoreProtocol.STREAM_WINDOW_BYTES) {
+            failure = new IOException("流接收窗口溢出: streamId=" + streamId);
+            chunks.clear();
+            notifyAll();
+            return false;
+        }
+        if (length > 0) {
+            chunks.add(chunk);
+            buffered += length;
+        }
+        if (last) {
+            finished = true;
+        }
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * 以异常结束流，正在阻塞的读取方将收到该异常。
+     *
+     * @param error 异常对象
+     */
+    synchronized void fail(IOException error) {
+        if (!finished && failure == null) {
+            failure = error;
+            chunks.clear();
+            notifyAll();
+        }
+    }
+
+    @Override
+    /**
+     * 读取一个字节。
+     *
+     * @return 读取的字节，流结束时返回 -1
+     * @throws IOException 当流失败或读取被中断时抛出
+     */
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    /**
+     * 读取数据到数组中，在没有可用数据时阻塞。
+     *
+     * @param b 目标数组
+     * @param off 起始偏移
+     * @param len 最大读取长度
+     * @return 实际读取的字节数，流结束时返回 -1
+     * @throws IOException 当流失败或读取被中断时抛出
+     */
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n;
+        int credit = 0;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("流已关闭");
+            }
+            while (chunks.isEmpty() && !finished && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("读取流时被中断");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            ByteBuffer head = chunks.peek();
+            if (head == null) {
+                return -1;
+            }
+            n = Math.min(len, head.remaining());
+            head.get(b, off, n);
+            if (!head.hasRemaining()) {
+                chunks.poll();
+            }
+            buffered -= n;
+            unacked += n;
+            if (!finished && unacked >= CoreProtocol.STREAM_WINDOW_BYTES / 4) {
+                credit = unacked;
+                unacked = 0;
+            }
+        }
+        if (credit > 0) {
+            registry.sendCredit(streamId, credit, false);
+        }
+        return n;
+    }
+
+    @Override
+    /**
+     * 获取无需阻塞即可读取的字节数。
+     *
+     * @return 可读取字节数
+     */
+    public synchronized int available() {
+        return buffered;
+    }
+
+    @Override
+    /**
+     * 关闭流；未读完时通知发送端取消。
+     */
+    public void close() {
+        boolean cancel;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            cancel = !finished && failure == null;
+            chunks.clear();
+            buffered = 0;
+            notifyAll();
+        }
+        registry.removeInbound(streamId);
+        if (cancel) {
+            registry.sendCredit(streamId, 0, true);
+        }
+    }
+}
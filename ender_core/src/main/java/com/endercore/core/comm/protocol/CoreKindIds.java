@@ -0,0 +1,98 @@
+package com.endercore.core.comm.protocol;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * 可增长的消息种类编号表。
+ * 服务端使用它为全部连接分配全局唯一的 kind ID，客户端使用它保存协商得到的 ID。
+ * 读取无锁：ID 到 kind 的映射为写时复制数组，kind 到 ID 的映射为并发哈希表。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreKindIds implements CoreKindTable {
+    /**
+     * 允许分配的最大 ID 数量
+     */
+    public static final int MAX_IDS = 4096;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] kinds = new String[0];
+
+    @Override
+    /**
+     * 获取 kind 对应的数字 ID。
+     *
+     * @param kind 消息种类
+     * @return 数字 ID，未分配时返回 -1
+     */
+    public int idOf(String kind) {
+        Integer id = ids.get(kind);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    /**
+     * 获取数字 ID 对应的 kind。
+     *
+     * @param id 数字 ID
+     * @return 消息种类，未分配时返回 null
+     */
+    public String kindOf(int id) {
+        String[] k = kinds;
+        return id >= 0 && id < k.length ? k[id] : null;
+    }
+
+    /**
+     * 为 kind 分配 ID。
+     * 已分配的 kind 返回原 ID。
+     *
+     * @param kind 消息种类（需已通过校验）
+     * @return 数字 ID，编号表已满时返回 -1
+     */
+    public synchronized int assign(String kind) {
+        Integer existing = ids.get(kind);
+        if (existing != null) {
+            return existing;
+        }
+        String[] k = kinds;
+        if (k.length >= MAX_IDS) {
+            return -1;
+        }
+        String[] next = Arrays.copyOf(k, k.length + 1);
+        next[k.length] = kind.intern();
+        kinds = next;
+        ids.put(next[k.length], k.length);
+        return k.length;
+    }
+
+    /**
+     * 写入指定的 ID 映射（用于安装对端分配的 ID）。
+     *
+     * @param id 数字 ID
+     * @param kind 消息种类
+     * @throws IllegalArgumentException 当 ID 超出范围时抛出
+     */
+    public synchronized void put(int id, String kind) {
+        if (id < 0 || id >= MAX_IDS) {
+            throw new IllegalArgumentException("kind id 超出范围: " + id);
+        }
+        String[] k = kinds;
+        String[] next = Arrays.copyOf(k, Math.max(k.length, id + 1));
+        next[id] = kind.intern();
+        kinds = next;
+        ids.put(next[id], id);
+    }
+
+    /**
+     * 获取已分配的 ID 数量（即最大 ID + 1）。
+     *
+     * @return ID 数量
+     */
+    public int size() {
+        return kinds.length;
+    }
+}
@@ -0,0 +1,156 @@
+package com.endercore.core.comm.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * 消息种类字符串驻留表。
+ * 将帧中的 UTF-8 kind 字节直接与缓存项比较，命中时复用已有的 String 实例，避免每帧重复分配；
+ * 编码方向同样缓存 kind 的 UTF-8 字节，避免每次发送都重新编码。
+ * 采用固定大小的直接映射表，冲突时覆盖旧项；表项不可变，可在多线程间安全共享。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreKindInterner {
+    /**
+     * 表大小（必须为 2 的幂）
+     */
+    private static final int TABLE_SIZE = 256;
+
+    /**
+     * 可缓存的最大 kind 字节长度
+     */
+    private static final int MAX_CACHED_BYTES = 128;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final Entry[] TABLE = new Entry[TABLE_SIZE];
+
+    private static final Entry[] ENCODE_TABLE = new Entry[TABLE_SIZE];
+
+    /**
+     * 私有构造函数，防止实例化。
+     */
+    private CoreKindInterner() {
+    }
+
+    /**
+     * 解析 kind 字节为字符串。
+     * 不修改 bytes 的 position 和 limit。
+     *
+     * @param bytes kind 字节（position 到 limit 之间）
+     * @return kind 字符串
+     */
+    static String resolve(ByteBuffer bytes) {
+        int len = bytes.remaining();
+        if (len == 0) {
+            return "";
+        }
+        if (len > MAX_CACHED_BYTES) {
+            return decode(bytes);
+        }
+        int hash = hash(bytes);
+        int idx = (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+        Entry e = TABLE[idx];
+        if (e != null && e.hash == hash && e.matches(bytes)) {
+            return e.kind;
+        }
+        String kind = decode(bytes).intern();
+        byte[] copy = new byte[len];
+        bytes.get(bytes.position(), copy);
+        TABLE[idx] = new Entry(hash, copy, kind);
+        return kind;
+    }
+
+    /**
+     * 获取 kind 的 UTF-8 编码字节。
+     * 返回的数组可能被共享，调用方不得修改。
+     *
+     * @param kind kind 字符串
+     * @return UTF-8 字节
+     */
+    static byte[] encode(String kind) {
+        if (kind.isEmpty()) {
+            return EMPTY;
+        }
+        int hash = kind.hashCode();
+        int idx = (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+        Entry e = ENCODE_TABLE[idx];
+        if (e != null && e.hash == hash && (e.kind == kind || e.kind.equals(kind))) {
+            return e.bytes;
+        }
+        byte[] bytes = kind.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_CACHED_BYTES) {
+            ENCODE_TABLE[idx] = new Entry(hash, bytes, kind);
+        }
+        return bytes;
+    }
+
+    /**
+     * 计算字节内容的哈希值。
+     *
+     * @param bytes 字节缓冲区
+     * @return 哈希值
+     */
+    private static int hash(ByteBuffer bytes) {
+        int h = 1;
+        for (int i = bytes.position(), end = bytes.limit(); i < end; i++) {
+            h = 31 * h + bytes.get(i);
+        }
+        return h;
+    }
+
+    /**
+     * 以 UTF-8 解码字节内容。
+     *
+     * @param bytes 字节缓冲区
+     * @return 解码后的字符串
+     */
+    private static String decode(ByteBuffer bytes) {
+        return StandardCharsets.UTF_8.decode(bytes.duplicate()).toString();
+    }
+
+    /**
+     * 驻留表项。
+     */
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final String kind;
+
+        /**
+         * 构造函数。
+         *
+         * @param hash 哈希值
+         * @param bytes kind 字节
+         * @param kind kind 字符串
+         */
+        private Entry(int hash, byte[] bytes, String kind) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.kind = kind;
+        }
+
+        /**
+         * 检查缓冲区内容是否与本表项一致。
+         *
+         * @param other 字节缓冲区
+         * @return 一致返回 true，否则返回 false
+         */
+        private boolean matches(ByteBuffer other) {
+            if (other.remaining() != bytes.length) {
+                return false;
+            }
+            int base = other.position();
+            for (int i = 0; i < bytes.length; i++) {
+                if (other.get(base + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.endercore.core.comm.protocol;
+
+
+/**
+ * 消息种类编号表接口。
+ * 用于在协商后以紧凑的数字 ID 替代 namespace:path 字符串传输 kind。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CoreKindTable {
+    /**
+     * 获取 kind 对应的数字 ID。
+     *
+     * @param kind 消息种类
+     * @return 数字 ID，未分配时返回 -1
+     */
+    int idOf(String kind);
+
+    /**
+     * 获取数字 ID 对应的 kind。
+     *
+     * @param id 数字 ID
+     * @return 消息种类，未分配时返回 null
+     */
+    String kindOf(int id);
+}
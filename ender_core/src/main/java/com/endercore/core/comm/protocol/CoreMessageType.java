@@ -3,7 +3,7 @@ package com.endercore.core.comm.protocol;
  
 /**
  * 消息类型枚举。
- * 定义了 Core 协议支持的四种消息类型：请求、响应、事件和心跳。
+ * 定义了 Core 协议支持的消息类型：请求、响应、事件、心跳、批量帧以及流分片控制。
  *
  * @author Ender Developer
  * @version 1.0
@@ -28,7 +28,25 @@ public enum CoreMessageType {
     /**
      * 心跳消息
      */
-    HEARTBEAT((byte) 3);
+    HEARTBEAT((byte) 3),
+
+    /**
+     * 批量消息。
+     * 负载由若干 Length(VarInt) + 完整帧 组成，仅在协商为紧凑协议的连接上发送。
+     */
+    BATCH((byte) 4),
+
+    /**
+     * 流的后续分片。
+     * 负载为 StreamId(VarInt) + 数据，设置 {@link CoreProtocol#FLAG_MORE} 表示还有后续分片。
+     */
+    STREAM_DATA((byte) 5),
+
+    /**
+     * 流的接收信用。
+     * 负载为 StreamId(VarInt) + Credit(VarInt)；状态码非 0 表示接收端已取消该流。
+     */
+    STREAM_CREDIT((byte) 6);
 
     private final byte code;
 
@@ -25,12 +25,89 @@ public final class CoreProtocol {
      */
     public static final byte VERSION = 1;
 
+    /**
+     * 紧凑协议版本号。
+     * 头部字段以 VarInt 编码，并可通过标志位省略为 0 或为空的字段；需经握手协商后使用。
+     */
+    public static final byte VERSION_COMPACT = 2;
+
+    /**
+     * 本端支持的最高协议版本号
+     */
+    public static final byte MAX_VERSION = VERSION_COMPACT;
+
     /**
      * 协议头长度
      * 2(Magic) + 1(Version) + 1(Type) + 1(Flags) + 1(Status) + 8(RequestId) + 2(KindLen) + 4(PayloadLen)
      */
     public static final int HEADER_BYTES = 2 + 1 + 1 + 1 + 1 + 8 + 2 + 4;
 
+    /**
+     * 紧凑协议头最小长度
+     * 2(Magic) + 1(Version) + 1(Type) + 1(Flags)
+     */
+    public static final int COMPACT_HEADER_MIN_BYTES = 2 + 1 + 1 + 1;
+
+    /**
+     * 标志位：kind 段为协商得到的 VarInt 数字 ID，而非 UTF-8 字符串
+     */
+    public static final byte FLAG_KIND_ID = 0x01;
+
+    /**
+     * 紧凑协议标志位：携带状态码（未设置时状态码为 0）
+     */
+    public static final byte FLAG_HAS_STATUS = 0x02;
+
+    /**
+     * 紧凑协议标志位：携带 VarInt 请求 ID（未设置时请求 ID 为 0）
+     */
+    public static final byte FLAG_HAS_REQUEST_ID = 0x04;
+
+    /**
+     * 紧凑协议标志位：携带字符串 kind（与 FLAG_KIND_ID 均未设置时 kind 为空）
+     */
+    public static final byte FLAG_HAS_KIND = 0x08;
+
+    /**
+     * 标志位：负载已压缩。
+     * 负载格式为 Algorithm(1) + RawLength(VarInt) + 压缩数据；仅在协商为紧凑协议的连接上发送。
+     */
+    public static final byte FLAG_COMPRESSED = 0x10;
+
+    /**
+     * 标志位：流的首个分片。
+     * 负载以 StreamId(VarInt) 开头，其后为第一段数据；后续分片以 {@link CoreMessageType#STREAM_DATA} 发送。
+     */
+    public static final byte FLAG_STREAM = 0x20;
+
+    /**
+     * 标志位：同一流还有后续分片
+     */
+    public static final byte FLAG_MORE = 0x40;
+
+    /**
+     * 单个流的接收窗口（字节）。
+     * 发送端未收到信用前最多发送这么多数据；接收端缓冲超过该值视为违规并取消该流。
+     */
+    public static final int STREAM_WINDOW_BYTES = 1024 * 1024;
+
+    /**
+     * 由编解码器根据帧内容维护的标志位，写入时会被重新计算
+     */
+    public static final byte CODEC_FLAGS = FLAG_KIND_ID | FLAG_HAS_STATUS | FLAG_HAS_REQUEST_ID | FLAG_HAS_KIND | FLAG_COMPRESSED;
+
+    /**
+     * 协议握手请求类型。
+     * 用于协商协议版本与 kind 数字 ID；对端未实现时按原协议继续通信。
+     */
+    public static final String KIND_HANDSHAKE = "c:protocol_v2";
+
+    /**
+     * 过载响应状态码。
+     * 服务端对应命名空间的请求处理队列已满时立即以此状态回复，请求未被处理，客户端可稍后重试。
+     */
+    public static final int STATUS_OVERLOADED = 254;
+
     /**
      * 私有构造函数，防止实例化。
      */
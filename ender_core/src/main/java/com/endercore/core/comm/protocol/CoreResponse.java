@@ -1,11 +1,16 @@
 package com.endercore.core.comm.protocol;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
  
 /**
  * 核心响应对象。
  * 封装了 WebSocket 响应的相关信息。
+ * 负载既可以是完整的字节数组，也可以是以分片流传输的 {@link InputStream}（见 {@link #streamed}）。
  *
  * @author Ender Developer
  * @version 1.0
@@ -32,6 +37,11 @@ public final class CoreResponse {
      */
     private final byte[] payload;
 
+    /**
+     * 分片流负载，非流式响应时为 null
+     */
+    private final InputStream body;
+
     /**
      * 构造函数。
      *
@@ -45,6 +55,38 @@ public final class CoreResponse {
         this.requestId = requestId;
         this.kind = kind;
         this.payload = payload == null ? new byte[0] : payload;
+        this.body = null;
+    }
+
+    /**
+     * 构造函数（流式负载）。
+     *
+     * @param status 响应状态码
+     * @param requestId 关联的请求 ID
+     * @param kind 响应类型
+     * @param body 流式负载
+     */
+    private CoreResponse(int status, long requestId, String kind, InputStream body) {
+        this.status = status;
+        this.requestId = requestId;
+        this.kind = kind;
+        this.payload = new byte[0];
+        this.body = body;
+    }
+
+    /**
+     * 创建以分片流传输负载的响应。
+     * 发送端逐段读取 body 并发送，发送完成后关闭 body；接收端通过 {@link #body()} 边接收边读取。
+     * 对端未协商紧凑协议时，负载会被完整读入并以普通帧发送，此时仍受最大帧大小限制。
+     *
+     * @param status 响应状态码
+     * @param requestId 关联的请求 ID
+     * @param kind 响应类型
+     * @param body 流式负载
+     * @return 响应对象
+     */
+    public static CoreResponse streamed(int status, long requestId, String kind, InputStream body) {
+        return new CoreResponse(status, requestId, kind, Objects.requireNonNull(body, "body"));
     }
 
     /**
@@ -76,6 +118,7 @@ public final class CoreResponse {
 
     /**
      * 获取响应负载。
+     * 流式响应的负载为空数组，应改用 {@link #body()} 读取。
      *
      * @return 响应负载
      */
@@ -83,6 +126,34 @@ public final class CoreResponse {
         return payload;
     }
 
+    /**
+     * 获取负载的只读视图，不复制数据。
+     *
+     * @return 负载只读缓冲区
+     */
+    public ByteBuffer payloadBuffer() {
+        return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+    }
+
+    /**
+     * 检查负载是否以分片流传输。
+     *
+     * @return 流式响应返回 true，否则返回 false
+     */
+    public boolean isStreamed() {
+        return body != null;
+    }
+
+    /**
+     * 获取负载输入流。
+     * 流式响应返回分片流（读取时可能阻塞，读完或不再需要时应关闭）；否则返回基于字节数组的输入流。
+     *
+     * @return 负载输入流
+     */
+    public InputStream body() {
+        return body != null ? body : new ByteArrayInputStream(payload);
+    }
+
     /**
      * 检查是否成功。
      *
@@ -0,0 +1,333 @@
+package com.endercore.core.comm.protocol;
+
+import com.endercore.core.comm.exception.CoreProtocolException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+/**
+ * 单连接的分片流注册表。
+ * 负责将大负载拆分为不超过分片大小的帧发送，并按流 ID 重组接收到的分片。
+ * 每个流受 {@link CoreProtocol#STREAM_WINDOW_BYTES} 信用窗口约束，同时接收的流数量有上限，
+ * 因此单连接用于缓冲流数据的内存不超过 maxInbound * STREAM_WINDOW_BYTES。
+ * 仅在协商为紧凑协议的连接上使用。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreStreamRegistry {
+    private final int maxInbound;
+    private final Consumer<CoreFrame> writer;
+    private final ConcurrentHashMap<Integer, CoreInboundStream> inbound = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Outbound> outbound = new ConcurrentHashMap<>();
+    private final AtomicInteger streamIdSeq = new AtomicInteger(1);
+
+    private volatile boolean closed;
+
+    /**
+     * 构造函数。
+     *
+     * @param maxInbound 同时接收的最大流数量
+     * @param writer 编码并发送帧的回调（分片与信用帧均经由此发送）
+     */
+    public CoreStreamRegistry(int maxInbound, Consumer<CoreFrame> writer) {
+        if (maxInbound <= 0) {
+            throw new IllegalArgumentException("maxInbound <= 0: " + maxInbound);
+        }
+        this.maxInbound = maxInbound;
+        this.writer = writer;
+    }
+
+    /**
+     * 根据设置了 {@link CoreProtocol#FLAG_STREAM} 的首个分片打开接收流。
+     *
+     * @param frame 首个分片帧
+     * @return 接收流
+     * @throws CoreProtocolException 当流 ID 重复、超过并发上限或格式非法时抛出
+     */
+    public CoreInboundStream openInbound(CoreFrameView frame) {
+        ByteBuffer payload = frame.payloadBuffer();
+        int streamId = readStreamId(payload);
+        if (closed) {
+            throw new CoreProtocolException("连接已关闭");
+        }
+        if (inbound.size() >= maxInbound) {
+            throw new CoreProtocolException("并发接收流过多: " + maxInbound);
+        }
+        CoreInboundStream stream = new CoreInboundStream(streamId, this);
+        if (inbound.putIfAbsent(streamId, stream) != null) {
+            throw new CoreProtocolException("流 ID 重复: " + streamId);
+        }
+        deliver(stream, payload, (frame.flags() & CoreProtocol.FLAG_MORE) == 0);
+        return stream;
+    }
+
+    /**
+     * 处理 {@link CoreMessageType#STREAM_DATA} 分片。
+     * 已取消或未知的流的分片会被丢弃；状态码非 0 表示发送端中止，接收流以异常结束。
+     *
+     * @param frame 分片帧
+     * @throws CoreProtocolException 当格式非法时抛出
+     */
+    public void onData(CoreFrameView frame) {
+        ByteBuffer payload = frame.payloadBuffer();
+        CoreInboundStream stream = inbound.get(readStreamId(payload));
+        if (stream == null) {
+            return;
+        }
+        if (frame.status() != 0) {
+            inbound.remove(stream.streamId());
+            stream.fail(new IOException("发送端已中止流: streamId=" + stream.streamId()));
+            return;
+        }
+        deliver(stream, payload, (frame.flags() & CoreProtocol.FLAG_MORE) == 0);
+    }
+
+    /**
+     * 处理 {@link CoreMessageType#STREAM_CREDIT} 帧。
+     *
+     * @param frame 信用帧
+     * @throws CoreProtocolException 当格式非法时抛出
+     */
+    public void onCredit(CoreFrameView frame) {
+        ByteBuffer payload = frame.payloadBuffer();
+        Outbound out = outbound.get(readStreamId(payload));
+        if (out == null) {
+            return;
+        }
+        if (frame.status() != 0) {
+            out.cancel();
+            return;
+        }
+        int credit = CoreVarInt.read(payload);
+        if (credit < 0) {
+            throw new CoreProtocolException("流信用非法: " + credit);
+        }
+        out.grant(credit);
+    }
+
+    /**
+     * 以分片流发送数据。
+     * 在调用线程中逐段读取 body 并发送，信用不足时阻塞等待；body 不会被关闭。
+     * 首个分片发出后若发送失败，会通知对端中止该流。
+     *
+     * @param head 首个分片使用的帧（类型、状态码、请求 ID 与 kind），其负载被忽略
+     * @param body 数据来源
+     * @param chunkBytes 每个分片的最大数据长度
+     * @param stallTimeoutNanos 等待信用的最长时间（纳秒）
+     * @throws IOException 当读取 body 失败、对端取消、等待超时或连接关闭时抛出
+     */
+    public void send(CoreFrame head, InputStream body, int chunkBytes, long stallTimeoutNanos) throws IOException {
+        if (chunkBytes <= 0 || chunkBytes > CoreProtocol.STREAM_WINDOW_BYTES) {
+            throw new IllegalArgumentException("chunkBytes 非法: " + chunkBytes);
+        }
+        int streamId = streamIdSeq.getAndIncrement() & Integer.MAX_VALUE;
+        Outbound out = new Outbound();
+        outbound.put(streamId, out);
+        boolean first = true;
+        try {
+            int prefix = CoreVarInt.size(streamId);
+            byte[] chunk = readChunk(body, streamId, prefix, chunkBytes);
+            while (true) {
+                boolean eof = chunk.length - prefix < chunkBytes;
+                byte[] next = eof ? null : readChunk(body, streamId, prefix, chunkBytes);
+                boolean more = next != null && next.length > prefix;
+                if (closed) {
+                    throw new IOException("连接已关闭");
+                }
+                out.acquire(chunk.length - prefix, stallTimeoutNanos);
+                byte flags = more ? CoreProtocol.FLAG_MORE : 0;
+                if (first) {
+                    writer.accept(new CoreFrame(head.type(), (byte) (head.flags() | CoreProtocol.FLAG_STREAM | flags),
+                            head.status(), head.requestId(), head.kind(), chunk));
+                    first = false;
+                } else {
+                    writer.accept(new CoreFrame(CoreMessageType.STREAM_DATA, flags, 0, 0, "", chunk));
+                }
+                if (!more) {
+                    return;
+                }
+                chunk = next;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!first) {
+                abort(streamId);
+            }
+            throw e;
+        } finally {
+            outbound.remove(streamId);
+        }
+    }
+
+    /**
+     * 关闭注册表：所有接收流以异常结束，所有发送流被取消。
+     */
+    public void closeAll() {
+        closed = true;
+        IOException error = new IOException("连接已关闭");
+        for (CoreInboundStream stream : inbound.values()) {
+            stream.fail(error);
+        }
+        inbound.clear();
+        for (Outbound out : outbound.values()) {
+            out.cancel();
+        }
+        outbound.clear();
+    }
+
+    /**
+     * 向发送端归还信用或通知取消。
+     *
+     * @param streamId 流 ID
+     * @param credit 归还的字节数
+     * @param cancel 是否取消
+     */
+    void sendCredit(int streamId, int credit, boolean cancel) {
+        if (closed) {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(CoreVarInt.size(streamId) + CoreVarInt.size(credit));
+        CoreVarInt.write(buf, streamId);
+        CoreVarInt.write(buf, credit);
+        try {
+            writer.accept(new CoreFrame(CoreMessageType.STREAM_CREDIT, (byte) 0, cancel ? 1 : 0, 0, "", buf.array()));
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    /**
+     * 通知接收端中止流。
+     *
+     * @param streamId 流 ID
+     */
+    private void abort(int streamId) {
+        if (closed) {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(CoreVarInt.size(streamId));
+        CoreVarInt.write(buf, streamId);
+        try {
+            writer.accept(new CoreFrame(CoreMessageType.STREAM_DATA, (byte) 0, 1, 0, "", buf.array()));
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    /**
+     * 移除接收流。
+     *
+     * @param streamId 流 ID
+     */
+    void removeInbound(int streamId) {
+        inbound.remove(streamId);
+    }
+
+    /**
+     * 将分片交给接收流；流结束或溢出时从注册表移除。
+     *
+     * @param stream 接收流
+     * @param data 分片数据
+     * @param last 是否为最后一个分片
+     */
+    private void deliver(CoreInboundStream stream, ByteBuffer data, boolean last) {
+        if (!stream.offer(data, last)) {
+            inbound.remove(stream.streamId());
+            sendCredit(stream.streamId(), 0, true);
+        } else if (last) {
+            inbound.remove(stream.streamId());
+        }
+    }
+
+    /**
+     * 读取流 ID。
+     *
+     * @param payload 分片负载，读取后 position 位于数据起始处
+     * @return 流 ID
+     */
+    private static int readStreamId(ByteBuffer payload) {
+        try {
+            return CoreVarInt.read(payload);
+        } catch (BufferUnderflowException e) {
+            throw new CoreProtocolException("流分片格式非法", e);
+        }
+    }
+
+    /**
+     * 读取一个分片，结果数组以流 ID 开头。
+     *
+     * @param body 数据来源
+     * @param streamId 流 ID
+     * @param prefix 流 ID 的编码长度
+     * @param chunkBytes 分片最大数据长度
+     * @return 分片负载
+     * @throws IOException 当读取失败时抛出
+     */
+    private static byte[] readChunk(InputStream body, int streamId, int prefix, int chunkBytes) throws IOException {
+        byte[] buf = new byte[prefix + chunkBytes];
+        CoreVarInt.write(ByteBuffer.wrap(buf), streamId);
+        int n = body.readNBytes(buf, prefix, chunkBytes);
+        return n == chunkBytes ? buf : Arrays.copyOf(buf, prefix + n);
+    }
+
+    /**
+     * 发送流的信用状态。
+     */
+    private static final class Outbound {
+        private long credit = CoreProtocol.STREAM_WINDOW_BYTES;
+        private boolean cancelled;
+
+        /**
+         * 扣减信用，不足时等待。
+         *
+         * @param bytes 需要的字节数
+         * @param timeoutNanos 最长等待时间（纳秒）
+         * @throws IOException 当对端取消、等待超时或被中断时抛出
+         */
+        private synchronized void acquire(int bytes, long timeoutNanos) throws IOException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (credit < bytes && !cancelled) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IOException("等待流信用超时");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待流信用时被中断");
+                }
+            }
+            if (cancelled) {
+                throw new IOException("对端已取消流");
+            }
+            credit -= bytes;
+        }
+
+        /**
+         * 增加信用。
+         *
+         * @param bytes 字节数
+         */
+        private synchronized void grant(int bytes) {
+            credit += bytes;
+            notifyAll();
+        }
+
+        /**
+         * 取消发送。
+         */
+        private synchronized void cancel() {
+            cancelled = true;
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.endercore.core.comm.protocol;
+
+import com.endercore.core.comm.exception.CoreProtocolException;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * VarInt 编解码工具类。
+ * 使用 LEB128 无符号编码，每字节低 7 位存放数据，最高位表示是否还有后续字节。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CoreVarInt {
+    /**
+     * 私有构造函数，防止实例化。
+     */
+    private CoreVarInt() {
+    }
+
+    /**
+     * 计算 int 值编码后的字节数。
+     *
+     * @param value 非负整数值
+     * @return 编码字节数（1-5）
+     */
+    public static int size(int value) {
+        int v = value;
+        int n = 1;
+        while ((v & 0xFFFFFF80) != 0) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * 写入 int 值。
+     *
+     * @param out 目标缓冲区
+     * @param value 整数值
+     */
+    public static void write(ByteBuffer out, int value) {
+        int v = value;
+        while ((v & 0xFFFFFF80) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) (v & 0x7F));
+    }
+
+    /**
+     * 读取 int 值。
+     *
+     * @param in 输入缓冲区
+     * @return 整数值
+     * @throws CoreProtocolException 当编码超过 5 字节或数据不足时抛出
+     */
+    public static int read(ByteBuffer in) {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new CoreProtocolException("VarInt 数据不足");
+            }
+            byte b = in.get();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new CoreProtocolException("VarInt 过长");
+    }
+
+    /**
+     * 计算 long 值编码后的字节数。
+     *
+     * @param value 整数值（按无符号处理）
+     * @return 编码字节数（1-10）
+     */
+    public static int sizeLong(long value) {
+        long v = value;
+        int n = 1;
+        while ((v & 0xFFFFFFFFFFFFFF80L) != 0) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * 写入 long 值。
+     *
+     * @param out 目标缓冲区
+     * @param value 整数值（按无符号处理）
+     */
+    public static void writeLong(ByteBuffer out, long value) {
+        long v = value;
+        while ((v & 0xFFFFFFFFFFFFFF80L) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) (v & 0x7F));
+    }
+
+    /**
+     * 读取 long 值。
+     *
+     * @param in 输入缓冲区
+     * @return 整数值
+     * @throws CoreProtocolException 当编码超过 10 字节或数据不足时抛出
+     */
+    public static long readLong(ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new CoreProtocolException("VarLong 数据不足");
+            }
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new CoreProtocolException("VarLong 过长");
+    }
+}
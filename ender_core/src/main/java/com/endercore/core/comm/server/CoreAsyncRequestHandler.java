@@ -0,0 +1,28 @@
+package com.endercore.core.comm.server;
+
+import com.endercore.core.comm.protocol.CoreResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+ 
+/**
+ * 核心异步请求处理器接口。
+ * 与 {@link CoreRequestHandler} 不同，本处理器在网络线程中被直接调用，只负责发起处理并立即返回 Future，
+ * 响应在 Future 完成时发送，等待期间不占用任何线程。适合等待外部 I/O 的请求（例如查询其他服务器的状态）。
+ * 实现不得在 {@link #handleAsync(CoreRequest)} 中阻塞；需要阻塞的处理应使用 {@link CoreRequestHandler}。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface CoreAsyncRequestHandler {
+    /**
+     * 异步处理请求。
+     *
+     * @param request 请求对象
+     * @return 响应 Future；以异常完成时向对端返回错误响应
+     * @throws Exception 当无法发起处理时抛出
+     */
+    CompletableFuture<CoreResponse> handleAsync(CoreRequest request) throws Exception;
+}
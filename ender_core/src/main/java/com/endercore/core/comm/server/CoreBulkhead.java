@@ -0,0 +1,99 @@
+package com.endercore.core.comm.server;
+
+import com.endercore.core.comm.monitor.ConnectionMetrics;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+
+/**
+ * 请求处理隔离舱。
+ * 限制一个请求命名空间同时处理的请求数；超出的请求进入定长等待队列，队列已满时拒绝。
+ * 许可在请求处理完成（异步处理器的 Future 完成）时归还，并把队首的请求提交到执行器中开始处理，
+ * 不在归还许可的线程中直接执行，避免同步完成的处理器形成递归。
+ * 任务执行时得知自己是否已在执行器中，同步处理器据此直接执行，不再额外切换线程。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreBulkhead {
+    private final Executor executor;
+    private final ConnectionMetrics metrics;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final ArrayDeque<Task> queue = new ArrayDeque<>();
+    private int running;
+
+    /**
+     * 构造函数。
+     *
+     * @param executor 开始处理排队请求的执行器
+     * @param metrics 连接指标
+     * @param maxConcurrency 最大并发处理数，不大于 0 表示不限制
+     * @param queueCapacity 等待队列容量
+     */
+    CoreBulkhead(Executor executor, ConnectionMetrics metrics, int maxConcurrency, int queueCapacity) {
+        this.executor = executor;
+        this.metrics = metrics;
+        this.maxConcurrency = maxConcurrency <= 0 ? Integer.MAX_VALUE : maxConcurrency;
+        this.queueCapacity = Math.max(0, queueCapacity);
+    }
+
+    /**
+     * 提交一个请求的处理。
+     * 有空闲许可时在当前线程立即执行；否则进入等待队列，之后在执行器中执行。任务完成处理后必须调用 {@link #release()}。
+     *
+     * @param task 处理任务
+     * @param onExecutor 当前线程是否已在执行器中
+     * @return 已执行或已排队返回 true；队列已满返回 false
+     */
+    boolean submit(Task task, boolean onExecutor) {
+        synchronized (queue) {
+            if (running >= maxConcurrency) {
+                if (queue.size() >= queueCapacity) {
+                    metrics.onHandlerRejected();
+                    return false;
+                }
+                queue.add(task);
+                metrics.onHandlerQueued();
+                return true;
+            }
+            running++;
+        }
+        task.run(onExecutor);
+        return true;
+    }
+
+    /**
+     * 归还许可；有排队的请求时把许可直接交给队首请求。
+     */
+    void release() {
+        Task next;
+        synchronized (queue) {
+            next = queue.poll();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        metrics.onHandlerDequeued();
+        try {
+            executor.execute(() -> next.run(true));
+        } catch (RuntimeException e) {
+            next.run(false);
+        }
+    }
+
+    /**
+     * 隔离舱中的处理任务。
+     */
+    interface Task {
+        /**
+         * 执行任务。
+         *
+         * @param onExecutor 是否在执行器线程中执行
+         */
+        void run(boolean onExecutor);
+    }
+}
@@ -0,0 +1,160 @@
+package com.endercore.core.comm.server;
+
+import com.endercore.core.comm.protocol.CoreFrameBatcher;
+import com.endercore.core.comm.protocol.CoreKindIds;
+import com.endercore.core.comm.protocol.CoreKindTable;
+import com.endercore.core.comm.protocol.CoreProtocol;
+import com.endercore.core.comm.protocol.CoreStreamRegistry;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+
+/**
+ * 服务端单连接上下文。
+ * 作为 WebSocket 连接的附件保存，记录该连接已协商的协议版本、kind ID、帧合并器、分片流、串行通道以及发送队列闸门。
+ * 作为编码用的编号表时，仅返回对端已知的 ID，其余 kind 仍以字符串发送。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreConnectionContext implements CoreKindTable {
+    private final CoreKindIds registry;
+    private final CoreStreamRegistry streams;
+    private final CoreSerialLane lane;
+    private final CoreOutboundGate gate;
+    private volatile long[] knownIds = new long[0];
+    private volatile int version = CoreProtocol.VERSION;
+    private volatile CoreFrameBatcher batcher;
+
+    /**
+     * 构造函数。
+     *
+     * @param registry 服务端全局 kind 编号表
+     * @param streams 该连接的分片流注册表
+     * @param lane 该连接的串行通道，未启用单连接串行处理时为 null
+     * @param gate 该连接的发送队列闸门，未启用慢消费检测时为 null
+     */
+    CoreConnectionContext(CoreKindIds registry, CoreStreamRegistry streams, CoreSerialLane lane, CoreOutboundGate gate) {
+        this.registry = registry;
+        this.streams = streams;
+        this.lane = lane;
+        this.gate = gate;
+    }
+
+    /**
+     * 获取该连接的分片流注册表。
+     *
+     * @return 分片流注册表
+     */
+    CoreStreamRegistry streams() {
+        return streams;
+    }
+
+    /**
+     * 获取该连接的串行通道。
+     *
+     * @return 串行通道，未启用单连接串行处理时返回 null
+     */
+    CoreSerialLane lane() {
+        return lane;
+    }
+
+    /**
+     * 获取该连接的发送队列闸门。
+     *
+     * @return 发送队列闸门，未启用慢消费检测时返回 null
+     */
+    CoreOutboundGate gate() {
+        return gate;
+    }
+
+    /**
+     * 获取发往该连接的帧所使用的协议版本。
+     *
+     * @return 协议版本
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * 设置已协商的协议版本。
+     *
+     * @param version 协议版本
+     */
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * 获取该连接的帧合并器。
+     *
+     * @return 帧合并器，未启用合并时返回 null
+     */
+    CoreFrameBatcher batcher() {
+        return batcher;
+    }
+
+    /**
+     * 设置该连接的帧合并器。
+     *
+     * @param batcher 帧合并器
+     */
+    void setBatcher(CoreFrameBatcher batcher) {
+        this.batcher = batcher;
+    }
+
+    /**
+     * 记录对端已接收的 kind ID。
+     *
+     * @param ids kind ID 集合
+     */
+    synchronized void addKnownIds(Collection<Integer> ids) {
+        int max = -1;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        long[] next = Arrays.copyOf(knownIds, Math.max(knownIds.length, (max >> 6) + 1));
+        for (int id : ids) {
+            next[id >> 6] |= 1L << (id & 63);
+        }
+        knownIds = next;
+    }
+
+    /**
+     * 检查对端是否已知指定的 kind ID。
+     *
+     * @param id kind ID
+     * @return 已知返回 true，否则返回 false
+     */
+    boolean knows(int id) {
+        long[] bits = knownIds;
+        int word = id >> 6;
+        return id >= 0 && word < bits.length && (bits[word] & (1L << (id & 63))) != 0;
+    }
+
+    @Override
+    /**
+     * 获取 kind 对应的数字 ID（仅限对端已知的 ID）。
+     *
+     * @param kind 消息种类
+     * @return 数字 ID，对端未知时返回 -1
+     */
+    public int idOf(String kind) {
+        int id = registry.idOf(kind);
+        return knows(id) ? id : -1;
+    }
+
+    @Override
+    /**
+     * 获取数字 ID 对应的 kind。
+     *
+     * @param id 数字 ID
+     * @return 消息种类，未分配时返回 null
+     */
+    public String kindOf(int id) {
+        return registry.kindOf(id);
+    }
+}
@@ -3,15 +3,22 @@ package com.endercore.core.comm.server;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.EOFException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+import com.endercore.core.comm.protocol.CoreBinaryReader;
+import com.endercore.core.comm.protocol.CoreBinaryWriter;
 import com.endercore.core.comm.protocol.CoreResponse;
 
 /**
@@ -23,6 +30,16 @@ import com.endercore.core.comm.protocol.CoreResponse;
  * @since 1.0
  */
 public final class CoreMinecraft {
+    /**
+     * 读取缓冲区初始大小（字节）
+     */
+    private static final int INITIAL_READ_BYTES = 4096;
+
+    /**
+     * 单个数据包的最大长度（字节）
+     */
+    private static final int MAX_PACKET_BYTES = 2 * 1024 * 1024;
+
     /**
      * 私有构造函数，防止实例化。
      */
@@ -31,49 +48,46 @@ public final class CoreMinecraft {
 
     /**
      * 在 CoreWebSocketServer 上注册 Minecraft 查询服务。
-     * 注册 "mc:query_status" 请求处理器。
+     * 注册 "mc:query_status" 异步请求处理器。
+     * 查询使用异步套接字通道，等待目标服务器响应期间不占用线程，任意数量的并发查询只使用 JDK 默认异步通道组的少量线程。
+     * 异步处理器在网络线程中被调用，因此主机名解析（可能阻塞）转到服务器的处理器执行器中进行。
      *
      * @param server CoreWebSocketServer 实例
      */
     public static void install(CoreWebSocketServer server) {
         Objects.requireNonNull(server, "server");
-        server.register("mc:query_status", CoreMinecraft::queryStatus);
+        Executor resolver = server.handlerExecutor();
+        server.registerAsync("mc:query_status", req -> queryStatus(req, resolver));
     }
 
     /**
      * 处理状态查询请求。
-     * 解析请求参数，查询 Minecraft 服务器状态，并返回 JSON 响应和延迟。
+     * 解析请求参数，异步查询 Minecraft 服务器状态，并返回 JSON 响应和延迟。
      *
      * @param req 核心请求对象
-     * @return 核心响应对象
-     * @throws Exception 当查询失败时抛出
+     * @param resolver 执行主机名解析的执行器
+     * @return 响应 Future，总是正常完成
      */
-    private static CoreResponse queryStatus(CoreRequest req) throws Exception {
+    private static CompletableFuture<CoreResponse> queryStatus(CoreRequest req, Executor resolver) {
         QueryArgs args;
         try {
             args = parseArgs(req.payload());
         } catch (Exception e) {
-            return error(req, 1, "invalid payload");
+            return CompletableFuture.completedFuture(error(req, 1, "invalid payload"));
         }
 
         long pingId = System.nanoTime();
-        String json;
-        long latencyMillis;
-        try {
-            QueryResult r = ping(args.host, args.port, args.timeoutMillis, pingId);
-            json = r.json;
-            latencyMillis = r.latencyMillis;
-        } catch (Exception e) {
-            return error(req, 2, String.valueOf(e));
-        }
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(baos);
-        out.writeInt((int) Math.min(Math.max(latencyMillis, 0), Integer.MAX_VALUE));
-        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
-        out.writeInt(bytes.length);
-        out.write(bytes);
-        return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
+        return ping(args.host, args.port, args.timeoutMillis, pingId, resolver).handle((r, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                return error(req, 2, String.valueOf(cause));
+            }
+            try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+                out.writeInt((int) Math.min(Math.max(r.latencyMillis, 0), Integer.MAX_VALUE));
+                out.writeInt(CoreBinaryWriter.utf8Length(r.json)).writeUtf8(r.json);
+                return new CoreResponse(0, req.requestId(), req.kind(), out.toByteArray());
+            }
+        });
     }
 
     /**
@@ -156,14 +170,12 @@ public final class CoreMinecraft {
      */
     private static QueryArgs tryParseBinary(byte[] payload) {
         try {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            CoreBinaryReader in = new CoreBinaryReader(ByteBuffer.wrap(payload));
             int hostLen = in.readUnsignedShort();
             if (hostLen <= 0 || hostLen > 1024 || payload.length < 2 + hostLen + 2 + 4) {
                 return null;
             }
-            byte[] hostBytes = new byte[hostLen];
-            in.readFully(hostBytes);
-            String host = new String(hostBytes, StandardCharsets.UTF_8).trim();
+            String host = in.readUtf8(hostLen).trim();
             int port = in.readUnsignedShort();
             long timeoutMillis = Integer.toUnsignedLong(in.readInt());
             if (port == 0) {
@@ -183,77 +195,78 @@ public final class CoreMinecraft {
 
     /**
      * 执行 Minecraft 服务器状态 Ping 操作。
+     * 整个查询（主机名解析、连接、握手、状态与 Ping/Pong）共用一个截止时间，超时后关闭通道，未完成的读写随之失败。
      *
      * @param host 主机名
      * @param port 端口
      * @param timeoutMillis 超时时间
      * @param pingId Ping ID
-     * @return 查询结果
-     * @throws Exception 当 Ping 失败时抛出
+     * @param resolver 执行主机名解析的执行器
+     * @return 查询结果 Future
      */
-    private static QueryResult ping(String host, int port, long timeoutMillis, long pingId) throws Exception {
-        try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(host, port), (int) timeoutMillis);
-            socket.setSoTimeout((int) timeoutMillis);
-
-            OutputStream out = socket.getOutputStream();
-            InputStream in = socket.getInputStream();
-
-            sendHandshake(out, host, port);
-            sendStatusRequest(out);
-
-            String json = readStatusResponse(in);
-
-            long t0 = System.nanoTime();
-            sendPing(out, pingId);
-            readPong(in);
-            long latencyMillis = (System.nanoTime() - t0) / 1_000_000L;
-
-            return new QueryResult(json, latencyMillis);
+    private static CompletableFuture<QueryResult> ping(String host, int port, long timeoutMillis, long pingId, Executor resolver) {
+        AsynchronousSocketChannel channel;
+        try {
+            channel = AsynchronousSocketChannel.open();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        StatusQuery query = new StatusQuery(channel, host, port, pingId);
+        query.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((r, e) -> query.close());
+        query.start(resolver);
+        return query.result;
     }
 
     /**
-     * 发送握手包。
+     * 构建握手包与状态请求包。
      *
-     * @param out 输出流
      * @param host 主机名
      * @param port 端口
-     * @throws Exception 当发送失败时抛出
+     * @return 两个数据包依次拼接的字节
      */
-    private static void sendHandshake(OutputStream out, String host, int port) throws Exception {
-        ByteArrayOutputStream body = new ByteArrayOutputStream();
-        writeVarInt(body, 0);
-        writeVarInt(body, 765);
-        writeMcString(body, host);
-        body.write((port >>> 8) & 0xFF);
-        body.write(port & 0xFF);
-        writeVarInt(body, 1);
-        sendPacket(out, body.toByteArray());
+    private static byte[] handshakeAndStatusRequest(String host, int port) {
+        ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+        writeVarInt(handshake, 0);
+        writeVarInt(handshake, 765);
+        writeMcString(handshake, host);
+        handshake.write((port >>> 8) & 0xFF);
+        handshake.write(port & 0xFF);
+        writeVarInt(handshake, 1);
+
+        ByteArrayOutputStream status = new ByteArrayOutputStream();
+        writeVarInt(status, 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writePacket(out, handshake.toByteArray());
+        writePacket(out, status.toByteArray());
+        return out.toByteArray();
     }
 
     /**
-     * 发送状态请求包。
+     * 构建 Ping 包。
      *
-     * @param out 输出流
-     * @throws Exception 当发送失败时抛出
+     * @param pingId Ping ID
+     * @return 数据包字节
      */
-    private static void sendStatusRequest(OutputStream out) throws Exception {
+    private static byte[] pingPacket(long pingId) {
         ByteArrayOutputStream body = new ByteArrayOutputStream();
-        writeVarInt(body, 0);
-        sendPacket(out, body.toByteArray());
+        writeVarInt(body, 1);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            body.write((int) (pingId >>> shift) & 0xFF);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writePacket(out, body.toByteArray());
+        return out.toByteArray();
     }
 
     /**
-     * 读取状态响应。
+     * 解析状态响应。
      *
-     * @param in 输入流
+     * @param packet 数据包体
      * @return 状态响应 JSON 字符串
-     * @throws Exception 当读取失败时抛出
+     * @throws IOException 当解析失败时抛出
      */
-    private static String readStatusResponse(InputStream in) throws Exception {
-        int packetLen = readVarInt(in);
-        byte[] packet = readFully(in, packetLen);
+    private static String parseStatusResponse(byte[] packet) throws IOException {
         DataInputStream data = new DataInputStream(new ByteArrayInputStream(packet));
         int packetId = readVarInt(data);
         if (packetId != 0) {
@@ -263,29 +276,12 @@ public final class CoreMinecraft {
     }
 
     /**
-     * 发送 Ping 包。
+     * 校验 Pong 包。
      *
-     * @param out 输出流
-     * @param pingId Ping ID
-     * @throws Exception 当发送失败时抛出
+     * @param packet 数据包体
+     * @throws IOException 当解析失败时抛出
      */
-    private static void sendPing(OutputStream out, long pingId) throws Exception {
-        ByteArrayOutputStream body = new ByteArrayOutputStream();
-        writeVarInt(body, 1);
-        DataOutputStream data = new DataOutputStream(body);
-        data.writeLong(pingId);
-        sendPacket(out, body.toByteArray());
-    }
-
-    /**
-     * 读取 Pong 包。
-     *
-     * @param in 输入流
-     * @throws Exception 当读取失败时抛出
-     */
-    private static void readPong(InputStream in) throws Exception {
-        int packetLen = readVarInt(in);
-        byte[] packet = readFully(in, packetLen);
+    private static void parsePong(byte[] packet) throws IOException {
         DataInputStream data = new DataInputStream(new ByteArrayInputStream(packet));
         int packetId = readVarInt(data);
         if (packetId != 1) {
@@ -295,19 +291,15 @@ public final class CoreMinecraft {
     }
 
     /**
-     * 发送数据包。
+     * 写入数据包。
      * 格式：PacketLength(VarInt) + PacketBody
      *
      * @param out 输出流
      * @param body 数据包体
-     * @throws Exception 当发送失败时抛出
      */
-    private static void sendPacket(OutputStream out, byte[] body) throws Exception {
-        ByteArrayOutputStream packet = new ByteArrayOutputStream();
-        writeVarInt(packet, body.length);
-        packet.write(body);
-        out.write(packet.toByteArray());
-        out.flush();
+    private static void writePacket(ByteArrayOutputStream out, byte[] body) {
+        writeVarInt(out, body.length);
+        out.write(body, 0, body.length);
     }
 
     /**
@@ -316,12 +308,11 @@ public final class CoreMinecraft {
      *
      * @param out 输出流
      * @param s 字符串
-     * @throws Exception 当写入失败时抛出
      */
-    private static void writeMcString(ByteArrayOutputStream out, String s) throws Exception {
+    private static void writeMcString(ByteArrayOutputStream out, String s) {
         byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
         writeVarInt(out, bytes.length);
-        out.write(bytes);
+        out.write(bytes, 0, bytes.length);
     }
 
     /**
@@ -329,9 +320,9 @@ public final class CoreMinecraft {
      *
      * @param in 输入流
      * @return 字符串
-     * @throws Exception 当读取失败时抛出
+     * @throws IOException 当读取失败时抛出
      */
-    private static String readMcString(DataInputStream in) throws Exception {
+    private static String readMcString(DataInputStream in) throws IOException {
         int len = readVarInt(in);
         if (len < 0 || len > 1_048_576) {
             throw new IllegalArgumentException("string too long");
@@ -357,21 +348,18 @@ public final class CoreMinecraft {
     }
 
     /**
-     * 读取 VarInt。
+     * 读取 VarInt (DataInputStream)。
      *
      * @param in 输入流
      * @return 整数值
-     * @throws Exception 当读取失败时抛出
+     * @throws IOException 当读取失败时抛出
      */
-    private static int readVarInt(InputStream in) throws Exception {
+    private static int readVarInt(DataInputStream in) throws IOException {
         int numRead = 0;
         int result = 0;
-        int read;
+        byte read;
         do {
-            read = in.read();
-            if (read == -1) {
-                throw new EOFException();
-            }
+            read = in.readByte();
             int value = read & 0x7F;
             result |= (value << (7 * numRead));
             numRead++;
@@ -383,50 +371,247 @@ public final class CoreMinecraft {
     }
 
     /**
-     * 读取 VarInt (DataInputStream)。
+     * 异步步骤的后续处理。
      *
-     * @param in 输入流
-     * @return 整数值
-     * @throws Exception 当读取失败时抛出
+     * @param <V> 上一步的结果类型
      */
-    private static int readVarInt(DataInputStream in) throws Exception {
-        int numRead = 0;
-        int result = 0;
-        byte read;
-        do {
-            read = in.readByte();
-            int value = read & 0x7F;
-            result |= (value << (7 * numRead));
-            numRead++;
-            if (numRead > 5) {
-                throw new IllegalArgumentException("VarInt too big");
-            }
-        } while ((read & 0x80) != 0);
-        return result;
+    @FunctionalInterface
+    private interface Step<V> {
+        /**
+         * 处理上一步的结果并发起下一步。
+         *
+         * @param value 上一步的结果
+         * @throws Exception 当处理失败时抛出
+         */
+        void accept(V value) throws Exception;
     }
 
     /**
-     * 读取指定长度的字节。
-     *
-     * @param in 输入流
-     * @param len 长度
-     * @return 字节数组
-     * @throws Exception 当读取失败时抛出
+     * 一次异步状态查询。
+     * 以 CompletionHandler 串联连接、写出与读取各步骤；读取的数据在缓冲区中累积，收齐一个完整数据包后进入下一步。
+     * 任一步骤失败都会使结果 Future 以异常完成。
      */
-    private static byte[] readFully(InputStream in, int len) throws Exception {
-        if (len < 0) {
-            throw new IllegalArgumentException("len<0");
+    private static final class StatusQuery {
+        private final AsynchronousSocketChannel channel;
+        private final String host;
+        private final int port;
+        private final long pingId;
+        private final CompletableFuture<QueryResult> result = new CompletableFuture<>();
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_READ_BYTES);
+        private String json;
+        private long pingSentNanos;
+
+        /**
+         * 构造函数。
+         *
+         * @param channel 异步套接字通道
+         * @param host 主机名
+         * @param port 端口
+         * @param pingId Ping ID
+         */
+        private StatusQuery(AsynchronousSocketChannel channel, String host, int port, long pingId) {
+            this.channel = channel;
+            this.host = host;
+            this.port = port;
+            this.pingId = pingId;
         }
-        byte[] bytes = new byte[len];
-        int off = 0;
-        while (off < len) {
-            int r = in.read(bytes, off, len - off);
-            if (r == -1) {
-                throw new EOFException();
+
+        /**
+         * 在执行器中解析主机名，随后发起连接；连接成功后发送握手包与状态请求包。
+         *
+         * @param resolver 执行主机名解析的执行器
+         */
+        private void start(Executor resolver) {
+            CompletableFuture<InetSocketAddress> resolved;
+            try {
+                resolved = CompletableFuture.supplyAsync(() -> new InetSocketAddress(host, port), resolver);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            resolved.whenComplete((address, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else if (address.isUnresolved()) {
+                    result.completeExceptionally(new UnknownHostException(host));
+                } else {
+                    connect(address);
+                }
+            });
+        }
+
+        /**
+         * 连接到已解析的地址。
+         *
+         * @param address 目标地址
+         */
+        private void connect(InetSocketAddress address) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                channel.connect(address, null,
+                        handler(v -> write(ByteBuffer.wrap(handshakeAndStatusRequest(host, port)), this::readStatus)));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * 读取状态响应，随后发送 Ping 包。
+         *
+         * @param ignored 写出结果
+         * @throws Exception 当发起读取失败时抛出
+         */
+        private void readStatus(Void ignored) throws Exception {
+            readPacket(packet -> {
+                json = parseStatusResponse(packet);
+                pingSentNanos = System.nanoTime();
+                write(ByteBuffer.wrap(pingPacket(pingId)), v -> readPacket(this::onPong));
+            });
+        }
+
+        /**
+         * 收到 Pong 包，完成查询。
+         *
+         * @param packet 数据包体
+         * @throws IOException 当解析失败时抛出
+         */
+        private void onPong(byte[] packet) throws IOException {
+            parsePong(packet);
+            long latencyMillis = (System.nanoTime() - pingSentNanos) / 1_000_000L;
+            result.complete(new QueryResult(json, latencyMillis));
+        }
+
+        /**
+         * 写出缓冲区中的全部数据。
+         *
+         * @param buf 待写出的数据
+         * @param next 写完后的处理
+         */
+        private void write(ByteBuffer buf, Step<Void> next) {
+            channel.write(buf, null, handler(n -> {
+                if (buf.hasRemaining()) {
+                    write(buf, next);
+                } else {
+                    next.accept(null);
+                }
+            }));
+        }
+
+        /**
+         * 读取一个完整的数据包；缓冲区中已有完整数据包时直接处理。
+         *
+         * @param next 收到数据包后的处理
+         * @throws Exception 当数据包非法或处理失败时抛出
+         */
+        private void readPacket(Step<byte[]> next) throws Exception {
+            in.flip();
+            byte[] packet;
+            try {
+                packet = takePacket();
+            } finally {
+                in.compact();
+            }
+            if (packet != null) {
+                next.accept(packet);
+                return;
+            }
+            if (!in.hasRemaining()) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.min(in.capacity() * 2, MAX_PACKET_BYTES + 5));
+                in.flip();
+                bigger.put(in);
+                in = bigger;
+            }
+            channel.read(in, null, handler(n -> {
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                readPacket(next);
+            }));
+        }
+
+        /**
+         * 从读模式的缓冲区中取出一个完整数据包的包体；数据不足时不移动位置。
+         *
+         * @return 数据包体，数据不足时返回 null
+         * @throws IOException 当长度前缀非法时抛出
+         */
+        private byte[] takePacket() throws IOException {
+            int start = in.position();
+            int len = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (!in.hasRemaining()) {
+                    in.position(start);
+                    return null;
+                }
+                b = in.get();
+                len |= (b & 0x7F) << shift;
+                shift += 7;
+                if (shift > 35) {
+                    throw new IOException("VarInt too big");
+                }
+            } while ((b & 0x80) != 0);
+            if (len < 0 || len > MAX_PACKET_BYTES) {
+                throw new IOException("packet too large: " + len);
+            }
+            if (in.remaining() < len) {
+                in.position(start);
+                return null;
+            }
+            byte[] packet = new byte[len];
+            in.get(packet);
+            return packet;
+        }
+
+        /**
+         * 创建完成处理器：成功时执行后续处理，失败或后续处理抛出异常时使查询失败。
+         *
+         * @param next 后续处理
+         * @param <V> 异步操作的结果类型
+         * @return 完成处理器
+         */
+        private <V> CompletionHandler<V, Void> handler(Step<V> next) {
+            return new CompletionHandler<>() {
+                @Override
+                /**
+                 * 异步操作成功。
+                 *
+                 * @param value 操作结果
+                 * @param attachment 附件
+                 */
+                public void completed(V value, Void attachment) {
+                    try {
+                        next.accept(value);
+                    } catch (Exception e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                /**
+                 * 异步操作失败。
+                 *
+                 * @param error 异常
+                 * @param attachment 附件
+                 */
+                public void failed(Throwable error, Void attachment) {
+                    result.completeExceptionally(error);
+                }
+            };
+        }
+
+        /**
+         * 关闭通道，未完成的读写随之失败。
+         */
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
             }
-            off += r;
         }
-        return bytes;
     }
 
     /**
@@ -0,0 +1,220 @@
+package com.endercore.core.comm.server;
+
+import com.endercore.core.comm.config.CoreSlowConsumerPolicy;
+import com.endercore.core.comm.monitor.ConnectionMetrics;
+import com.endercore.core.comm.protocol.CoreFrame;
+import com.endercore.core.comm.protocol.CoreMessageType;
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.framing.CloseFrame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+
+/**
+ * 单连接发送队列闸门。
+ * 按连接发送队列中尚未写出的字节数检测慢消费连接：超过高水位后进入慢消费状态，回落到低水位及以下才恢复。
+ * 慢消费期间发往该连接的可舍弃事件被丢弃或按类型合并，其余消息照常发送；恢复后补发合并的事件。
+ * 持续处于慢消费状态超过上限的连接被直接断开（不等待关闭握手排在积压数据之后），释放其发送队列占用的内存。
+ * 慢消费期间由调度器定期重新检查，即使没有新消息发往该连接也能及时恢复或断开。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreOutboundGate {
+    /**
+     * 发送队列字节数的最短重新计算间隔
+     */
+    private static final long BUFFER_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 慢消费期间重新检查的间隔（毫秒）
+     */
+    private static final long RECHECK_MILLIS = 50;
+
+    private final WebSocket conn;
+    private final long highWatermark;
+    private final long lowWatermark;
+    private final long timeoutNanos;
+    private final Map<String, CoreSlowConsumerPolicy> droppable;
+    private final ConnectionMetrics metrics;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<CoreFrame> resend;
+    private final LinkedHashMap<String, CoreFrame> coalesced = new LinkedHashMap<>();
+    private final Object lock = new Object();
+
+    private volatile boolean slow;
+    private volatile long lastBufferCheckNanos;
+    private long slowSinceNanos;
+    private boolean recheckScheduled;
+    private boolean closed;
+
+    /**
+     * 构造函数。
+     *
+     * @param conn WebSocket 连接
+     * @param highWatermark 高水位（字节）
+     * @param lowWatermark 低水位（字节）
+     * @param timeoutNanos 持续慢消费多久后断开连接（纳秒），不大于 0 表示不断开
+     * @param droppable 可舍弃的事件类型及其策略
+     * @param metrics 连接指标
+     * @param scheduler 用于慢消费期间重新检查的调度器
+     * @param resend 恢复后补发合并事件的函数
+     */
+    CoreOutboundGate(WebSocket conn, long highWatermark, long lowWatermark, long timeoutNanos,
+                     Map<String, CoreSlowConsumerPolicy> droppable, ConnectionMetrics metrics,
+                     ScheduledExecutorService scheduler, Consumer<CoreFrame> resend) {
+        this.conn = conn;
+        this.highWatermark = Math.max(0, highWatermark);
+        this.lowWatermark = Math.min(Math.max(0, lowWatermark), this.highWatermark);
+        this.timeoutNanos = timeoutNanos;
+        this.droppable = droppable;
+        this.metrics = metrics;
+        this.scheduler = scheduler;
+        this.resend = resend;
+    }
+
+    /**
+     * 计算连接发送队列中尚未写出的字节数。
+     *
+     * @param conn WebSocket 连接
+     * @return 尚未写出的字节数
+     */
+    static long bufferedBytes(WebSocket conn) {
+        if (!(conn instanceof WebSocketImpl) || !conn.hasBufferedData()) {
+            return 0;
+        }
+        long total = 0;
+        for (ByteBuffer b : ((WebSocketImpl) conn).outQueue) {
+            total += b.remaining();
+        }
+        return total;
+    }
+
+    /**
+     * 检查帧是否可以发送到该连接。
+     * 连接处于慢消费状态时，可舍弃的事件被丢弃或留待恢复后补发，其余帧照常放行；
+     * 发送队列字节数最多每毫秒计算一次。
+     *
+     * @param frame 协议帧
+     * @return 可以立即发送返回 true
+     */
+    boolean admit(CoreFrame frame) {
+        long now = System.nanoTime();
+        if (now - lastBufferCheckNanos >= BUFFER_CHECK_NANOS) {
+            check(now);
+        }
+        if (!slow || frame.type() != CoreMessageType.EVENT) {
+            return true;
+        }
+        CoreSlowConsumerPolicy policy = droppable.get(frame.kind());
+        if (policy == null) {
+            return true;
+        }
+        synchronized (lock) {
+            if (!slow) {
+                return true;
+            }
+            if (policy == CoreSlowConsumerPolicy.COALESCE && coalesced.put(frame.kind(), frame) == null) {
+                return false;
+            }
+        }
+        metrics.onSlowConsumerEventShed();
+        return false;
+    }
+
+    /**
+     * 连接关闭时调用，丢弃合并的事件并停止重新检查。
+     */
+    void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            coalesced.clear();
+            if (slow) {
+                slow = false;
+                metrics.onSlowConsumerLeft();
+            }
+        }
+    }
+
+    /**
+     * 重新计算发送队列字节数并更新慢消费状态；恢复时补发合并的事件，超时时断开连接。
+     *
+     * @param now 当前时刻（纳秒时钟）
+     */
+    private void check(long now) {
+        lastBufferCheckNanos = now;
+        long buffered = bufferedBytes(conn);
+        List<CoreFrame> flush = null;
+        boolean disconnect = false;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            if (!slow) {
+                if (buffered > highWatermark) {
+                    slow = true;
+                    slowSinceNanos = now;
+                    metrics.onSlowConsumerEntered();
+                }
+            } else if (buffered <= lowWatermark) {
+                slow = false;
+                metrics.onSlowConsumerLeft();
+                if (!coalesced.isEmpty()) {
+                    flush = new ArrayList<>(coalesced.values());
+                    coalesced.clear();
+                }
+            } else if (timeoutNanos > 0 && now - slowSinceNanos > timeoutNanos) {
+                closed = true;
+                slow = false;
+                coalesced.clear();
+                metrics.onSlowConsumerLeft();
+                disconnect = true;
+            }
+            if (slow) {
+                scheduleRecheck();
+            }
+        }
+        if (disconnect) {
+            metrics.onSlowConsumerDisconnected();
+            conn.closeConnection(CloseFrame.TRY_AGAIN_LATER, "slow consumer");
+            return;
+        }
+        if (flush != null) {
+            for (CoreFrame frame : flush) {
+                resend.accept(frame);
+            }
+        }
+    }
+
+    /**
+     * 慢消费期间安排一次延迟的重新检查（调用方需持有锁）。
+     */
+    private void scheduleRecheck() {
+        if (recheckScheduled) {
+            return;
+        }
+        recheckScheduled = true;
+        try {
+            scheduler.schedule(() -> {
+                synchronized (lock) {
+                    recheckScheduled = false;
+                }
+                check(System.nanoTime());
+            }, RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            recheckScheduled = false;
+        }
+    }
+}
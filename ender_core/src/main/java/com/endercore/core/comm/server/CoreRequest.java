@@ -1,11 +1,15 @@
 package com.endercore.core.comm.server;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 
  
 /**
  * 核心请求对象。
  * 封装了 WebSocket 请求的相关信息。
+ * 以分片流发送的请求在首个分片到达时即交给处理器，负载通过 {@link #body()} 边接收边读取。
  *
  * @author Ender Developer
  * @version 1.0
@@ -23,15 +27,25 @@ public final class CoreRequest {
     private final String kind;
     
     /**
-     * 请求负载
+     * 请求负载（只读视图）
      */
-    private final byte[] payload;
+    private final ByteBuffer payloadBuffer;
+
+    /**
+     * 请求负载（按需复制）
+     */
+    private volatile byte[] payload;
     
     /**
      * 远程地址
      */
     private final InetSocketAddress remoteAddress;
 
+    /**
+     * 分片流负载，非流式请求时为 null
+     */
+    private final InputStream body;
+
     /**
      * 构造函数。
      *
@@ -44,7 +58,42 @@ public final class CoreRequest {
         this.requestId = requestId;
         this.kind = kind;
         this.payload = payload == null ? new byte[0] : payload;
+        this.payloadBuffer = ByteBuffer.wrap(this.payload).asReadOnlyBuffer();
+        this.remoteAddress = remoteAddress;
+        this.body = null;
+    }
+
+    /**
+     * 构造函数。
+     * 负载以只读视图形式持有，仅在调用 {@link #payload()} 时才复制。
+     *
+     * @param requestId 请求 ID
+     * @param kind 请求类型
+     * @param payloadBuffer 请求负载视图
+     * @param remoteAddress 远程地址
+     */
+    public CoreRequest(long requestId, String kind, ByteBuffer payloadBuffer, InetSocketAddress remoteAddress) {
+        this.requestId = requestId;
+        this.kind = kind;
+        this.payloadBuffer = payloadBuffer == null ? ByteBuffer.allocate(0).asReadOnlyBuffer() : payloadBuffer.asReadOnlyBuffer();
+        this.remoteAddress = remoteAddress;
+        this.body = null;
+    }
+
+    /**
+     * 构造函数（流式负载）。
+     *
+     * @param requestId 请求 ID
+     * @param kind 请求类型
+     * @param body 流式负载
+     * @param remoteAddress 远程地址
+     */
+    public CoreRequest(long requestId, String kind, InputStream body, InetSocketAddress remoteAddress) {
+        this.requestId = requestId;
+        this.kind = kind;
+        this.payloadBuffer = ByteBuffer.allocate(0).asReadOnlyBuffer();
         this.remoteAddress = remoteAddress;
+        this.body = body;
     }
 
     /**
@@ -71,7 +120,43 @@ public final class CoreRequest {
      * @return 请求负载
      */
     public byte[] payload() {
-        return payload;
+        byte[] p = payload;
+        if (p == null) {
+            p = new byte[payloadBuffer.remaining()];
+            payloadBuffer.get(payloadBuffer.position(), p);
+            payload = p;
+        }
+        return p;
+    }
+
+    /**
+     * 获取请求负载的只读视图。
+     * 只转发数据的处理器应使用此方法以避免复制负载。
+     *
+     * @return 负载只读缓冲区
+     */
+    public ByteBuffer payloadBuffer() {
+        return payloadBuffer.duplicate();
+    }
+
+    /**
+     * 检查负载是否以分片流传输。
+     *
+     * @return 流式请求返回 true，否则返回 false
+     */
+    public boolean isStreamed() {
+        return body != null;
+    }
+
+    /**
+     * 获取负载输入流。
+     * 流式请求返回分片流，读取时可能阻塞等待后续分片，处理器返回后该流会被关闭；
+     * 否则返回基于负载的输入流。流式请求的 {@link #payload()} 为空数组。
+     *
+     * @return 负载输入流
+     */
+    public InputStream body() {
+        return body != null ? body : new ByteArrayInputStream(payload());
     }
 
     /**
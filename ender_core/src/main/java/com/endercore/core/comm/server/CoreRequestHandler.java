@@ -6,6 +6,8 @@ import com.endercore.core.comm.protocol.CoreResponse;
 /**
  * 核心请求处理器接口。
  * 用于处理 WebSocket 接收到的请求。
+ * 处理大负载时应通过 {@link CoreRequest#body()} 读取请求，并以 {@link CoreResponse#streamed} 返回响应，
+ * 从而避免在内存中持有完整负载。
  *
  * @author Ender Developer
  * @version 1.0
@@ -1,22 +1,21 @@
 package com.endercore.core.comm.server;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.math.BigInteger;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.endercore.core.comm.protocol.CoreBinaryReader;
+import com.endercore.core.comm.protocol.CoreBinaryWriter;
 import com.endercore.core.comm.protocol.CoreResponse;
+import org.java_websocket.WebSocket;
 
 /**
  * 房间管理核心工具类。
@@ -37,7 +36,7 @@ public final class CoreRooms {
      * 在 CoreWebSocketServer 上注册房间管理服务。
      * 注册 "room:create", "room:join", "room:leave", "room:list", 
      * "room:info", "room:send", "room:set_meta", "room:destroy" 等请求处理器。
-     * 同时注册连接断开监听器以处理异常退出。
+     * 同时登记房间事件的 kind ID，并注册连接断开监听器以处理异常退出。
      *
      * @param server CoreWebSocketServer 实例
      */
@@ -55,6 +54,30 @@ public final class CoreRooms {
         server.register("room:send", manager::send);
         server.register("room:set_meta", manager::setMeta);
         server.register("room:destroy", manager::destroy);
+        server.registerOutboundEvents("room:member_joined", "room:member_left", "room:message",
+                "room:meta_changed", "room:destroyed");
+    }
+
+    /**
+     * 生成随机房间代码。
+     * 供同包的基准测试使用。
+     *
+     * @return 规范形式的房间代码
+     */
+    static String generateRoomCode() {
+        return RoomManager.generateRoomCode().code;
+    }
+
+    /**
+     * 解析并规范化房间代码。
+     * 供同包的基准测试使用。
+     *
+     * @param input 输入字符串
+     * @return 规范形式的房间代码，无效时返回 null
+     */
+    static String parseRoomCode(String input) {
+        RoomManager.RoomCode code = RoomManager.parseRoomCode(input);
+        return code == null ? null : code.code;
     }
 
     /**
@@ -117,6 +140,30 @@ public final class CoreRooms {
             }
         }
 
+        /**
+         * 获取房间成员的连接数组。
+         * 数组在成员变化后首次使用时按远程地址解析一次并缓存，之后的事件扇出直接复用；调用方必须持有 room.lock。
+         *
+         * @param room 房间对象
+         * @return 成员连接数组，不可修改
+         */
+        private WebSocket[] recipients(Room room) {
+            WebSocket[] cached = room.recipients;
+            if (cached != null) {
+                return cached;
+            }
+            List<WebSocket> conns = new ArrayList<>(room.members.size());
+            for (InetSocketAddress remote : room.members.values()) {
+                WebSocket conn = server.connection(remote);
+                if (conn != null) {
+                    conns.add(conn);
+                }
+            }
+            cached = conns.toArray(new WebSocket[0]);
+            room.recipients = cached;
+            return cached;
+        }
+
         /**
          * 创建房间。
          *
@@ -125,11 +172,11 @@ public final class CoreRooms {
          * @throws Exception 当创建失败时抛出
          */
         private CoreResponse create(CoreRequest req) throws Exception {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-            String name = readString(in);
+            CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+            String name = in.readString();
             int maxMembers = in.readUnsignedShort();
-            String preferredRoomId = readString(in);
-            boolean open = in.readUnsignedByte() != 0;
+            String preferredRoomId = in.readString();
+            boolean open = in.readBoolean();
 
             if (name.isBlank() || name.length() > 64) {
                 return error(req, STATUS_INVALID_PAYLOAD, "invalid room name");
@@ -152,16 +199,16 @@ public final class CoreRooms {
             rooms.put(code.code, room);
             memberRooms.computeIfAbsent(hostId, k -> ConcurrentHashMap.newKeySet()).add(code.code);
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            writeString(out, code.code);
-            writeString(out, hostId);
-            out.writeShort(maxMembers);
-            out.writeByte(open ? 1 : 0);
-            writeString(out, name);
-            writeString(out, code.networkName);
-            writeString(out, code.networkSecret);
-            return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
+            try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+                out.writeString(code.code)
+                        .writeString(hostId)
+                        .writeShort(maxMembers)
+                        .writeBoolean(open)
+                        .writeString(name)
+                        .writeString(code.networkName)
+                        .writeString(code.networkSecret);
+                return new CoreResponse(0, req.requestId(), req.kind(), out.toByteArray());
+            }
         }
 
         /**
@@ -172,8 +219,8 @@ public final class CoreRooms {
      * @throws Exception 当加入失败时抛出
      */
     private CoreResponse join(CoreRequest req) throws Exception {
-        DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-        String roomIdInput = readString(in);
+        CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+        String roomIdInput = in.readString();
         if (roomIdInput.isBlank()) {
             return error(req, STATUS_INVALID_PAYLOAD, "missing roomId");
         }
@@ -190,7 +237,7 @@ public final class CoreRooms {
         String memberId = connectionId(req.remoteAddress());
         InetSocketAddress remote = req.remoteAddress();
         boolean joinedNow;
-        List<InetSocketAddress> remotes;
+        WebSocket[] targets;
         synchronized (room.lock) {
             if (!room.open) {
                 return error(req, STATUS_ROOM_CLOSED, "room is closed");
@@ -200,27 +247,28 @@ public final class CoreRooms {
             }
             joinedNow = room.members.putIfAbsent(memberId, remote) == null;
             if (joinedNow) {
+                room.recipients = null;
                 memberRooms.computeIfAbsent(memberId, k -> ConcurrentHashMap.newKeySet()).add(roomId);
             }
-            remotes = new ArrayList<>(room.members.values());
+            targets = recipients(room);
         }
 
         if (joinedNow) {
-            server.sendEventToMany(remotes, "room:member_joined", payloadRoomMember(roomId, memberId));
-        }
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(baos);
-        writeString(out, room.id);
-        writeString(out, memberId);
-        writeString(out, room.hostId);
-        writeString(out, room.name);
-        out.writeShort(room.maxMembers);
-        out.writeByte(room.open ? 1 : 0);
-        writeMembers(out, room.members.keySet());
-        writeString(out, room.networkName);
-        writeString(out, room.networkSecret);
-        return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
+            server.sendEventToConnections(targets, "room:member_joined", payloadRoomMember(roomId, memberId));
+        }
+
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            out.writeString(room.id)
+                    .writeString(memberId)
+                    .writeString(room.hostId)
+                    .writeString(room.name)
+                    .writeShort(room.maxMembers)
+                    .writeBoolean(room.open)
+                    .writeStrings(room.members.keySet())
+                    .writeString(room.networkName)
+                    .writeString(room.networkSecret);
+            return new CoreResponse(0, req.requestId(), req.kind(), out.toByteArray());
+        }
     }
 
     /**
@@ -231,8 +279,8 @@ public final class CoreRooms {
      * @throws Exception 当离开失败时抛出
      */
     private CoreResponse leave(CoreRequest req) throws Exception {
-        DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-        String roomIdInput = readString(in);
+        CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+        String roomIdInput = in.readString();
         if (roomIdInput.isBlank()) {
             return error(req, STATUS_INVALID_PAYLOAD, "missing roomId");
         }
@@ -251,10 +299,7 @@ public final class CoreRooms {
             return error(req, STATUS_NOT_IN_ROOM, "not in room");
         }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(baos);
-        writeString(out, roomId);
-        return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
+        return new CoreResponse(0, req.requestId(), req.kind(), payloadRoom(roomId));
     }
 
     /**
@@ -267,7 +312,7 @@ public final class CoreRooms {
      */
     private boolean handleLeaveInternal(Room room, String memberId) {
         boolean removed;
-        List<InetSocketAddress> remainingRemotes = List.of();
+        WebSocket[] remaining = new WebSocket[0];
         boolean destroyed = false;
 
         synchronized (room.lock) {
@@ -275,6 +320,7 @@ public final class CoreRooms {
             if (!removed) {
                 return false;
             }
+            room.recipients = null;
             Set<String> joined = memberRooms.get(memberId);
             if (joined != null) {
                 joined.remove(room.id);
@@ -288,7 +334,7 @@ public final class CoreRooms {
             } else if (Objects.equals(room.hostId, memberId)) {
                 destroyed = true;
                 rooms.remove(room.id, room);
-                remainingRemotes = new ArrayList<>(room.members.values());
+                remaining = recipients(room);
                 for (String otherMemberId : room.members.keySet()) {
                     Set<String> otherJoined = memberRooms.get(otherMemberId);
                     if (otherJoined != null) {
@@ -299,16 +345,17 @@ public final class CoreRooms {
                     }
                 }
                 room.members.clear();
+                room.recipients = null;
             } else {
-                remainingRemotes = new ArrayList<>(room.members.values());
+                remaining = recipients(room);
             }
         }
 
         if (removed && !destroyed) {
-            server.sendEventToMany(remainingRemotes, "room:member_left", payloadRoomMember(room.id, memberId));
+            server.sendEventToConnections(remaining, "room:member_left", payloadRoomMember(room.id, memberId));
         }
         if (destroyed) {
-            server.sendEventToMany(remainingRemotes, "room:destroyed", payloadRoom(room.id));
+            server.sendEventToConnections(remaining, "room:destroyed", payloadRoom(room.id));
         }
         return true;
     }
@@ -322,7 +369,7 @@ public final class CoreRooms {
      * @throws Exception 当获取列表失败时抛出
      */
     private CoreResponse list(CoreRequest req) throws Exception {
-        DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
+        CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
         int offset = in.readUnsignedShort();
         int limit = in.readUnsignedShort();
         if (limit <= 0) {
@@ -339,18 +386,18 @@ public final class CoreRooms {
         int to = Math.min(from + limit, all.size());
         List<Room> page = all.subList(from, to);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream out = new DataOutputStream(baos);
-        out.writeShort(page.size());
-        for (Room room : page) {
-            writeString(out, room.id);
-            writeString(out, room.name);
-            writeString(out, room.hostId);
-            out.writeShort(room.members.size());
-            out.writeShort(room.maxMembers);
-            out.writeByte(room.open ? 1 : 0);
-        }
-        return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            out.writeShort(page.size());
+            for (Room room : page) {
+                out.writeString(room.id)
+                        .writeString(room.name)
+                        .writeString(room.hostId)
+                        .writeShort(room.members.size())
+                        .writeShort(room.maxMembers)
+                        .writeBoolean(room.open);
+            }
+            return new CoreResponse(0, req.requestId(), req.kind(), out.toByteArray());
+        }
     }
 
     /**
@@ -361,8 +408,8 @@ public final class CoreRooms {
      * @throws Exception 当获取信息失败时抛出
      */
     private CoreResponse info(CoreRequest req) throws Exception {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-            String roomIdInput = readString(in);
+            CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+            String roomIdInput = in.readString();
             if (roomIdInput.isBlank()) {
                 return error(req, STATUS_INVALID_PAYLOAD, "missing roomId");
             }
@@ -376,23 +423,21 @@ public final class CoreRooms {
                 return error(req, STATUS_NOT_FOUND, "room not found");
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            writeString(out, room.id);
-            writeString(out, room.name);
-            writeString(out, room.hostId);
-            out.writeLong(room.createdAtMillis);
-            out.writeShort(room.maxMembers);
-            out.writeByte(room.open ? 1 : 0);
-            writeMembers(out, room.members.keySet());
             byte[] meta = room.meta;
-            out.writeInt(meta == null ? 0 : meta.length);
-            if (meta != null && meta.length > 0) {
-                out.write(meta);
+            try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+                out.writeString(room.id)
+                        .writeString(room.name)
+                        .writeString(room.hostId)
+                        .writeLong(room.createdAtMillis)
+                        .writeShort(room.maxMembers)
+                        .writeBoolean(room.open)
+                        .writeStrings(room.members.keySet())
+                        .writeInt(meta == null ? 0 : meta.length)
+                        .writeBytes(meta)
+                        .writeString(room.networkName)
+                        .writeString(room.networkSecret);
+                return new CoreResponse(0, req.requestId(), req.kind(), out.toByteArray());
             }
-            writeString(out, room.networkName);
-            writeString(out, room.networkSecret);
-            return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
         }
 
         /**
@@ -403,9 +448,9 @@ public final class CoreRooms {
          * @throws Exception 当发送失败时抛出
          */
         private CoreResponse send(CoreRequest req) throws Exception {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-            String roomIdInput = readString(in);
-            String channel = readString(in);
+            CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+            String roomIdInput = in.readString();
+            String channel = in.readString();
             int messageLen = in.readInt();
             if (roomIdInput.isBlank() || channel.isBlank() || messageLen < 0) {
                 return error(req, STATUS_INVALID_PAYLOAD, "invalid payload");
@@ -415,8 +460,7 @@ public final class CoreRooms {
                 return error(req, STATUS_INVALID_PAYLOAD, "invalid roomId");
             }
             String roomId = parsed.code;
-            byte[] message = new byte[messageLen];
-            in.readFully(message);
+            ByteBuffer message = in.readSlice(messageLen);
 
             Room room = rooms.get(roomId);
             if (room == null) {
@@ -424,15 +468,15 @@ public final class CoreRooms {
             }
 
             String fromId = connectionId(req.remoteAddress());
-            List<InetSocketAddress> remotes;
+            WebSocket[] targets;
             synchronized (room.lock) {
                 if (!room.members.containsKey(fromId)) {
                     return error(req, STATUS_NOT_IN_ROOM, "not in room");
                 }
-                remotes = new ArrayList<>(room.members.values());
+                targets = recipients(room);
             }
 
-            server.sendEventToMany(remotes, "room:message", payloadRoomMessage(roomId, fromId, channel, message));
+            server.sendEventToConnections(targets, "room:message", payloadRoomMessage(roomId, fromId, channel, message));
             return new CoreResponse(0, req.requestId(), req.kind(), new byte[0]);
         }
 
@@ -445,8 +489,8 @@ public final class CoreRooms {
          * @throws Exception 当设置失败时抛出
          */
         private CoreResponse setMeta(CoreRequest req) throws Exception {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-            String roomIdInput = readString(in);
+            CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+            String roomIdInput = in.readString();
             int len = in.readInt();
             if (roomIdInput.isBlank() || len < 0) {
                 return error(req, STATUS_INVALID_PAYLOAD, "invalid payload");
@@ -456,8 +500,7 @@ public final class CoreRooms {
                 return error(req, STATUS_INVALID_PAYLOAD, "invalid roomId");
             }
             String roomId = parsed.code;
-            byte[] meta = new byte[len];
-            in.readFully(meta);
+            byte[] meta = in.readBytes(len);
 
             Room room = rooms.get(roomId);
             if (room == null) {
@@ -465,15 +508,15 @@ public final class CoreRooms {
             }
 
             String callerId = connectionId(req.remoteAddress());
-            List<InetSocketAddress> remotes;
+            WebSocket[] targets;
             synchronized (room.lock) {
                 if (!Objects.equals(room.hostId, callerId)) {
                     return error(req, STATUS_PERMISSION_DENIED, "permission denied");
                 }
                 room.meta = meta;
-                remotes = new ArrayList<>(room.members.values());
+                targets = recipients(room);
             }
-            server.sendEventToMany(remotes, "room:meta_changed", payloadRoomMeta(roomId, meta));
+            server.sendEventToConnections(targets, "room:meta_changed", payloadRoomMeta(roomId, meta));
             return new CoreResponse(0, req.requestId(), req.kind(), new byte[0]);
         }
 
@@ -486,8 +529,8 @@ public final class CoreRooms {
          * @throws Exception 当销毁失败时抛出
          */
         private CoreResponse destroy(CoreRequest req) throws Exception {
-            DataInputStream in = new DataInputStream(new ByteArrayInputStream(req.payload()));
-            String roomIdInput = readString(in);
+            CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+            String roomIdInput = in.readString();
             if (roomIdInput.isBlank()) {
                 return error(req, STATUS_INVALID_PAYLOAD, "missing roomId");
             }
@@ -503,13 +546,13 @@ public final class CoreRooms {
             }
 
             String callerId = connectionId(req.remoteAddress());
-            Collection<InetSocketAddress> remotes;
+            WebSocket[] targets;
             synchronized (room.lock) {
                 if (!Objects.equals(room.hostId, callerId)) {
                     return error(req, STATUS_PERMISSION_DENIED, "permission denied");
                 }
                 rooms.remove(roomId, room);
-                remotes = new ArrayList<>(room.members.values());
+                targets = recipients(room);
                 for (String memberId : room.members.keySet()) {
                     Set<String> joined = memberRooms.get(memberId);
                     if (joined != null) {
@@ -520,8 +563,9 @@ public final class CoreRooms {
                     }
                 }
                 room.members.clear();
+                room.recipients = null;
             }
-            server.sendEventToMany(remotes, "room:destroyed", payloadRoom(roomId));
+            server.sendEventToConnections(targets, "room:destroyed", payloadRoom(roomId));
             return new CoreResponse(0, req.requestId(), req.kind(), new byte[0]);
         }
 
@@ -701,59 +745,6 @@ public final class CoreRooms {
             }
         }
 
-        /**
-     * 读取字符串。
-     * 格式：Length(UnsignedShort) + Bytes
-     *
-     * @param in 输入流
-     * @return 字符串
-     * @throws Exception 当读取失败时抛出
-     */
-    private static String readString(DataInputStream in) throws Exception {
-        int len = in.readUnsignedShort();
-        if (len == 0) {
-            return "";
-        }
-        byte[] bytes = new byte[len];
-        in.readFully(bytes);
-        return new String(bytes, StandardCharsets.UTF_8);
-    }
-
-    /**
-     * 写入字符串。
-     * 格式：Length(UnsignedShort) + Bytes
-     *
-     * @param out 输出流
-     * @param s 字符串
-     * @throws Exception 当写入失败时抛出
-     */
-    private static void writeString(DataOutputStream out, String s) throws Exception {
-        if (s == null || s.isEmpty()) {
-            out.writeShort(0);
-            return;
-        }
-        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-        if (bytes.length > 65535) {
-            throw new IllegalArgumentException("string too long");
-        }
-        out.writeShort(bytes.length);
-        out.write(bytes);
-    }
-
-    /**
-     * 写入成员 ID 集合。
-     *
-     * @param out 输出流
-     * @param memberIds 成员 ID 集合
-     * @throws Exception 当写入失败时抛出
-     */
-    private static void writeMembers(DataOutputStream out, Set<String> memberIds) throws Exception {
-        out.writeShort(memberIds.size());
-        for (String id : memberIds) {
-            writeString(out, id);
-        }
-    }
-
     /**
      * 构建房间信息负载。
      *
@@ -761,13 +752,8 @@ public final class CoreRooms {
      * @return 字节数组负载
      */
     private static byte[] payloadRoom(String roomId) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            writeString(out, roomId);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            return new byte[0];
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return out.writeString(roomId).toByteArray();
         }
     }
 
@@ -779,14 +765,8 @@ public final class CoreRooms {
      * @return 字节数组负载
      */
     private static byte[] payloadRoomMember(String roomId, String memberId) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            writeString(out, roomId);
-            writeString(out, memberId);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            return new byte[0];
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return out.writeString(roomId).writeString(memberId).toByteArray();
         }
     }
 
@@ -798,43 +778,32 @@ public final class CoreRooms {
      * @return 字节数组负载
      */
     private static byte[] payloadRoomMeta(String roomId, byte[] meta) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            writeString(out, roomId);
-            out.writeInt(meta == null ? 0 : meta.length);
-            if (meta != null && meta.length > 0) {
-                out.write(meta);
-            }
-            return baos.toByteArray();
-        } catch (Exception e) {
-            return new byte[0];
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return out.writeString(roomId)
+                    .writeInt(meta == null ? 0 : meta.length)
+                    .writeBytes(meta)
+                    .toByteArray();
         }
     }
 
     /**
      * 构建房间消息负载。
+     * 字符串直接编码进从共享池借出的写入缓冲区，消息内容从请求视图复制，最终只分配一次结果数组。
      *
      * @param roomId 房间 ID
      * @param fromId 发送者 ID
      * @param channel 频道
-     * @param message 消息内容
+     * @param message 消息内容视图
      * @return 字节数组负载
      */
-    private static byte[] payloadRoomMessage(String roomId, String fromId, String channel, byte[] message) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            writeString(out, roomId);
-            writeString(out, fromId);
-            writeString(out, channel);
-            out.writeInt(message == null ? 0 : message.length);
-            if (message != null && message.length > 0) {
-                out.write(message);
-            }
-            return baos.toByteArray();
-        } catch (Exception e) {
-            return new byte[0];
+    private static byte[] payloadRoomMessage(String roomId, String fromId, String channel, ByteBuffer message) {
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return out.writeString(roomId)
+                    .writeString(fromId)
+                    .writeString(channel)
+                    .writeInt(message == null ? 0 : message.remaining())
+                    .writeBytes(message)
+                    .toByteArray();
         }
     }
 }
@@ -854,6 +823,8 @@ private static final class Room {
     private volatile boolean open;
     private volatile String hostId;
     private volatile byte[] meta;
+    /** 成员连接数组缓存，成员变化时置为 null；由 lock 保护 */
+    private WebSocket[] recipients;
 
     /**
      * 构造函数。
@@ -0,0 +1,127 @@
+package com.endercore.core.comm.server;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+
+/**
+ * 单连接串行通道。
+ * 同一连接的请求与事件按到达顺序逐个处理：上一个任务调用 {@link #done()} 后才开始下一个，不同连接的通道之间并行。
+ * 每个任务单独提交到共享执行器，因此执行器在各连接之间轮流调度，一个连接的积压不会独占执行器线程。
+ * 等待队列定长，连接关闭后丢弃尚未开始的任务。执行器拒绝任务时只拒绝该任务（执行其拒绝回调），通道继续处理后续任务。
+ *
+ * @author Ender Developer
+ * @version 1.0
+ * @since 1.0
+ */
+final class CoreSerialLane {
+    private final Executor executor;
+    private final int capacity;
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private boolean running;
+    private boolean closed;
+
+    /**
+     * 构造函数。
+     *
+     * @param executor 执行任务的共享执行器
+     * @param capacity 等待队列容量
+     */
+    CoreSerialLane(Executor executor, int capacity) {
+        this.executor = executor;
+        this.capacity = Math.max(0, capacity);
+    }
+
+    /**
+     * 提交一个任务。
+     * 通道空闲时立即提交到执行器，否则进入等待队列；任务完成后必须调用 {@link #done()}。
+     *
+     * @param task 任务
+     * @param rejected 任务已排队、之后被执行器拒绝时执行的回调
+     * @return 已接收返回 true；通道已关闭、队列已满或执行器拒绝时返回 false，由调用方处理该任务
+     */
+    boolean submit(Runnable task, Runnable rejected) {
+        synchronized (queue) {
+            if (closed) {
+                return false;
+            }
+            if (running) {
+                if (queue.size() >= capacity) {
+                    return false;
+                }
+                queue.add(new Entry(task, rejected));
+                return true;
+            }
+            running = true;
+        }
+        if (start(task)) {
+            return true;
+        }
+        done();
+        return false;
+    }
+
+    /**
+     * 当前任务完成，开始下一个排队的任务；被执行器拒绝的任务执行其拒绝回调后继续下一个。
+     */
+    void done() {
+        while (true) {
+            Entry next;
+            synchronized (queue) {
+                next = queue.poll();
+                if (next == null) {
+                    running = false;
+                    return;
+                }
+            }
+            if (start(next.task)) {
+                return;
+            }
+            next.rejected.run();
+        }
+    }
+
+    /**
+     * 关闭通道，丢弃尚未开始的任务。
+     */
+    void close() {
+        synchronized (queue) {
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    /**
+     * 将任务提交到执行器。
+     *
+     * @param task 任务
+     * @return 执行器接收返回 true，拒绝返回 false
+     */
+    private boolean start(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 排队的任务及其拒绝回调。
+     */
+    private static final class Entry {
+        private final Runnable task;
+        private final Runnable rejected;
+
+        /**
+         * 构造函数。
+         *
+         * @param task 任务
+         * @param rejected 拒绝回调
+         */
+        private Entry(Runnable task, Runnable rejected) {
+            this.task = task;
+            this.rejected = rejected;
+        }
+    }
+}
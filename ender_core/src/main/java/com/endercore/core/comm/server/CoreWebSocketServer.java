@@ -1,26 +1,48 @@
 package com.endercore.core.comm.server;
 
+import com.endercore.core.comm.config.CoreSlowConsumerPolicy;
+import com.endercore.core.comm.config.CoreWebSocketConfig;
 import com.endercore.core.comm.exception.CoreProtocolException;
 import com.endercore.core.comm.monitor.ConnectionMetrics;
 import com.endercore.core.comm.monitor.ConnectionMetricsSnapshot;
+import com.endercore.core.comm.protocol.CoreEventDispatcher;
 import com.endercore.core.comm.protocol.CoreFrame;
+import com.endercore.core.comm.protocol.CoreFrameBatcher;
 import com.endercore.core.comm.protocol.CoreFrameCodec;
+import com.endercore.core.comm.protocol.CoreFrameView;
+import com.endercore.core.comm.protocol.CoreHandshake;
+import com.endercore.core.comm.protocol.CoreInboundStream;
+import com.endercore.core.comm.protocol.CoreKindIds;
 import com.endercore.core.comm.protocol.CoreKinds;
 import com.endercore.core.comm.protocol.CoreMessageType;
+import com.endercore.core.comm.protocol.CoreProtocol;
 import com.endercore.core.comm.protocol.CoreResponse;
+import com.endercore.core.comm.protocol.CoreStreamRegistry;
 import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -36,14 +58,37 @@ import java.util.function.Consumer;
  */
 public final class CoreWebSocketServer extends WebSocketServer {
     private final CoreFrameCodec codec;
-    private final ConcurrentHashMap<String, CoreRequestHandler> handlers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CoreAsyncRequestHandler> handlers = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, CoreEventHandler> eventHandlers = new ConcurrentHashMap<>();
+    private final CoreKindIds kindIds = new CoreKindIds();
+    private final Object registryLock = new Object();
+    private volatile CoreAsyncRequestHandler[] handlersById = new CoreAsyncRequestHandler[0];
+    private volatile CoreEventHandler[] eventHandlersById = new CoreEventHandler[0];
     private final ConcurrentHashMap<InetSocketAddress, WebSocket> connectionsByRemote = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<Consumer<InetSocketAddress>> closeListeners = new CopyOnWriteArrayList<>();
     private final Executor handlerExecutor;
+    private final CoreEventDispatcher events;
     private final CompletableFuture<Void> started = new CompletableFuture<>();
     private final ConnectionMetrics metrics = new ConnectionMetrics();
     private final AtomicLong connections = new AtomicLong();
+    private final ScheduledExecutorService batchScheduler;
+    private final long batchWindowNanos;
+    private final int maxBatchBytes;
+    private final int maxFrameBytes;
+    private final int streamChunkBytes;
+    private final long streamStallNanos;
+    private final int maxInboundStreams;
+    private final int handlerConcurrency;
+    private final int handlerQueueCapacity;
+    private final Map<String, Integer> namespaceConcurrency;
+    private final Map<String, Integer> namespaceQueueCapacity;
+    private final ConcurrentHashMap<String, CoreBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final int connectionLaneCapacity;
+    private final long slowConsumerHighWatermark;
+    private final long slowConsumerLowWatermark;
+    private final long slowConsumerTimeoutNanos;
+    private final Map<String, CoreSlowConsumerPolicy> droppableEvents;
+    private final ScheduledExecutorService outboundScheduler;
 
     /**
      * 构造函数。
@@ -53,20 +98,83 @@ public final class CoreWebSocketServer extends WebSocketServer {
      * @param handlerExecutor 处理器执行器，如果为 null 则使用 CachedThreadPool
      */
     public CoreWebSocketServer(InetSocketAddress address, int maxFrameBytes, Executor handlerExecutor) {
+        this(address, CoreWebSocketConfig.builder().maxFrameBytes(maxFrameBytes).build(), handlerExecutor);
+    }
+
+    /**
+     * 构造函数。
+     * 使用配置中的最大帧大小、负载压缩、帧合并、分片流、请求处理隔离、单连接串行处理与慢消费检测设置
+     * （请求超时用作流发送等待信用的上限），其余客户端专用参数被忽略。
+     *
+     * @param address 绑定地址
+     * @param config 通信配置
+     * @param handlerExecutor 处理器执行器，如果为 null 则按配置的执行器模式创建
+     */
+    public CoreWebSocketServer(InetSocketAddress address, CoreWebSocketConfig config, Executor handlerExecutor) {
         super(address);
-        this.codec = new CoreFrameCodec(maxFrameBytes);
-        this.handlerExecutor = handlerExecutor == null ? Executors.newCachedThreadPool() : handlerExecutor;
+        this.codec = new CoreFrameCodec(config.maxFrameBytes(), config.compression(), config.compressionThreshold());
+        this.handlerExecutor = handlerExecutor == null ? config.executorMode().newExecutor("endercore-core-comm-handler") : handlerExecutor;
+        this.events = new CoreEventDispatcher(this.handlerExecutor, config.eventLanes(), config.eventQueueCapacity(),
+                config.eventOverflowPolicy(), metrics);
+        Duration window = config.batchFlushWindow();
+        this.batchWindowNanos = window == null || window.isNegative() ? 0 : window.toNanos();
+        this.maxBatchBytes = Math.min(config.maxBatchBytes(), config.maxFrameBytes());
+        this.maxFrameBytes = config.maxFrameBytes();
+        this.streamChunkBytes = config.effectiveStreamChunkBytes();
+        this.streamStallNanos = config.requestTimeout().toNanos();
+        this.maxInboundStreams = config.maxInboundStreams();
+        this.handlerConcurrency = config.handlerConcurrency();
+        this.handlerQueueCapacity = config.handlerQueueCapacity();
+        this.namespaceConcurrency = config.namespaceConcurrency();
+        this.namespaceQueueCapacity = config.namespaceQueueCapacity();
+        this.connectionLaneCapacity = config.connectionLaneCapacity();
+        this.slowConsumerHighWatermark = config.slowConsumerHighWatermark();
+        this.slowConsumerLowWatermark = config.slowConsumerLowWatermark();
+        this.slowConsumerTimeoutNanos = config.slowConsumerTimeout() == null ? 0 : config.slowConsumerTimeout().toNanos();
+        this.droppableEvents = config.droppableEvents();
+        this.batchScheduler = batchWindowNanos == 0 ? null : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "endercore-core-comm-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        this.outboundScheduler = slowConsumerHighWatermark <= 0 ? null : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "endercore-core-comm-outbound");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     /**
      * 注册请求处理器。
+     * 处理器在处理器执行器中执行，可以阻塞。
      *
      * @param kind 请求类型
      * @param handler 请求处理器
      */
     public void register(String kind, CoreRequestHandler handler) {
+        Objects.requireNonNull(handler, "handler");
+        registerAsync(kind, new BlockingHandler(handler, handlerExecutor));
+    }
+
+    /**
+     * 注册异步请求处理器。
+     * 处理器在网络线程中被直接调用，响应在其返回的 Future 完成时发送，等待期间不占用线程。
+     *
+     * @param kind 请求类型
+     * @param handler 异步请求处理器
+     */
+    public void registerAsync(String kind, CoreAsyncRequestHandler handler) {
         CoreKinds.validate(kind);
-        handlers.put(kind, Objects.requireNonNull(handler, "handler"));
+        Objects.requireNonNull(handler, "handler");
+        synchronized (registryLock) {
+            handlers.put(kind, handler);
+            int id = kindIds.assign(kind);
+            if (id >= 0) {
+                CoreAsyncRequestHandler[] next = Arrays.copyOf(handlersById, Math.max(handlersById.length, id + 1));
+                next[id] = handler;
+                handlersById = next;
+            }
+        }
     }
 
     /**
@@ -77,7 +185,33 @@ public final class CoreWebSocketServer extends WebSocketServer {
      */
     public void registerEvent(String kind, CoreEventHandler handler) {
         CoreKinds.validate(kind);
-        eventHandlers.put(kind, Objects.requireNonNull(handler, "handler"));
+        Objects.requireNonNull(handler, "handler");
+        synchronized (registryLock) {
+            eventHandlers.put(kind, handler);
+            int id = kindIds.assign(kind);
+            if (id >= 0) {
+                CoreEventHandler[] next = Arrays.copyOf(eventHandlersById, Math.max(eventHandlersById.length, id + 1));
+                next[id] = handler;
+                eventHandlersById = next;
+            }
+        }
+    }
+
+    /**
+     * 登记服务端将发送的事件类型。
+     * 为其分配 kind ID，之后协商的连接可以在握手时取得该 ID，事件以数字 ID 代替字符串发送；未登记的事件照常以字符串发送。
+     *
+     * @param kinds 事件类型
+     */
+    public void registerOutboundEvents(String... kinds) {
+        for (String kind : kinds) {
+            CoreKinds.validate(kind);
+        }
+        synchronized (registryLock) {
+            for (String kind : kinds) {
+                kindIds.assign(kind);
+            }
+        }
     }
 
     /**
@@ -88,8 +222,7 @@ public final class CoreWebSocketServer extends WebSocketServer {
      */
     public void broadcastEvent(String kind, byte[] payload) {
         CoreKinds.validate(kind);
-        byte[] bytes = codec.encode(new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
-        broadcast(bytes);
+        fanOut(getConnections(), new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
     }
 
     /**
@@ -107,9 +240,7 @@ public final class CoreWebSocketServer extends WebSocketServer {
         if (conn == null) {
             return false;
         }
-        byte[] bytes = codec.encode(new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
-        metrics.onFrameSent(bytes.length);
-        conn.send(bytes);
+        writeFrame(conn, new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
         return true;
     }
 
@@ -123,14 +254,92 @@ public final class CoreWebSocketServer extends WebSocketServer {
     public void sendEventToMany(Iterable<InetSocketAddress> remoteAddresses, String kind, byte[] payload) {
         Objects.requireNonNull(remoteAddresses, "remoteAddresses");
         CoreKinds.validate(kind);
-        byte[] bytes = codec.encode(new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
+        List<WebSocket> targets = new ArrayList<>();
         for (InetSocketAddress remote : remoteAddresses) {
             WebSocket conn = remote == null ? null : connectionsByRemote.get(remote);
-            if (conn == null) {
-                continue;
+            if (conn != null) {
+                targets.add(conn);
+            }
+        }
+        fanOut(targets, new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
+    }
+
+    /**
+     * 发送事件到多个连接。
+     * 供调用方缓存目标连接数组（例如房间成员），避免每次发送都按远程地址查找连接；已关闭的连接会被跳过。
+     *
+     * @param targets 目标连接
+     * @param kind 事件类型
+     * @param payload 事件负载
+     */
+    public void sendEventToConnections(WebSocket[] targets, String kind, byte[] payload) {
+        Objects.requireNonNull(targets, "targets");
+        CoreKinds.validate(kind);
+        fanOut(Arrays.asList(targets), new CoreFrame(CoreMessageType.EVENT, (byte) 0, 0, 0, kind, payload));
+    }
+
+    /**
+     * 按远程地址查找连接。
+     *
+     * @param remoteAddress 远程地址
+     * @return 连接，未连接时返回 null
+     */
+    public WebSocket connection(InetSocketAddress remoteAddress) {
+        return remoteAddress == null ? null : connectionsByRemote.get(remoteAddress);
+    }
+
+    /**
+     * 将同一帧发送到多个连接。
+     * 按连接协商的协议版本与是否已知 kind ID 分组，每种编码最多生成一次；
+     * 未启用帧合并的连接按组通过 {@link #broadcast(ByteBuffer, Collection)} 发送，WebSocket 帧也只为每组构建一次，
+     * 启用了帧合并的连接仍交给各自的合并器；处于慢消费状态的连接按其发送队列闸门的策略舍弃可舍弃的事件。
+     *
+     * @param targets 目标连接
+     * @param frame 协议帧
+     */
+    private void fanOut(Collection<WebSocket> targets, CoreFrame frame) {
+        int kindId = kindIds.idOf(frame.kind());
+        ByteBuffer[] variants = new ByteBuffer[4];
+        FanOutGroup[] groups = new FanOutGroup[4];
+        try {
+            for (WebSocket conn : targets) {
+                if (conn == null) {
+                    continue;
+                }
+                CoreConnectionContext ctx = context(conn);
+                if (ctx.gate() != null && !ctx.gate().admit(frame)) {
+                    continue;
+                }
+                boolean useId = kindId >= 0 && ctx.knows(kindId);
+                boolean compact = ctx.version() == CoreProtocol.VERSION_COMPACT;
+                int slot = (useId ? 1 : 0) | (compact ? 2 : 0);
+                ByteBuffer bytes = variants[slot];
+                if (bytes == null) {
+                    bytes = codec.encodePooled(frame, useId ? kindIds : null, ctx.version());
+                    variants[slot] = bytes;
+                }
+                metrics.onFrameSent(bytes.remaining());
+                CoreFrameBatcher batcher = ctx.batcher();
+                if (batcher != null) {
+                    batcher.offer(bytes.duplicate());
+                    continue;
+                }
+                FanOutGroup group = groups[slot];
+                if (group == null) {
+                    group = new FanOutGroup(targets.size());
+                    groups[slot] = group;
+                }
+                group.connections.add(conn);
+            }
+            for (int slot = 0; slot < groups.length; slot++) {
+                if (groups[slot] != null) {
+                    broadcast(variants[slot].duplicate(), groups[slot].connections);
+                }
+            }
+        } finally {
+            for (ByteBuffer bytes : variants) {
+                codec.release(bytes);
             }
-            metrics.onFrameSent(bytes.length);
-            conn.send(bytes);
         }
     }
 
@@ -152,6 +361,7 @@ public final class CoreWebSocketServer extends WebSocketServer {
      */
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
         connections.incrementAndGet();
+        conn.setAttachment(newContext(conn));
         InetSocketAddress remote = conn.getRemoteSocketAddress();
         if (remote != null) {
             connectionsByRemote.put(remote, conn);
@@ -169,6 +379,19 @@ public final class CoreWebSocketServer extends WebSocketServer {
      */
     public void onClose(WebSocket conn, int code, String reason, boolean remote) {
         connections.decrementAndGet();
+        CoreConnectionContext ctx = conn == null ? null : conn.getAttachment();
+        if (ctx != null) {
+            ctx.streams().closeAll();
+            if (ctx.lane() != null) {
+                ctx.lane().close();
+            }
+            if (ctx.batcher() != null) {
+                ctx.batcher().close();
+            }
+            if (ctx.gate() != null) {
+                ctx.gate().close();
+            }
+        }
         InetSocketAddress remoteAddress = conn == null ? null : conn.getRemoteSocketAddress();
         if (remoteAddress != null) {
             connectionsByRemote.remove(remoteAddress);
@@ -190,9 +413,9 @@ public final class CoreWebSocketServer extends WebSocketServer {
      */
     public void onMessage(WebSocket conn, ByteBuffer message) {
         metrics.onFrameReceived(message.remaining());
-        CoreFrame frame;
+        CoreFrameView frame;
         try {
-            frame = codec.decode(message);
+            frame = codec.decodeView(message, kindIds);
         } catch (CoreProtocolException e) {
             conn.close(1002, e.getMessage());
             return;
@@ -201,12 +424,34 @@ public final class CoreWebSocketServer extends WebSocketServer {
             return;
         }
 
+        try {
+            if (frame.type() == CoreMessageType.BATCH) {
+                codec.forEachBatched(frame, kindIds, f -> dispatch(conn, f));
+            } else {
+                dispatch(conn, frame);
+            }
+        } catch (CoreProtocolException e) {
+            conn.close(1002, e.getMessage());
+        }
+    }
+
+    /**
+     * 按消息类型分发单个帧。
+     *
+     * @param conn WebSocket 连接
+     * @param frame 协议帧视图
+     */
+    private void dispatch(WebSocket conn, CoreFrameView frame) {
         if (frame.type() == CoreMessageType.REQUEST) {
             handleRequest(conn, frame);
         } else if (frame.type() == CoreMessageType.EVENT) {
             handleEvent(conn, frame);
         } else if (frame.type() == CoreMessageType.HEARTBEAT) {
             handleHeartbeat(conn, frame);
+        } else if (frame.type() == CoreMessageType.STREAM_DATA) {
+            context(conn).streams().onData(frame);
+        } else if (frame.type() == CoreMessageType.STREAM_CREDIT) {
+            context(conn).streams().onCredit(frame);
         }
     }
 
@@ -240,12 +485,33 @@ public final class CoreWebSocketServer extends WebSocketServer {
         started.complete(null);
     }
 
+    @Override
+    /**
+     * 停止服务器，并关闭帧合并与慢消费检测调度线程。
+     *
+     * @param timeout 等待连接关闭的超时时间（毫秒）
+     * @param closeMessage 关闭原因
+     * @throws InterruptedException 等待被中断时抛出
+     */
+    public void stop(int timeout, String closeMessage) throws InterruptedException {
+        try {
+            super.stop(timeout, closeMessage);
+        } finally {
+            if (batchScheduler != null) {
+                batchScheduler.shutdownNow();
+            }
+            if (outboundScheduler != null) {
+                outboundScheduler.shutdownNow();
+            }
+        }
+    }
+
     /**
      * 等待服务器启动完成。
      *
      * @param timeout 超时时间
      */
-    public void awaitStarted(java.time.Duration timeout) {
+    public void awaitStarted(Duration timeout) {
         try {
             started.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
         } catch (Exception e) {
@@ -259,10 +525,23 @@ public final class CoreWebSocketServer extends WebSocketServer {
      * @param conn WebSocket 连接
      * @param frame 请求帧
      */
-    private void handleRequest(WebSocket conn, CoreFrame frame) {
-        CoreKinds.validate(frame.kind());
-        CoreRequestHandler handler = handlers.get(frame.kind());
+    private void handleRequest(WebSocket conn, CoreFrameView frame) {
+        if (frame.kindId() < 0) {
+            CoreKinds.validate(frame.kind());
+            if (CoreProtocol.KIND_HANDSHAKE.equals(frame.kind())) {
+                handleHandshake(conn, frame);
+                return;
+            }
+        }
+        CoreInboundStream body = null;
+        if ((frame.flags() & CoreProtocol.FLAG_STREAM) != 0) {
+            body = context(conn).streams().openInbound(frame);
+        }
+        CoreAsyncRequestHandler handler = requestHandler(frame);
         if (handler == null) {
+            if (body != null) {
+                body.close();
+            }
             byte[] payload = ("Requested protocol hasn't been implemented: " + frame.kind())
                     .getBytes(StandardCharsets.UTF_8);
             sendResponse(conn, new CoreResponse(255, frame.requestId(), frame.kind(), payload));
@@ -270,22 +549,263 @@ public final class CoreWebSocketServer extends WebSocketServer {
         }
 
         InetSocketAddress remote = conn.getRemoteSocketAddress();
-        CoreRequest request = new CoreRequest(frame.requestId(), frame.kind(), frame.payload(), remote);
-        handlerExecutor.execute(() -> {
-            try {
-                CoreResponse response = handler.handle(request);
-                if (response == null) {
-                    response = new CoreResponse(255, request.requestId(), request.kind(),
-                            "Handler returned null response".getBytes(StandardCharsets.UTF_8));
+        CoreRequest request = body != null
+                ? new CoreRequest(frame.requestId(), frame.kind(), body, remote)
+                : new CoreRequest(frame.requestId(), frame.kind(), frame.payloadBuffer(), remote);
+        CoreInboundStream stream = body;
+        long receivedNanos = System.nanoTime();
+        CoreSerialLane lane = context(conn).lane();
+        if (lane == null) {
+            admitRequest(conn, handler, request, stream, receivedNanos, false, null);
+            return;
+        }
+        if (!lane.submit(() -> admitRequest(conn, handler, request, stream, receivedNanos, true, lane::done),
+                () -> rejectOverloaded(conn, request, stream))) {
+            rejectOverloaded(conn, request, stream);
+        }
+    }
+
+    /**
+     * 按请求所属命名空间的处理隔离限制调用请求处理器；处理队列已满时以过载状态回复。
+     *
+     * @param conn WebSocket 连接
+     * @param handler 请求处理器
+     * @param request 请求对象
+     * @param stream 分片请求体，非分片请求为 null
+     * @param receivedNanos 收到请求的时刻
+     * @param onExecutor 当前线程是否已在处理器执行器中
+     * @param after 请求处理结束（含被拒绝）后执行的回调，可为 null
+     */
+    private void admitRequest(WebSocket conn, CoreAsyncRequestHandler handler, CoreRequest request,
+                              CoreInboundStream stream, long receivedNanos, boolean onExecutor, Runnable after) {
+        CoreBulkhead bulkhead = bulkhead(request.kind());
+        if (bulkhead == null) {
+            invokeHandler(conn, handler, request, stream, receivedNanos, onExecutor, after);
+            return;
+        }
+        Runnable release = after == null ? bulkhead::release : () -> {
+            bulkhead.release();
+            after.run();
+        };
+        if (!bulkhead.submit(dispatched -> invokeHandler(conn, handler, request, stream, receivedNanos, dispatched, release),
+                onExecutor)) {
+            rejectOverloaded(conn, request, stream);
+            if (after != null) {
+                after.run();
+            }
+        }
+    }
+
+    /**
+     * 以过载状态回复请求，不调用处理器；连接已关闭时只关闭请求体。
+     *
+     * @param conn WebSocket 连接
+     * @param request 请求对象
+     * @param stream 分片请求体，非分片请求为 null
+     */
+    private void rejectOverloaded(WebSocket conn, CoreRequest request, CoreInboundStream stream) {
+        if (stream != null) {
+            stream.close();
+        }
+        if (!conn.isOpen()) {
+            return;
+        }
+        sendResponse(conn, new CoreResponse(CoreProtocol.STATUS_OVERLOADED, request.requestId(), request.kind(),
+                "Server overloaded".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 调用请求处理器，并在其 Future 完成时发送响应、执行结束回调。
+     * 同步处理器只在当前线程不在处理器执行器中（即网络线程）时才转到执行器，
+     * 已由串行通道或处理隔离队列调度到执行器中的请求直接在当前线程处理。
+     *
+     * @param conn WebSocket 连接
+     * @param handler 请求处理器
+     * @param request 请求对象
+     * @param stream 分片请求体，非分片请求为 null
+     * @param receivedNanos 收到请求的时刻
+     * @param onExecutor 当前线程是否已在处理器执行器中
+     * @param after 请求处理结束后执行的回调（归还处理隔离许可、推进串行通道），可为 null
+     */
+    private void invokeHandler(WebSocket conn, CoreAsyncRequestHandler handler, CoreRequest request,
+                               CoreInboundStream stream, long receivedNanos, boolean onExecutor, Runnable after) {
+        CompletableFuture<CoreResponse> future;
+        try {
+            future = onExecutor && handler instanceof BlockingHandler
+                    ? ((BlockingHandler) handler).handleNow(request)
+                    : handler.handleAsync(request);
+        } catch (Throwable e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        if (future == null) {
+            future = CompletableFuture.completedFuture(null);
+        }
+        boolean blocking = handler instanceof BlockingHandler;
+        future.whenComplete((response, error) -> {
+            // 异步处理器的 Future 可能在 I/O 线程中完成，分片流响应的发送会阻塞，转到处理器执行器中进行
+            if (!blocking && error == null && response != null && response.isStreamed()) {
+                try {
+                    handlerExecutor.execute(() -> completeRequest(conn, request, stream, receivedNanos, response, null, after));
+                } catch (RejectedExecutionException e) {
+                    // 执行器已关闭时仍需回复、关闭请求体并执行结束回调，否则许可与串行通道不会被归还
+                    closeQuietly(response);
+                    completeRequest(conn, request, stream, receivedNanos, null, e, after);
                 }
-                sendResponse(conn, response);
-            } catch (Exception e) {
-                byte[] payload = String.valueOf(e).getBytes(StandardCharsets.UTF_8);
-                sendResponse(conn, new CoreResponse(255, request.requestId(), request.kind(), payload));
+            } else {
+                completeRequest(conn, request, stream, receivedNanos, response, error, after);
             }
         });
     }
 
+    /**
+     * 关闭未发送的流式响应的负载，忽略关闭时的异常。
+     *
+     * @param response 流式响应
+     */
+    private static void closeQuietly(CoreResponse response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 获取请求类型所属命名空间的处理隔离舱。
+     *
+     * @param kind 请求类型
+     * @return 处理隔离舱，未启用处理隔离时返回 null
+     */
+    private CoreBulkhead bulkhead(String kind) {
+        if (handlerConcurrency <= 0 && namespaceConcurrency.isEmpty()) {
+            return null;
+        }
+        String namespace = kind.substring(0, Math.max(0, kind.indexOf(':')));
+        CoreBulkhead b = bulkheads.get(namespace);
+        if (b == null) {
+            b = bulkheads.computeIfAbsent(namespace, ns -> new CoreBulkhead(handlerExecutor, metrics,
+                    namespaceConcurrency.getOrDefault(ns, handlerConcurrency),
+                    namespaceQueueCapacity.getOrDefault(ns, handlerQueueCapacity)));
+        }
+        return b;
+    }
+
+    /**
+     * 请求处理完成：发送响应或错误响应，关闭请求体并记录处理延迟。
+     *
+     * @param conn WebSocket 连接
+     * @param request 请求对象
+     * @param stream 分片请求体，非分片请求为 null
+     * @param receivedNanos 收到请求的时刻
+     * @param response 处理器返回的响应，失败时为 null
+     * @param error 处理异常，成功时为 null
+     * @param after 请求处理结束后执行的回调，可为 null
+     */
+    private void completeRequest(WebSocket conn, CoreRequest request, CoreInboundStream stream, long receivedNanos,
+                                 CoreResponse response, Throwable error, Runnable after) {
+        try {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                byte[] payload = String.valueOf(cause).getBytes(StandardCharsets.UTF_8);
+                sendResponse(conn, new CoreResponse(255, request.requestId(), request.kind(), payload));
+            } else if (response == null) {
+                sendResponse(conn, new CoreResponse(255, request.requestId(), request.kind(),
+                        "Handler returned null response".getBytes(StandardCharsets.UTF_8)));
+            } else {
+                sendResponse(conn, response);
+            }
+        } finally {
+            if (stream != null) {
+                stream.close();
+            }
+            metrics.onRequestLatency(request.kind(), System.nanoTime() - receivedNanos);
+            if (after != null) {
+                after.run();
+            }
+        }
+    }
+
+    /**
+     * 查找请求处理器。
+     * 以数字 ID 传输的帧直接按数组下标查找，否则按 kind 字符串查找。
+     *
+     * @param frame 请求帧
+     * @return 请求处理器，未注册时返回 null
+     */
+    private CoreAsyncRequestHandler requestHandler(CoreFrameView frame) {
+        int kindId = frame.kindId();
+        if (kindId >= 0) {
+            CoreAsyncRequestHandler[] byId = handlersById;
+            return kindId < byId.length ? byId[kindId] : null;
+        }
+        return handlers.get(frame.kind());
+    }
+
+    /**
+     * 处理协议握手请求。
+     * 回复对端列出的 kind 中已有 ID 的部分（已注册处理器的请求与事件，以及登记过的服务端事件）；
+     * 握手不会分配新的 ID，对端无法通过列出任意 kind 占满全局编号表。
+     * 回复以字符串 kind 发出，之后该连接上的帧才会使用数字 ID。
+     * 在网络线程中同步执行，以保证 ID 启用时机与帧顺序一致。
+     *
+     * @param conn WebSocket 连接
+     * @param frame 握手请求帧
+     */
+    private void handleHandshake(WebSocket conn, CoreFrameView frame) {
+        CoreHandshake.Request request;
+        try {
+            request = CoreHandshake.decodeRequest(frame.payloadBuffer());
+        } catch (CoreProtocolException e) {
+            sendResponse(conn, new CoreResponse(1, frame.requestId(), frame.kind(),
+                    String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8)));
+            return;
+        }
+        Map<String, Integer> assigned = new LinkedHashMap<>();
+        for (String kind : request.kinds()) {
+            int id = kindIds.idOf(kind);
+            if (id >= 0) {
+                assigned.put(kind, id);
+            }
+        }
+        int version = Math.max(CoreProtocol.VERSION, Math.min(request.version(), CoreProtocol.MAX_VERSION));
+        sendResponse(conn, new CoreResponse(0, frame.requestId(), frame.kind(),
+                CoreHandshake.encodeResponse(version, assigned)));
+        CoreConnectionContext ctx = context(conn);
+        ctx.addKnownIds(assigned.values());
+        ctx.setVersion(version);
+        if (version == CoreProtocol.VERSION_COMPACT && batchScheduler != null && ctx.batcher() == null) {
+            ctx.setBatcher(new CoreFrameBatcher(batchScheduler, batchWindowNanos, maxBatchBytes, bytes -> sendNow(conn, bytes)));
+        }
+    }
+
+    /**
+     * 获取连接上下文。
+     *
+     * @param conn WebSocket 连接
+     * @return 连接上下文
+     */
+    private CoreConnectionContext context(WebSocket conn) {
+        CoreConnectionContext ctx = conn.getAttachment();
+        if (ctx == null) {
+            ctx = newContext(conn);
+            conn.setAttachment(ctx);
+        }
+        return ctx;
+    }
+
+    /**
+     * 创建连接上下文。
+     *
+     * @param conn WebSocket 连接
+     * @return 连接上下文
+     */
+    private CoreConnectionContext newContext(WebSocket conn) {
+        CoreSerialLane lane = connectionLaneCapacity > 0 ? new CoreSerialLane(handlerExecutor, connectionLaneCapacity) : null;
+        CoreOutboundGate gate = outboundScheduler == null ? null : new CoreOutboundGate(conn, slowConsumerHighWatermark,
+                slowConsumerLowWatermark, slowConsumerTimeoutNanos, droppableEvents, metrics, outboundScheduler,
+                frame -> writeFrame(conn, frame));
+        return new CoreConnectionContext(kindIds, new CoreStreamRegistry(maxInboundStreams, frame -> writeFrame(conn, frame)), lane, gate);
+    }
+
     /**
      * 发送响应帧。
      *
@@ -293,7 +813,11 @@ public final class CoreWebSocketServer extends WebSocketServer {
      * @param response 响应对象
      */
     private void sendResponse(WebSocket conn, CoreResponse response) {
-        byte[] bytes = codec.encode(new CoreFrame(
+        if (response.isStreamed()) {
+            sendStreamedResponse(conn, response);
+            return;
+        }
+        writeFrame(conn, new CoreFrame(
                 CoreMessageType.RESPONSE,
                 (byte) 0,
                 response.status(),
@@ -301,26 +825,134 @@ public final class CoreWebSocketServer extends WebSocketServer {
                 response.kind(),
                 response.payload()
         ));
-        metrics.onFrameSent(bytes.length);
-        conn.send(bytes);
+    }
+
+    /**
+     * 发送流式响应。
+     * 连接已协商紧凑协议时以分片流发送，否则将负载完整读入后以普通帧发送（超过最大帧大小时返回错误）。
+     * 在处理器线程中执行，等待对端信用时会阻塞。
+     *
+     * @param conn WebSocket 连接
+     * @param response 流式响应
+     */
+    private void sendStreamedResponse(WebSocket conn, CoreResponse response) {
+        CoreConnectionContext ctx = context(conn);
+        try (InputStream body = response.body()) {
+            if (ctx.version() == CoreProtocol.VERSION_COMPACT) {
+                CoreFrame head = new CoreFrame(CoreMessageType.RESPONSE, (byte) 0, response.status(),
+                        response.requestId(), response.kind(), new byte[0]);
+                ctx.streams().send(head, body, streamChunkBytes, streamStallNanos);
+                return;
+            }
+            // 为协议头与 kind 预留空间
+            int limit = maxFrameBytes - CoreProtocol.HEADER_BYTES - 1024;
+            byte[] payload = body.readNBytes(limit + 1);
+            if (payload.length > limit) {
+                sendResponse(conn, new CoreResponse(255, response.requestId(), response.kind(),
+                        "Response too large for a non-streaming peer".getBytes(StandardCharsets.UTF_8)));
+                return;
+            }
+            sendResponse(conn, new CoreResponse(response.status(), response.requestId(), response.kind(), payload));
+        } catch (IOException e) {
+            // 首个分片发出前失败时对端仍在等待响应；已发出时对端已收到中止通知，此响应会被忽略
+            sendResponse(conn, new CoreResponse(255, response.requestId(), response.kind(),
+                    String.valueOf(e).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * 将帧编码到池化缓冲区并发送到指定连接。
+     * Java-WebSocket 在 send 返回前已将数据复制到其自身的帧缓冲中，因此发送后即可归还缓冲区。
+     * 连接处于慢消费状态时，可舍弃的事件按发送队列闸门的策略丢弃或合并。
+     *
+     * @param conn WebSocket 连接
+     * @param frame 协议帧
+     */
+    private void writeFrame(WebSocket conn, CoreFrame frame) {
+        CoreConnectionContext ctx = context(conn);
+        if (ctx.gate() != null && !ctx.gate().admit(frame)) {
+            return;
+        }
+        ByteBuffer bytes = codec.encodePooled(frame, ctx, ctx.version());
+        try {
+            metrics.onFrameSent(bytes.remaining());
+            deliver(conn, ctx, bytes);
+        } finally {
+            codec.release(bytes);
+        }
+    }
+
+    /**
+     * 发送已编码的帧；连接启用了帧合并时交给合并器，否则立即发送。
+     * 两种方式都会在返回前复制 bytes 的内容。
+     *
+     * @param conn WebSocket 连接
+     * @param ctx 连接上下文
+     * @param bytes 已编码的帧
+     */
+    private void deliver(WebSocket conn, CoreConnectionContext ctx, ByteBuffer bytes) {
+        CoreFrameBatcher batcher = ctx.batcher();
+        if (batcher != null) {
+            batcher.offer(bytes);
+        } else {
+            conn.send(bytes);
+        }
+    }
+
+    /**
+     * 合并器刷新时直接写出消息；连接已关闭时丢弃。
+     *
+     * @param conn WebSocket 连接
+     * @param bytes 编码后的消息
+     */
+    private void sendNow(WebSocket conn, ByteBuffer bytes) {
+        if (conn.isOpen()) {
+            conn.send(bytes);
+        }
     }
 
     /**
      * 处理事件帧。
+     * 同一连接上同一类型的事件进入同一分发通道，按到达顺序执行；启用单连接串行处理时进入该连接的串行通道，
+     * 与该连接的请求一起按到达顺序执行，通道已满时丢弃。
      *
      * @param conn WebSocket 连接
      * @param frame 事件帧
      */
-    private void handleEvent(WebSocket conn, CoreFrame frame) {
-        CoreKinds.validate(frame.kind());
-        CoreEventHandler handler = eventHandlers.get(frame.kind());
+    private void handleEvent(WebSocket conn, CoreFrameView frame) {
+        int kindId = frame.kindId();
+        CoreEventHandler handler;
+        if (kindId >= 0) {
+            CoreEventHandler[] byId = eventHandlersById;
+            handler = kindId < byId.length ? byId[kindId] : null;
+        } else {
+            CoreKinds.validate(frame.kind());
+            handler = eventHandlers.get(frame.kind());
+        }
         if (handler == null) {
             return;
         }
         InetSocketAddress remote = conn.getRemoteSocketAddress();
-        handlerExecutor.execute(() -> {
+        String kind = frame.kind();
+        byte[] payload = frame.payload();
+        CoreSerialLane lane = context(conn).lane();
+        if (lane != null) {
+            boolean accepted = lane.submit(() -> {
+                try {
+                    handler.handle(kind, payload, remote);
+                } catch (Exception ignored) {
+                } finally {
+                    lane.done();
+                }
+            }, () -> metrics.onEventDropped(false));
+            if (!accepted) {
+                metrics.onEventDropped(false);
+            }
+            return;
+        }
+        events.dispatch(31 * System.identityHashCode(conn) + kind.hashCode(), () -> {
             try {
-                handler.handle(frame.kind(), frame.payload(), remote);
+                handler.handle(kind, payload, remote);
             } catch (Exception ignored) {
             }
         });
@@ -328,23 +960,57 @@ public final class CoreWebSocketServer extends WebSocketServer {
 
     /**
      * 处理心跳帧。
+     * 原样回显 requestId（客户端的发送时间戳），且不经过帧合并器，使对端测得的 RTT 不含合并等待时间。
      *
      * @param conn WebSocket 连接
      * @param frame 心跳帧
      */
-    private void handleHeartbeat(WebSocket conn, CoreFrame frame) {
-        byte[] bytes = codec.encode(new CoreFrame(CoreMessageType.HEARTBEAT, (byte) 0, 0, frame.requestId(), "", new byte[0]));
-        metrics.onFrameSent(bytes.length);
-        conn.send(bytes);
+    private void handleHeartbeat(WebSocket conn, CoreFrameView frame) {
+        CoreConnectionContext ctx = context(conn);
+        ByteBuffer bytes = codec.encodePooled(new CoreFrame(CoreMessageType.HEARTBEAT, (byte) 0, 0, frame.requestId(), "", new byte[0]), ctx, ctx.version());
+        try {
+            metrics.onFrameSent(bytes.remaining());
+            sendNow(conn, bytes);
+        } finally {
+            codec.release(bytes);
+        }
     }
 
     /**
      * 获取连接指标快照。
+     * 发送缓冲字节数为所有连接的发送队列之和，同时给出单个连接的最大值。
      *
      * @return 连接指标快照
      */
     public ConnectionMetricsSnapshot metrics() {
-        return metrics.snapshot(0);
+        long total = 0;
+        long max = 0;
+        for (WebSocket conn : getConnections()) {
+            long buffered = CoreOutboundGate.bufferedBytes(conn);
+            total += buffered;
+            max = Math.max(max, buffered);
+        }
+        return metrics.snapshot(0, 0, 0, 0, total, max);
+    }
+
+    /**
+     * 获取指定连接发送队列中尚未写出的字节数。
+     *
+     * @param remoteAddress 远程地址
+     * @return 尚未写出的字节数，未连接时返回 0
+     */
+    public long bufferedBytes(InetSocketAddress remoteAddress) {
+        WebSocket conn = connection(remoteAddress);
+        return conn == null ? 0 : CoreOutboundGate.bufferedBytes(conn);
+    }
+
+    /**
+     * 获取处理器执行器，供内置服务执行不能在网络线程中进行的阻塞操作。
+     *
+     * @return 处理器执行器
+     */
+    Executor handlerExecutor() {
+        return handlerExecutor;
     }
 
     /**
@@ -355,4 +1021,72 @@ public final class CoreWebSocketServer extends WebSocketServer {
     public long connections() {
         return connections.get();
     }
+
+    /**
+     * 将同步请求处理器适配为异步处理器：在处理器执行器中执行，以其结果完成 Future。
+     */
+    private static final class BlockingHandler implements CoreAsyncRequestHandler {
+        private final CoreRequestHandler handler;
+        private final Executor executor;
+
+        /**
+         * 构造函数。
+         *
+         * @param handler 同步请求处理器
+         * @param executor 执行处理器的执行器
+         */
+        private BlockingHandler(CoreRequestHandler handler, Executor executor) {
+            this.handler = handler;
+            this.executor = executor;
+        }
+
+        @Override
+        /**
+         * 在执行器中执行同步处理器，处理器抛出的任何异常（包括 Error）都以失败的 Future 返回。
+         *
+         * @param request 请求对象
+         * @return 响应 Future
+         */
+        public CompletableFuture<CoreResponse> handleAsync(CoreRequest request) {
+            CompletableFuture<CoreResponse> f = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    f.complete(handler.handle(request));
+                } catch (Throwable e) {
+                    f.completeExceptionally(e);
+                }
+            });
+            return f;
+        }
+
+        /**
+         * 在当前线程中执行同步处理器（调用方已在处理器执行器中）。
+         *
+         * @param request 请求对象
+         * @return 已完成的响应 Future
+         */
+        private CompletableFuture<CoreResponse> handleNow(CoreRequest request) {
+            try {
+                return CompletableFuture.completedFuture(handler.handle(request));
+            } catch (Throwable e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    /**
+     * 扇出时使用同一编码的未合并连接。
+     */
+    private static final class FanOutGroup {
+        private final List<WebSocket> connections;
+
+        /**
+         * 构造函数。
+         *
+         * @param expected 预计的连接数
+         */
+        private FanOutGroup(int expected) {
+            this.connections = new ArrayList<>(expected);
+        }
+    }
 }
@@ -188,7 +188,7 @@ public class EasyTierRunner {
         startPeerPoller();
 
         
-        new Thread(() -> {
+        Thread.ofVirtual().name("EasyTier-Output").start(() -> {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
@@ -288,7 +288,7 @@ public class EasyTierRunner {
                 isRunning = false;
                 LOGGER.info("EasyTier process exited.");
             }
-        }, "EasyTier-Output").start();
+        });
     }
 
     /**
@@ -3,10 +3,12 @@ package com.multiplayer.ender.logic;
 import java.nio.ByteBuffer;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 缓冲区池管理类。
- * 用于复用 ByteBuffer 对象，减少内存分配和垃圾回收开销。
+ * 按容量分级复用直接内存 ByteBuffer，减少内存分配和垃圾回收开销。
+ * 超过最大分级的请求直接分配堆缓冲区，且归还时不会入池。
  *
  * @author Ender Developer
  * @version 1.0
@@ -14,46 +16,141 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  */
 public class BufferPool {
     /**
-     * 单个缓冲区的大小（4KB）。
+     * 默认缓冲区的大小（4KB）。
      */
     private static final int BUFFER_SIZE = 4096;
-    
+
+    /**
+     * 各分级的缓冲区容量（字节），从小到大排列。
+     */
+    private static final int[] CLASS_SIZES = {256, 1024, 4096, 16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024};
+
+    /**
+     * 各分级池中最大允许缓存的缓冲区数量。
+     */
+    private static final int[] CLASS_MAX_POOLED = {256, 256, 100, 64, 16, 8, 4};
+
     /**
-     * 池中最大允许缓存的缓冲区数量。
+     * 各分级存放空闲缓冲区的队列。
      */
-    private static final int MAX_POOL_SIZE = 100;
-    
+    private static final Queue<ByteBuffer>[] pools = newPools();
+
     /**
-     * 存放空闲缓冲区的队列。
+     * 各分级当前空闲缓冲区的数量。
      */
-    private static final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger[] pooledCounts = newCounts();
 
     /**
-     * 获取一个 ByteBuffer。
+     * 获取一个默认大小（4KB）的 ByteBuffer。
      * 如果池中有空闲的缓冲区则重用，否则创建一个新的。
      *
      * @return 准备好的 ByteBuffer 对象
      */
     public static ByteBuffer acquire() {
-        ByteBuffer buffer = pool.poll();
+        return acquire(BUFFER_SIZE);
+    }
+
+    /**
+     * 获取一个容量不小于 minCapacity 的 ByteBuffer。
+     * 返回的缓冲区 position 为 0，limit 为 minCapacity。
+     *
+     * @param minCapacity 所需的最小容量
+     * @return 准备好的 ByteBuffer 对象
+     */
+    public static ByteBuffer acquire(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new IllegalArgumentException("minCapacity < 0: " + minCapacity);
+        }
+        int idx = classIndex(minCapacity);
+        if (idx < 0) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+        ByteBuffer buffer = pools[idx].poll();
         if (buffer == null) {
-            return ByteBuffer.allocate(BUFFER_SIZE);
+            buffer = ByteBuffer.allocateDirect(CLASS_SIZES[idx]);
+        } else {
+            pooledCounts[idx].decrementAndGet();
         }
-        buffer.clear();
+        buffer.clear().limit(minCapacity);
         return buffer;
     }
 
     /**
      * 归还一个 ByteBuffer 到池中。
-     * 如果池未满，则将缓冲区清理后放入池中等待复用。
+     * 仅接受由本池分配的直接缓冲区；如果对应分级未满，则将缓冲区清理后放入池中等待复用。
      *
      * @param buffer 要归还的 ByteBuffer 对象
      */
     public static void release(ByteBuffer buffer) {
-        if (buffer != null && pool.size() < MAX_POOL_SIZE) {
-            buffer.clear();
-            pool.offer(buffer);
+        if (buffer == null || !buffer.isDirect() || buffer.isReadOnly()) {
+            return;
+        }
+        int idx = exactClassIndex(buffer.capacity());
+        if (idx < 0) {
+            return;
         }
+        if (pooledCounts[idx].incrementAndGet() > CLASS_MAX_POOLED[idx]) {
+            pooledCounts[idx].decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        pools[idx].offer(buffer);
     }
-}
 
+    /**
+     * 查找可容纳指定容量的最小分级。
+     *
+     * @param capacity 所需容量
+     * @return 分级下标，超过最大分级时返回 -1
+     */
+    private static int classIndex(int capacity) {
+        for (int i = 0; i < CLASS_SIZES.length; i++) {
+            if (capacity <= CLASS_SIZES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 查找容量恰好相等的分级。
+     *
+     * @param capacity 缓冲区容量
+     * @return 分级下标，不存在时返回 -1
+     */
+    private static int exactClassIndex(int capacity) {
+        for (int i = 0; i < CLASS_SIZES.length; i++) {
+            if (capacity == CLASS_SIZES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    /**
+     * 为每个分级创建空闲缓冲区队列。
+     *
+     * @return 各分级的队列
+     */
+    private static Queue<ByteBuffer>[] newPools() {
+        Queue<ByteBuffer>[] queues = new Queue[CLASS_SIZES.length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+        return queues;
+    }
+
+    /**
+     * 为每个分级创建空闲缓冲区计数器。
+     *
+     * @return 各分级的计数器
+     */
+    private static AtomicInteger[] newCounts() {
+        AtomicInteger[] counts = new AtomicInteger[CLASS_SIZES.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new AtomicInteger();
+        }
+        return counts;
+    }
+}
@@ -2,7 +2,12 @@ package com.multiplayer.ender.network;
 
 import com.endercore.core.comm.CoreComm;
 import com.endercore.core.comm.client.CoreWebSocketClient;
+import com.endercore.core.comm.config.CoreExecutorMode;
 import com.endercore.core.comm.config.CoreWebSocketConfig;
+import com.endercore.core.comm.protocol.CoreBinaryReader;
+import com.endercore.core.comm.protocol.CoreBinaryWriter;
+import com.endercore.core.comm.protocol.CoreCompressions;
+import com.endercore.core.comm.protocol.CoreProtocol;
 import com.endercore.core.comm.protocol.CoreResponse;
 import com.endercore.core.comm.server.CoreRequest;
 import com.endercore.core.comm.server.CoreWebSocketServer;
@@ -14,13 +19,13 @@ import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -48,6 +53,12 @@ public class EnderApiClient {
     private static final int DEFAULT_SCAFFOLDING_PORT = 13448;
     private static final String VENDOR = "ender";
     private static final String LOCAL_MACHINE_ID = UUID.randomUUID().toString();
+    private static final List<String> SCAFFOLDING_KINDS = List.of(
+            "c:ping",
+            "c:server_port",
+            "c:player_ping",
+            "c:player_profiles_list",
+            "c:room_state_sync");
     private static final CopyOnWriteArrayList<Profile> profiles = new CopyOnWriteArrayList<>();
     private static final ConcurrentHashMap<String, Long> profileLastSeen = new ConcurrentHashMap<>();
     private static volatile CoreWebSocketServer scaffoldingServer;
@@ -761,7 +772,15 @@ public class EnderApiClient {
         Profile hostProfile = new Profile(LOCAL_MACHINE_ID, hostName, VENDOR, "HOST");
         profiles.add(hostProfile);
         profileLastSeen.put(LOCAL_MACHINE_ID, System.currentTimeMillis());
-        CoreWebSocketServer server = CoreComm.newServer(new InetSocketAddress("0.0.0.0", scaffoldingPort), 4 * 1024 * 1024, null);
+        CoreWebSocketServer server = CoreComm.newServer(new InetSocketAddress("0.0.0.0", scaffoldingPort), CoreWebSocketConfig.builder()
+                .maxFrameBytes(4 * 1024 * 1024)
+                .compression(CoreCompressions.preferred())
+                .batchFlushWindow(Duration.ofMillis(1))
+                .executorMode(CoreExecutorMode.VIRTUAL)
+                .handlerBulkhead(32, 256)
+                .serialPerConnection(64)
+                .slowConsumer(1024 * 1024, 256 * 1024, Duration.ofSeconds(10))
+                .build(), null);
         server.register("c:ping", EnderApiClient::handlePing);
         server.register("c:protocols", EnderApiClient::handleProtocols);
         server.register("c:server_port", EnderApiClient::handleServerPort);
@@ -847,12 +866,12 @@ public class EnderApiClient {
             LOGGER.debug("Scaffolding remote not found during poll");
             return;
         }
-        if (scaffoldingRemote == null || !scaffoldingRemote.equals(remote) || scaffoldingClient == null || !scaffoldingClient.isConnected()) {
+        if (scaffoldingRemote == null || !scaffoldingRemote.equals(remote) || scaffoldingClient == null || !isScaffoldingUsable(scaffoldingClient)) {
             LOGGER.info("Connecting to scaffolding remote: {}", remote);
             connectScaffolding(remote);
         }
         CoreWebSocketClient client = scaffoldingClient;
-        if (client == null || !client.isConnected()) {
+        if (client == null || !isScaffoldingUsable(client)) {
             LOGGER.warn("Scaffolding client not connected after attempt");
             return;
         }
@@ -888,8 +907,7 @@ public class EnderApiClient {
             CoreResponse portResp = client.sendSync("c:server_port", new byte[0], Duration.ofSeconds(10));
             if (portResp.isOk()) {
                 try {
-                    java.io.DataInputStream in = new java.io.DataInputStream(new java.io.ByteArrayInputStream(portResp.payload()));
-                    remoteMcPort = in.readUnsignedShort();
+                    remoteMcPort = new CoreBinaryReader(portResp.payloadBuffer()).readUnsignedShort();
                 } catch (Exception ignored) {}
             }
         } catch (Exception e) {
@@ -949,6 +967,16 @@ public class EnderApiClient {
         }
     }
 
+    /**
+     * 判断 Scaffolding 客户端是否可以发送轮询请求：已连接，或正在自动重连且请求会暂存到重连后重放。
+     *
+     * @param client Scaffolding 客户端
+     * @return 可用返回 true
+     */
+    private static boolean isScaffoldingUsable(CoreWebSocketClient client) {
+        return client.isConnected() || client.isOfflineQueueing();
+    }
+
     /**
      * 连接到 Scaffolding 服务器。
      *
@@ -964,7 +992,16 @@ public class EnderApiClient {
         CoreWebSocketClient client = CoreComm.newClient(CoreWebSocketConfig.builder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .requestTimeout(Duration.ofSeconds(15))
+                .adaptiveTimeout(4.0, Duration.ofMillis(500), Duration.ofSeconds(15))
                 .heartbeatInterval(Duration.ZERO)
+                .compression(CoreCompressions.preferred())
+                .executorMode(CoreExecutorMode.VIRTUAL)
+                .offlineQueue(64, Duration.ofSeconds(5))
+                .idempotentKinds(List.of("c:player_ping", "c:player_profiles_list", "c:room_state_sync", "c:server_port", "c:protocols"))
+                .singleFlightKinds(List.of("c:player_profiles_list", "c:room_state_sync", "c:server_port", "c:protocols"))
+                .responseCache(32)
+                .cacheKind("c:server_port", Duration.ofSeconds(30), Duration.ofSeconds(30))
+                .cacheKind("c:protocols", Duration.ofMinutes(1), Duration.ZERO)
                 .build(), null, null);
         try {
             URI uri = URI.create("ws://" + remote.getHostString() + ":" + remote.getPort() + "/ws");
@@ -973,6 +1010,7 @@ public class EnderApiClient {
             scaffoldingClient = client;
             scaffoldingRemote = remote;
             LOGGER.info("WebSocket connected successfully");
+            negotiateScaffoldingProtocol(client);
         } catch (Exception e) {
             LOGGER.error("Failed to connect to scaffolding server: " + remote, e);
             try {
@@ -982,6 +1020,25 @@ public class EnderApiClient {
         }
     }
 
+    /**
+     * 通过 c:protocols 检查对端是否支持协议握手，支持时协商 kind 数字 ID。
+     * 对端为不支持握手的实现时保持字符串 kind，不影响后续通信。
+     *
+     * @param client 已连接的 Scaffolding 客户端
+     */
+    private static void negotiateScaffoldingProtocol(CoreWebSocketClient client) {
+        try {
+            CoreResponse resp = client.sendSync("c:protocols", new byte[0], Duration.ofSeconds(5));
+            if (!resp.isOk() || !Arrays.asList(resp.payloadUtf8().split("\0")).contains(CoreProtocol.KIND_HANDSHAKE)) {
+                return;
+            }
+            boolean negotiated = client.negotiateProtocol(SCAFFOLDING_KINDS).get(5, TimeUnit.SECONDS);
+            LOGGER.info("Scaffolding kind id negotiation: {}", negotiated);
+        } catch (Exception e) {
+            LOGGER.debug("Scaffolding protocol negotiation skipped", e);
+        }
+    }
+
     /**
      * 扫描结果类。
      */
@@ -1063,14 +1120,17 @@ public class EnderApiClient {
      * @return 包含支持的协议列表的响应对象
      */
     private static CoreResponse handleProtocols(CoreRequest req) {
-        byte[] payload = String.join("\0",
-                "c:ping",
-                "c:protocols",
-                "c:server_port",
-                "c:player_ping",
-                "c:player_profiles_list",
-                "c:room_state_sync").getBytes(StandardCharsets.UTF_8);
-        return new CoreResponse(0, req.requestId(), req.kind(), payload);
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            out.writeUtf8(String.join("\0",
+                    "c:ping",
+                    "c:protocols",
+                    "c:server_port",
+                    "c:player_ping",
+                    "c:player_profiles_list",
+                    "c:room_state_sync",
+                    CoreProtocol.KIND_HANDSHAKE));
+            return new CoreResponse(0, req.requestId(), req.kind(), out.toByteArray());
+        }
     }
 
     /**
@@ -1084,7 +1144,9 @@ public class EnderApiClient {
         synchronized (ROOM_STATE_LOCK) {
             json = roomManagementState.toString();
         }
-        return new CoreResponse(0, req.requestId(), req.kind(), json.getBytes(StandardCharsets.UTF_8));
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return new CoreResponse(0, req.requestId(), req.kind(), out.writeUtf8(json).toByteArray());
+        }
     }
 
     /**
@@ -1094,13 +1156,8 @@ public class EnderApiClient {
      * @return 包含服务器端口号的响应对象
      */
     private static CoreResponse handleServerPort(CoreRequest req) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(baos);
-            out.writeShort((short) hostedMcPort);
-            return new CoreResponse(0, req.requestId(), req.kind(), baos.toByteArray());
-        } catch (Exception e) {
-            return new CoreResponse(1, req.requestId(), req.kind(), new byte[0]);
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return new CoreResponse(0, req.requestId(), req.kind(), out.writeShort(hostedMcPort).toByteArray());
         }
     }
 
@@ -1112,7 +1169,8 @@ public class EnderApiClient {
      */
     private static CoreResponse handlePlayerPing(CoreRequest req) {
         try {
-            String body = new String(req.payload(), StandardCharsets.UTF_8);
+            CoreBinaryReader in = new CoreBinaryReader(req.payloadBuffer());
+            String body = in.readUtf8(in.remaining());
             JsonObject json = GSON.fromJson(body, JsonObject.class);
             if (json == null) {
                 return new CoreResponse(1, req.requestId(), req.kind(), new byte[0]);
@@ -1142,8 +1200,9 @@ public class EnderApiClient {
      */
     private static CoreResponse handlePlayerProfilesList(CoreRequest req) {
         JsonArray array = buildProfilesJson();
-        byte[] payload = array.toString().getBytes(StandardCharsets.UTF_8);
-        return new CoreResponse(0, req.requestId(), req.kind(), payload);
+        try (CoreBinaryWriter out = CoreBinaryWriter.acquire()) {
+            return new CoreResponse(0, req.requestId(), req.kind(), out.writeUtf8(array.toString()).toByteArray());
+        }
     }
 
     /**
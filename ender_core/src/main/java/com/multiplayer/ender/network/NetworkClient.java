@@ -2,6 +2,7 @@ package com.multiplayer.ender.network;
 
 import com.endercore.core.comm.CoreComm;
 import com.endercore.core.comm.client.CoreWebSocketClient;
+import com.endercore.core.comm.config.CoreExecutorMode;
 import com.endercore.core.comm.config.CoreWebSocketConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +66,7 @@ public class NetworkClient {
         try {
             CoreWebSocketConfig config = CoreWebSocketConfig.builder()
                 .connectTimeout(Duration.ofSeconds(10))
+                .executorMode(CoreExecutorMode.VIRTUAL)
                 .build();
                 
             client = CoreComm.newClient(config, null, null);
@@ -72,14 +74,14 @@ public class NetworkClient {
             URI uri = URI.create("ws://" + host + ":" + port + "/ws"); 
             
             
-            new Thread(() -> {
+            Thread.ofVirtual().name("Ender-Connect").start(() -> {
                 try {
                     client.connect(uri).get();
                     future.complete(null);
                 } catch (Exception e) {
                     future.completeExceptionally(e);
                 }
-            }).start();
+            });
             
         } catch (Exception e) {
             future.completeExceptionally(e);